@@ -0,0 +1,59 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position after the last book of a keyset page. Clients only ever see the
+ * opaque token produced by {@link #encode()}.
+ */
+@Data
+@AllArgsConstructor
+public class BookCursor {
+    private static final String VERSION = "v1";
+
+    private BookSortField sortField;
+    private Sort.Direction direction;
+    private Object lastValue;
+    private String lastId;
+
+    public String encode() {
+        String raw = VERSION + "|" + sortField.name() + "|" + direction.name() + "|"
+                + encodeValue(lastValue) + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || parts[4].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new BookCursor(BookSortField.valueOf(parts[1]), Sort.Direction.valueOf(parts[2]),
+                    decodeValue(parts[3]), parts[4]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) return "n";
+        if (value instanceof Date) return "t:" + ((Date) value).getTime();
+        if (value instanceof Number) return "d:" + ((Number) value).doubleValue();
+        return "s:" + value;
+    }
+
+    private static Object decodeValue(String encoded) {
+        if ("n".equals(encoded)) return null;
+        if (encoded.startsWith("t:")) return new Date(Long.parseLong(encoded.substring(2)));
+        if (encoded.startsWith("d:")) return Double.parseDouble(encoded.substring(2));
+        if (encoded.startsWith("s:")) return encoded.substring(2);
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
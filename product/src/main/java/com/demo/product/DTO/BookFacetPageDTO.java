@@ -0,0 +1,22 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetPageDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private List<BookResponseDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private Map<String, List<FacetBucketDTO>> facets;
+}
@@ -0,0 +1,60 @@
+package com.demo.product.DTO;
+
+import java.util.*;
+
+public final class BookFieldSet {
+
+    public static final List<String> ALL_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "id", "title", "subtitle", "author", "coAuthors", "description", "publisher", "publishedDate",
+            "edition", "pageCount", "format", "price", "mrpPrice", "stockAvailable", "rating",
+            "revision", "lastModified", "discount"));
+
+    // What listing endpoints return when no fields are requested.
+    public static final List<String> SUMMARY_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "id", "title", "author", "price", "rating"));
+
+    public static final String ALL = "all";
+
+    private BookFieldSet() {
+    }
+
+    // Parses a comma-separated field list; an empty result means "all fields". The id is always included.
+    public static Set<String> parse(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields == null || fields.trim().isEmpty()) {
+            return selected;
+        }
+        selected.add("id");
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!ALL_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Invalid field: " + field + ". Supported fields: " + String.join(", ", ALL_FIELDS));
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    // Listing variant of parse: missing means the summary projection and "all" means every field.
+    public static Set<String> parseListing(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return new LinkedHashSet<>(SUMMARY_FIELDS);
+        }
+        if (ALL.equalsIgnoreCase(fields.trim())) {
+            return new LinkedHashSet<>();
+        }
+        return parse(fields);
+    }
+
+    public static String describe(Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL;
+        }
+        List<String> sorted = new ArrayList<>(fields);
+        Collections.sort(sorted);
+        return String.join(",", sorted);
+    }
+}
@@ -0,0 +1,12 @@
+package com.demo.product.DTO;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class BookImportRowDTO extends BookRequestDTO {
+    private static final long serialVersionUID = 1L;
+    // Rows with an id are upserted, rows without one are inserted under a new id.
+    private String id;
+}
@@ -12,9 +12,17 @@ public class BookListFilterDTO implements Serializable  {
     private String publisher;
     private String format;
 
+    // exact | prefix | contains (default) for the text filters above
+    private String match;
+
     private Double minPrice;
     private Double maxPrice;
 
     private Double minRating;
     private Double maxRating;
+
+    private Integer minPageCount;
+    private Integer maxPageCount;
+
+    private Boolean inStock;
 }
@@ -0,0 +1,15 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPatchDTO {
+    private String bookId;
+    private Double price;
+    private Double mrpPrice;
+    private Integer stockAvailable;
+}
@@ -1,4 +1,5 @@
 package com.demo.product.DTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -6,6 +7,7 @@ import java.util.Date;
 import java.util.List;
 
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class BookResponseDTO implements Serializable {
     private static final long serialVersionUID = 1L;
     private String id;
@@ -29,4 +31,8 @@ public class BookResponseDTO implements Serializable {
 
     private Integer stockAvailable;
     private Double rating;
+    private Double discount;
+
+    private Long revision;
+    private Date lastModified;
 }
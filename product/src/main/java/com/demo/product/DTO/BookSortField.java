@@ -0,0 +1,52 @@
+package com.demo.product.DTO;
+
+import com.demo.product.entity.Books;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+public enum BookSortField {
+    ID("id", Books::getId),
+    PRICE("price", Books::getPrice),
+    RATING("rating", Books::getRating),
+    PUBLISHED_DATE("publishedDate", Books::getPublishedDate),
+    DISCOUNT("discount", Books::getDiscount);
+
+    private final String property;
+    private final Function<Books, Object> extractor;
+
+    BookSortField(String property, Function<Books, Object> extractor) {
+        this.property = property;
+        this.extractor = extractor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object valueOf(Books book) {
+        return extractor.apply(book);
+    }
+
+    public static BookSortField fromParam(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return ID;
+        }
+        for (BookSortField field : values()) {
+            if (field.property.equalsIgnoreCase(value.trim())) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Invalid sort field: " + value
+                + ". Supported values: " + supported());
+    }
+
+    private static String supported() {
+        StringBuilder sb = new StringBuilder();
+        for (BookSortField field : values()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(field.property.toLowerCase(Locale.ROOT));
+        }
+        return sb.toString();
+    }
+}
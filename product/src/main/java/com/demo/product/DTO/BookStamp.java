@@ -0,0 +1,31 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * The validators of a single book, readable without loading or converting the
+ * whole document.
+ */
+@Data
+@AllArgsConstructor
+public class BookStamp {
+    private String bookId;
+    private Long revision;
+    private Date lastModified;
+
+    public static BookStamp of(BookResponseDTO book) {
+        return new BookStamp(book.getId(), book.getRevision(), book.getLastModified());
+    }
+
+    // Books written before revisions existed share "0-0" until their next write.
+    public String eTag() {
+        return "\"" + (revision == null ? 0 : revision) + "-" + (lastModified == null ? 0 : lastModified.getTime()) + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.getTime();
+    }
+}
@@ -0,0 +1,16 @@
+package com.demo.product.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkUpdateReportDTO {
+    private long processed;
+    private long updated;
+    private long notFound;
+    private long failed;
+    private List<BulkUpdateResultDTO> results = new ArrayList<>();
+    private long elapsedMs;
+}
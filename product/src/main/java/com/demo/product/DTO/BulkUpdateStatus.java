@@ -0,0 +1,8 @@
+package com.demo.product.DTO;
+
+public enum BulkUpdateStatus {
+    UPDATED,
+    NOT_FOUND,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,18 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeDTO {
+    private long version;
+    private String bookId;
+    private String type;
+    private Date changedAt;
+    private BookResponseDTO book;
+}
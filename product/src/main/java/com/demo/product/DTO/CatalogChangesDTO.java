@@ -0,0 +1,21 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesDTO {
+    private List<CatalogChangeDTO> changes;
+    // Pass as since= on the next call.
+    private long nextSince;
+    private boolean hasMore;
+    // The requested version has aged out of the feed: note latestVersion, reload
+    // through /books/export, then follow the feed from latestVersion.
+    private boolean resyncRequired;
+    private Long latestVersion;
+}
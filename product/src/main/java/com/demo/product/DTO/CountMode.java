@@ -0,0 +1,25 @@
+package com.demo.product.DTO;
+
+public enum CountMode {
+    /** Count the matching documents on every request. */
+    EXACT,
+    /** Exact count, cached per normalised filter until the next catalog write. */
+    CACHED,
+    /** Collection metadata for unfiltered listings, a capped count otherwise; past the cap, no total. */
+    ESTIMATED,
+    /** No count at all; one extra row is fetched to tell whether a next page exists. */
+    NONE;
+
+    public static CountMode fromParam(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return CACHED;
+        }
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid count mode: " + value
+                + ". Supported values: exact, cached, estimated, none");
+    }
+}
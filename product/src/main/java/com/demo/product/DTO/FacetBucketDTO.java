@@ -0,0 +1,16 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetBucketDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private String value;
+    private long count;
+}
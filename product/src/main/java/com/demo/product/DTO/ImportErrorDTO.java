@@ -0,0 +1,14 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    private long line;
+    private String bookId;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.demo.product.DTO;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+
+    public static ImportFormat fromFileName(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+}
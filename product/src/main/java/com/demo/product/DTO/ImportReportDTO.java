@@ -0,0 +1,18 @@
+package com.demo.product.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReportDTO {
+    private long processed;
+    private long inserted;
+    private long upserted;
+    private long failed;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private long elapsedMs;
+    private long rowsPerSecond;
+}
@@ -0,0 +1,14 @@
+package com.demo.product.DTO;
+
+import lombok.Data;
+
+@Data
+public class QueryLatencyDTO {
+    private String queryClass;
+    private long count;
+    private double meanMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+}
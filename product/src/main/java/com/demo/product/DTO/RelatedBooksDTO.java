@@ -0,0 +1,14 @@
+package com.demo.product.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RelatedBooksDTO {
+    private String bookId;
+    // Summary fields only (id, title, author, price, rating), highest rated first.
+    private List<BookResponseDTO> moreByAuthor = new ArrayList<>();
+    private List<BookResponseDTO> similar = new ArrayList<>();
+}
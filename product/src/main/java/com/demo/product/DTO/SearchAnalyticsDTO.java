@@ -0,0 +1,18 @@
+package com.demo.product.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SearchAnalyticsDTO {
+    private long searches;
+    private long zeroResultSearches;
+    // Estimated counts, slightly high for rare queries.
+    private List<QueryStatDTO> topQueries = new ArrayList<>();
+    private List<QueryStatDTO> zeroResultQueries = new ArrayList<>();
+    // Total milliseconds spent per query; the head of this list is what gets pre-cached.
+    private List<QueryStatDTO> costliestQueries = new ArrayList<>();
+    private List<QueryLatencyDTO> latencyByClass = new ArrayList<>();
+}
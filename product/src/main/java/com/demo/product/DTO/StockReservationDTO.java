@@ -0,0 +1,19 @@
+package com.demo.product.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDTO {
+    private String reservationId;
+    private String status;
+    private List<StockItemDTO> items;
+    private String failureReason;
+    private Date expiresAt;
+}
@@ -0,0 +1,12 @@
+package com.demo.product.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class StockReservationRequestDTO {
+    // Idempotency key chosen by the caller, e.g. the order or checkout id.
+    private String reservationId;
+    private List<StockItemDTO> items;
+}
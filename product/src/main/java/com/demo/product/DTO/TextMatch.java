@@ -0,0 +1,20 @@
+package com.demo.product.DTO;
+
+public enum TextMatch {
+    EXACT,
+    PREFIX,
+    CONTAINS;
+
+    public static TextMatch fromParam(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return CONTAINS;
+        }
+        for (TextMatch match : values()) {
+            if (match.name().equalsIgnoreCase(value.trim())) {
+                return match;
+            }
+        }
+        throw new IllegalArgumentException("Invalid match mode: " + value
+                + ". Supported values: exact, prefix, contains");
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.product.DTO;
+
+import org.springframework.data.domain.Sort;
+
+public enum TopList {
+    TOP_RATED("top-rated", BookSortField.RATING, Sort.Direction.DESC),
+    NEWEST("newest", BookSortField.PUBLISHED_DATE, Sort.Direction.DESC),
+    BEST_DISCOUNT("best-discount", BookSortField.DISCOUNT, Sort.Direction.DESC),
+    CHEAPEST("cheapest", BookSortField.PRICE, Sort.Direction.ASC);
+
+    private final String param;
+    private final BookSortField sortField;
+    private final Sort.Direction direction;
+
+    TopList(String param, BookSortField sortField, Sort.Direction direction) {
+        this.param = param;
+        this.sortField = sortField;
+        this.direction = direction;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public BookSortField getSortField() {
+        return sortField;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public static TopList fromParam(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return TOP_RATED;
+        }
+        for (TopList list : values()) {
+            if (list.param.equalsIgnoreCase(value.trim())) {
+                return list;
+            }
+        }
+        throw new IllegalArgumentException("Invalid list: " + value
+                + ". Supported values: top-rated, newest, best-discount, cheapest");
+    }
+}
@@ -0,0 +1,463 @@
+package com.demo.product.cache;
+
+import com.demo.product.DTO.BookFacetPageDTO;
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.CursorPageDTO;
+import com.demo.product.DTO.FacetBucketDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.domain.*;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact tagged binary format for cache values. Book fields are written as
+ * (field id, tagged value) pairs, so readers skip fields they do not know and
+ * leave absent ones null; adding a field never invalidates cached entries.
+ * Payloads above the compression threshold are deflated. Types without a tag
+ * fall back to JDK serialization, and entries written by the JDK serializer
+ * are still readable. Values that cannot be decoded are reported as misses.
+ */
+@Slf4j
+public class BinaryCacheValueSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte FLAG_DEFLATED = 1;
+    private static final byte JDK_STREAM_MAGIC = (byte) 0xAC;
+
+    private static final int T_NULL = 0;
+    private static final int T_NULL_VALUE = 1;
+    private static final int T_STRING = 2;
+    private static final int T_LONG = 3;
+    private static final int T_INT = 4;
+    private static final int T_DOUBLE = 5;
+    private static final int T_TRUE = 6;
+    private static final int T_FALSE = 7;
+    private static final int T_DATE = 8;
+    private static final int T_LIST = 9;
+    private static final int T_MAP = 10;
+    private static final int T_ENVELOPE = 11;
+    private static final int T_BOOK = 12;
+    private static final int T_PAGE = 13;
+    private static final int T_SLICE = 14;
+    private static final int T_FACET_BUCKET = 15;
+    private static final int T_FACET_PAGE = 16;
+    private static final int T_CURSOR_PAGE = 17;
+    private static final int T_JDK = 127;
+
+    // Book field ids are part of the stored format: never renumber, only append.
+    private static final int F_END = 0;
+    private static final int F_ID = 1;
+    private static final int F_TITLE = 2;
+    private static final int F_SUBTITLE = 3;
+    private static final int F_AUTHOR = 4;
+    private static final int F_CO_AUTHORS = 5;
+    private static final int F_DESCRIPTION = 6;
+    private static final int F_PUBLISHER = 7;
+    private static final int F_PUBLISHED_DATE = 8;
+    private static final int F_EDITION = 9;
+    private static final int F_PAGE_COUNT = 10;
+    private static final int F_FORMAT = 11;
+    private static final int F_PRICE = 12;
+    private static final int F_MRP_PRICE = 13;
+    private static final int F_STOCK_AVAILABLE = 14;
+    private static final int F_RATING = 15;
+    private static final int F_REVISION = 16;
+    private static final int F_LAST_MODIFIED = 17;
+    private static final int F_DISCOUNT = 18;
+
+    // Deflater/Inflater allocate native buffers, so each thread keeps one and resets it.
+    private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+    private final int compressThreshold;
+
+    public BinaryCacheValueSerializer(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            writeValue(new DataOutputStream(buffer), value);
+            byte[] payload = buffer.toByteArray();
+
+            boolean deflate = payload.length > compressThreshold;
+            ByteArrayOutputStream out = new ByteArrayOutputStream(deflate ? payload.length / 2 : payload.length + 2);
+            out.write(MAGIC);
+            out.write(deflate ? FLAG_DEFLATED : 0);
+            if (deflate) {
+                writeVarLong(new DataOutputStream(out), payload.length);
+                deflate(payload, out);
+            } else {
+                out.write(payload);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Cannot encode cache value of type " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC && bytes[0] != JDK_STREAM_MAGIC || bytes.length < 2) {
+            log.debug("Ignoring cache value with unknown header {}", bytes[0]);
+            return null;
+        }
+        try {
+            // Entries written before this format; a class that changed since is a miss too.
+            if (bytes[0] == JDK_STREAM_MAGIC) {
+                return jdk.deserialize(bytes);
+            }
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2));
+            if ((bytes[1] & FLAG_DEFLATED) != 0) {
+                int length = (int) readVarLong(data);
+                int offset = bytes.length - data.available();
+                data = new DataInputStream(new ByteArrayInputStream(inflate(bytes, offset, length)));
+            }
+            return readValue(data);
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            log.debug("Ignoring cache value that cannot be decoded", e);
+            return null;
+        }
+    }
+
+    private static void deflate(byte[] payload, ByteArrayOutputStream out) {
+        Deflater deflater = DEFLATERS.get();
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            byte[] chunk = new byte[Math.min(payload.length, 8192)];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length) throws DataFormatException, IOException {
+        Inflater inflater = INFLATERS.get();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] payload = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = inflater.inflate(payload, read, length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Truncated deflated cache value");
+                }
+                read += n;
+            }
+            return payload;
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(T_NULL);
+        } else if (value instanceof NullValue) {
+            out.writeByte(T_NULL_VALUE);
+        } else if (value instanceof String) {
+            out.writeByte(T_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(T_LONG);
+            writeVarLong(out, (Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(T_INT);
+            writeVarLong(out, (Integer) value);
+        } else if (value instanceof Double) {
+            out.writeByte(T_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? T_TRUE : T_FALSE);
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(T_DATE);
+            writeVarLong(out, ((Date) value).getTime());
+        } else if (value instanceof List) {
+            out.writeByte(T_LIST);
+            writeList(out, (List<?>) value);
+        } else if (value instanceof Map) {
+            out.writeByte(T_MAP);
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeVarLong(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof CacheEnvelope) {
+            CacheEnvelope envelope = (CacheEnvelope) value;
+            out.writeByte(T_ENVELOPE);
+            writeVarLong(out, envelope.getComputeMs());
+            out.writeLong(envelope.getExpiresAt());
+            writeValue(out, envelope.getValue());
+        } else if (value instanceof BookResponseDTO) {
+            out.writeByte(T_BOOK);
+            writeBook(out, (BookResponseDTO) value);
+        } else if (value instanceof FacetBucketDTO) {
+            FacetBucketDTO bucket = (FacetBucketDTO) value;
+            out.writeByte(T_FACET_BUCKET);
+            writeValue(out, bucket.getValue());
+            writeVarLong(out, bucket.getCount());
+        } else if (value instanceof BookFacetPageDTO) {
+            BookFacetPageDTO page = (BookFacetPageDTO) value;
+            out.writeByte(T_FACET_PAGE);
+            writeVarLong(out, page.getPage());
+            writeVarLong(out, page.getSize());
+            writeVarLong(out, page.getTotalElements());
+            writeVarLong(out, page.getTotalPages());
+            writeValue(out, page.getContent());
+            writeValue(out, page.getFacets());
+        } else if (value instanceof CursorPageDTO) {
+            CursorPageDTO<?> page = (CursorPageDTO<?>) value;
+            out.writeByte(T_CURSOR_PAGE);
+            writeVarLong(out, page.getSize());
+            out.writeBoolean(page.isHasNext());
+            writeValue(out, page.getNextCursor());
+            writeValue(out, page.getTotalElements());
+            writeValue(out, page.getContent());
+        } else if (isPlainPage(value)) {
+            Page<?> page = (Page<?>) value;
+            out.writeByte(T_PAGE);
+            writeVarLong(out, page.getNumber());
+            writeVarLong(out, page.getSize());
+            writeVarLong(out, page.getTotalElements());
+            writeList(out, page.getContent());
+        } else if (isPlainSlice(value)) {
+            Slice<?> slice = (Slice<?>) value;
+            out.writeByte(T_SLICE);
+            writeVarLong(out, slice.getNumber());
+            writeVarLong(out, slice.getSize());
+            out.writeBoolean(slice.hasNext());
+            writeList(out, slice.getContent());
+        } else {
+            byte[] serialized = jdk.serialize(value);
+            out.writeByte(T_JDK);
+            writeVarLong(out, serialized.length);
+            out.write(serialized);
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case T_NULL:
+                return null;
+            case T_NULL_VALUE:
+                return NullValue.INSTANCE;
+            case T_STRING:
+                return readString(in);
+            case T_LONG:
+                return readVarLong(in);
+            case T_INT:
+                return (int) readVarLong(in);
+            case T_DOUBLE:
+                return in.readDouble();
+            case T_TRUE:
+                return Boolean.TRUE;
+            case T_FALSE:
+                return Boolean.FALSE;
+            case T_DATE:
+                return new Date(readVarLong(in));
+            case T_LIST:
+                return readList(in);
+            case T_MAP: {
+                int size = (int) readVarLong(in);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(in), readValue(in));
+                }
+                return map;
+            }
+            case T_ENVELOPE: {
+                long computeMs = readVarLong(in);
+                long expiresAt = in.readLong();
+                return new CacheEnvelope(readValue(in), computeMs, expiresAt);
+            }
+            case T_BOOK:
+                return readBook(in);
+            case T_FACET_BUCKET:
+                return new FacetBucketDTO((String) readValue(in), readVarLong(in));
+            case T_FACET_PAGE: {
+                BookFacetPageDTO page = new BookFacetPageDTO();
+                page.setPage((int) readVarLong(in));
+                page.setSize((int) readVarLong(in));
+                page.setTotalElements(readVarLong(in));
+                page.setTotalPages((int) readVarLong(in));
+                page.setContent(cast(readValue(in)));
+                page.setFacets(cast(readValue(in)));
+                return page;
+            }
+            case T_CURSOR_PAGE: {
+                CursorPageDTO<Object> page = new CursorPageDTO<>();
+                page.setSize((int) readVarLong(in));
+                page.setHasNext(in.readBoolean());
+                page.setNextCursor((String) readValue(in));
+                page.setTotalElements((Long) readValue(in));
+                page.setContent(cast(readValue(in)));
+                return page;
+            }
+            case T_PAGE: {
+                int number = (int) readVarLong(in);
+                int size = (int) readVarLong(in);
+                long total = readVarLong(in);
+                return new PageImpl<>(readList(in), PageRequest.of(number, size), total);
+            }
+            case T_SLICE: {
+                int number = (int) readVarLong(in);
+                int size = (int) readVarLong(in);
+                boolean hasNext = in.readBoolean();
+                return new SliceImpl<>(readList(in), PageRequest.of(number, size), hasNext);
+            }
+            case T_JDK: {
+                byte[] serialized = new byte[(int) readVarLong(in)];
+                in.readFully(serialized);
+                return jdk.deserialize(serialized);
+            }
+            default:
+                throw new IOException("Unknown cache value tag " + tag);
+        }
+    }
+
+    private void writeBook(DataOutputStream out, BookResponseDTO book) throws IOException {
+        writeField(out, F_ID, book.getId());
+        writeField(out, F_TITLE, book.getTitle());
+        writeField(out, F_SUBTITLE, book.getSubtitle());
+        writeField(out, F_AUTHOR, book.getAuthor());
+        writeField(out, F_CO_AUTHORS, book.getCoAuthors());
+        writeField(out, F_DESCRIPTION, book.getDescription());
+        writeField(out, F_PUBLISHER, book.getPublisher());
+        writeField(out, F_PUBLISHED_DATE, book.getPublishedDate());
+        writeField(out, F_EDITION, book.getEdition());
+        writeField(out, F_PAGE_COUNT, book.getPageCount());
+        writeField(out, F_FORMAT, book.getFormat());
+        writeField(out, F_PRICE, book.getPrice());
+        writeField(out, F_MRP_PRICE, book.getMrpPrice());
+        writeField(out, F_STOCK_AVAILABLE, book.getStockAvailable());
+        writeField(out, F_RATING, book.getRating());
+        writeField(out, F_REVISION, book.getRevision());
+        writeField(out, F_LAST_MODIFIED, book.getLastModified());
+        writeField(out, F_DISCOUNT, book.getDiscount());
+        writeVarLong(out, F_END);
+    }
+
+    private void writeField(DataOutputStream out, int field, Object value) throws IOException {
+        if (value != null) {
+            writeVarLong(out, field);
+            writeValue(out, value);
+        }
+    }
+
+    private BookResponseDTO readBook(DataInputStream in) throws IOException {
+        BookResponseDTO book = new BookResponseDTO();
+        for (int field = (int) readVarLong(in); field != F_END; field = (int) readVarLong(in)) {
+            Object value = readValue(in);
+            switch (field) {
+                case F_ID: book.setId((String) value); break;
+                case F_TITLE: book.setTitle((String) value); break;
+                case F_SUBTITLE: book.setSubtitle((String) value); break;
+                case F_AUTHOR: book.setAuthor((String) value); break;
+                case F_CO_AUTHORS: book.setCoAuthors(cast(value)); break;
+                case F_DESCRIPTION: book.setDescription((String) value); break;
+                case F_PUBLISHER: book.setPublisher((String) value); break;
+                case F_PUBLISHED_DATE: book.setPublishedDate((Date) value); break;
+                case F_EDITION: book.setEdition((String) value); break;
+                case F_PAGE_COUNT: book.setPageCount((Integer) value); break;
+                case F_FORMAT: book.setFormat((String) value); break;
+                case F_PRICE: book.setPrice((Double) value); break;
+                case F_MRP_PRICE: book.setMrpPrice((Double) value); break;
+                case F_STOCK_AVAILABLE: book.setStockAvailable((Integer) value); break;
+                case F_RATING: book.setRating((Double) value); break;
+                case F_REVISION: book.setRevision((Long) value); break;
+                case F_LAST_MODIFIED: book.setLastModified((Date) value); break;
+                case F_DISCOUNT: book.setDiscount((Double) value); break;
+                default:
+                    // Written by a newer version; the value has been consumed, so just drop it.
+                    break;
+            }
+        }
+        return book;
+    }
+
+    private void writeList(DataOutputStream out, List<?> list) throws IOException {
+        writeVarLong(out, list.size());
+        for (Object item : list) {
+            writeValue(out, item);
+        }
+    }
+
+    private List<Object> readList(DataInputStream in) throws IOException {
+        int size = (int) readVarLong(in);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readValue(in));
+        }
+        return list;
+    }
+
+    // Only unsorted pages over a PageRequest are tagged; anything else keeps its full state via JDK serialization.
+    private boolean isPlainPage(Object value) {
+        return value instanceof PageImpl && ((Page<?>) value).getPageable().isPaged()
+                && ((Page<?>) value).getSort().isUnsorted();
+    }
+
+    private boolean isPlainSlice(Object value) {
+        return value instanceof SliceImpl && ((Slice<?>) value).getPageable().isPaged()
+                && ((Slice<?>) value).getSort().isUnsorted();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[(int) readVarLong(in)];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Zig-zag varints: small magnitudes of either sign take one or two bytes.
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+}
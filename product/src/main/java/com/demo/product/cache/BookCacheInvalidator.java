@@ -0,0 +1,97 @@
+package com.demo.product.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cache invalidation for writes that bypass the cache annotations, such as bulk
+ * operations, where evicting per row would cost one Redis round trip each.
+ * Regions are cleared with SCAN and UNLINK rather than {@code Cache.clear()},
+ * whose KEYS call blocks the shared Redis for the whole keyspace.
+ */
+@Component
+public class BookCacheInvalidator {
+
+    static final String BOOKS_PREFIX = "books::";
+    static final String MISSES_PREFIX = MissingBookCache.REGION + "::";
+
+    @Autowired
+    StringRedisTemplate redisTemplate;
+
+    @Autowired
+    CatalogGeneration catalogGeneration;
+
+    @Autowired
+    RecentWrites recentWrites;
+
+    int scanBatch = 1000;
+
+    public long clearBooks() {
+        recentWrites.markAllBooks();
+        return deleteByPrefix(BOOKS_PREFIX);
+    }
+
+    // Rows written with caller-supplied ids may have been cached as not found.
+    public long clearMisses() {
+        return deleteByPrefix(MISSES_PREFIX);
+    }
+
+    // One pipelined round trip: a multi-key DEL plus the replica pins for the same ids.
+    public void evictBooks(Collection<String> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = bookIds.stream().map(id -> BOOKS_PREFIX + id).collect(Collectors.toList());
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                operations.delete(keys);
+                recentWrites.markBooks(operations, bookIds);
+                return null;
+            }
+        });
+    }
+
+    public void invalidatePages() {
+        catalogGeneration.bump();
+    }
+
+    private long deleteByPrefix(String prefix) {
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(scanBatch).build();
+        List<String> batch = new ArrayList<>(scanBatch);
+        long deleted = 0;
+        try (Cursor<byte[]> cursor = redisTemplate.executeWithStickyConnection(connection -> connection.scan(options))) {
+            while (cursor.hasNext()) {
+                batch.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                if (batch.size() == scanBatch) {
+                    deleted += unlink(batch);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close Redis scan cursor", e);
+        }
+        return deleted + unlink(batch);
+    }
+
+    private long unlink(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long removed = redisTemplate.unlink(new ArrayList<>(keys));
+        keys.clear();
+        return removed == null ? 0 : removed;
+    }
+}
@@ -0,0 +1,30 @@
+package com.demo.product.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * What the stampede-protected regions actually store: the cached value plus how
+ * long it took to compute and when it expires, which drive early refresh.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Object value;
+    private long computeMs;
+    private long expiresAt;
+
+    // XFetch: refresh with a probability that rises towards expiry, sooner for values that are slow to rebuild.
+    public boolean shouldRefreshEarly(long now, double beta, double random) {
+        if (expiresAt == Long.MAX_VALUE || computeMs <= 0) {
+            return false;
+        }
+        return now - computeMs * beta * Math.log(random) >= expiresAt;
+    }
+}
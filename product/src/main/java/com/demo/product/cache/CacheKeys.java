@@ -0,0 +1,88 @@
+package com.demo.product.cache;
+
+import com.demo.product.DTO.BookFieldSet;
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.BookSortField;
+import com.demo.product.entity.SearchText;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds normalised cache keys for result pages. Referenced from the cache
+ * annotations as {@code @cacheKeys}.
+ */
+@Component("cacheKeys")
+public class CacheKeys {
+
+    @Autowired
+    CatalogGeneration catalogGeneration;
+
+    public String search(String keyword, int page, int size) {
+        return "search:g" + catalogGeneration.current() + ":" + normalize(keyword)
+                + ":page:" + page + ":size:" + size;
+    }
+
+    public String search(String keyword, int page, int size, Set<String> fields) {
+        return search(keyword, page, size) + ":fields:" + BookFieldSet.describe(fields);
+    }
+
+    public String filter(BookListFilterDTO filter, int page, int size) {
+        return "filter:g" + catalogGeneration.current() + ":" + describe(filter)
+                + ":page:" + page + ":size:" + size;
+    }
+
+    public String filter(BookListFilterDTO filter, int page, int size, Set<String> fields) {
+        return filter(filter, page, size) + ":fields:" + BookFieldSet.describe(fields);
+    }
+
+    // Empty for natural order, so unsorted listings keep their existing keys.
+    public String sort(BookSortField sortField, Sort.Direction direction) {
+        return sortField == null ? "" : ":sort:" + sortField.name() + ":" + direction.name();
+    }
+
+    public String count(BookListFilterDTO filter) {
+        return "count:g" + catalogGeneration.current() + ":" + describe(filter);
+    }
+
+    public String facets(BookListFilterDTO filter) {
+        return "facets:g" + catalogGeneration.current() + ":" + describe(filter);
+    }
+
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String describe(BookListFilterDTO filter) {
+        if (filter == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        append(sb, "t", SearchText.fold(filter.getTitle()));
+        append(sb, "a", SearchText.fold(filter.getAuthor()));
+        append(sb, "p", SearchText.fold(filter.getPublisher()));
+        append(sb, "f", SearchText.fold(filter.getFormat()));
+        append(sb, "m", normalize(filter.getMatch()));
+        append(sb, "minP", filter.getMinPrice());
+        append(sb, "maxP", filter.getMaxPrice());
+        append(sb, "minR", filter.getMinRating());
+        append(sb, "maxR", filter.getMaxRating());
+        append(sb, "minPc", filter.getMinPageCount());
+        append(sb, "maxPc", filter.getMaxPageCount());
+        append(sb, "stock", filter.getInStock());
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String name, Object value) {
+        if (value == null || "".equals(value)) {
+            return;
+        }
+        if (sb.length() > 0) {
+            sb.append('|');
+        }
+        sb.append(name).append('=').append(value);
+    }
+}
@@ -0,0 +1,38 @@
+package com.demo.product.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Short Redis leases (SET NX PX) that let one node refill a cache entry while
+ * the others wait for it. Leases expire on their own if the holder dies.
+ */
+@Component
+public class CacheLease {
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Autowired
+    StringRedisTemplate redisTemplate;
+
+    // Returns the lease token, or null when another node holds the lease.
+    public String tryAcquire(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    // Only deletes the lease if it is still ours, so an expired lease re-taken elsewhere survives.
+    public void release(String key, String token) {
+        redisTemplate.execute(RELEASE, Collections.singletonList(key), token);
+    }
+}
@@ -0,0 +1,33 @@
+package com.demo.product.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Catalog-wide generation counter shared by all product nodes through Redis.
+ * Every cached result page carries the generation it was computed under, so a
+ * single increment on write makes all earlier pages unreachable.
+ */
+@Component
+public class CatalogGeneration {
+
+    static final String KEY = "catalog:generation";
+
+    @Autowired
+    StringRedisTemplate redisTemplate;
+
+    @Autowired
+    RecentWrites recentWrites;
+
+    public long current() {
+        String value = redisTemplate.opsForValue().get(KEY);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    public long bump() {
+        Long value = redisTemplate.opsForValue().increment(KEY);
+        recentWrites.markCatalog();
+        return value == null ? 0L : value;
+    }
+}
@@ -0,0 +1,129 @@
+package com.demo.product.cache;
+
+import com.demo.product.DTO.BookFieldSet;
+import com.demo.product.sketch.HeavyHitters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Counts which books and keyword searches are requested most, and periodically
+ * writes the hottest ones to a local file that {@code CacheWarmer} replays on
+ * the next start. Keys are "b|id" for books and "s|page|size|fields|keyword"
+ * for searches.
+ */
+@Slf4j
+@Component
+public class HotKeyTracker {
+
+    public static final String BOOK = "b";
+    public static final String SEARCH = "s";
+    private static final String SEPARATOR = "|";
+
+    @Value("${product.cache.warmup.max-keys:500}")
+    int maxKeys;
+
+    @Value("${product.cache.warmup.file:data/hot-keys.tsv}")
+    String file;
+
+    private HeavyHitters hitters;
+
+    @PostConstruct
+    void init() {
+        hitters = new HeavyHitters(maxKeys, 4, Math.max(1024, maxKeys * 16));
+    }
+
+    public void recordBook(String bookId) {
+        hitters.record(BOOK + SEPARATOR + bookId.trim());
+    }
+
+    public void recordSearch(String keyword, int page, int size, Set<String> fields) {
+        hitters.record(String.join(SEPARATOR, SEARCH, String.valueOf(page), String.valueOf(size),
+                BookFieldSet.describe(fields), CacheKeys.normalize(keyword)));
+    }
+
+    // Approximate recent views of one book, never below the true count.
+    public long bookViews(String bookId) {
+        return hitters.estimate(BOOK + SEPARATOR + bookId);
+    }
+
+    public List<Map.Entry<String, Long>> hottest() {
+        return hitters.top(maxKeys);
+    }
+
+    // Most requested keywords among the hot keys, with every page and field set of one keyword summed.
+    public List<Map.Entry<String, Long>> topSearches(int limit) {
+        Map<String, Long> byKeyword = new HashMap<>();
+        for (Map.Entry<String, Long> entry : hottest()) {
+            String[] parts = entry.getKey().split("\\|", 5);
+            if (SEARCH.equals(parts[0]) && parts.length == 5) {
+                byKeyword.merge(parts[4], entry.getValue(), Long::sum);
+            }
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(byKeyword.entrySet());
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    // Seeds the counters from the last run so one persist cycle does not wipe out the history.
+    public List<Map.Entry<String, Long>> restore() {
+        Path path = Paths.get(file);
+        if (!Files.exists(path)) {
+            return Collections.emptyList();
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                try {
+                    long count = Long.parseLong(line.substring(0, tab));
+                    String key = line.substring(tab + 1);
+                    hitters.record(key, count);
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(key, count));
+                } catch (NumberFormatException e) {
+                    log.debug("Skipping malformed hot key line: {}", line);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot read hot keys from {}", path, e);
+        }
+        return entries;
+    }
+
+    @Scheduled(fixedDelayString = "${product.cache.warmup.persist-interval-ms:60000}",
+            initialDelayString = "${product.cache.warmup.persist-interval-ms:60000}")
+    public void persist() {
+        List<Map.Entry<String, Long>> hottest = hottest();
+        if (hottest.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(hottest.size());
+        for (Map.Entry<String, Long> entry : hottest) {
+            lines.add(entry.getValue() + "\t" + entry.getKey());
+        }
+
+        Path path = Paths.get(file).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), "hot-keys", ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Cannot persist hot keys to {}", path, e);
+            return;
+        }
+        // Halve after each snapshot so the list follows current traffic rather than all-time totals.
+        hitters.decay();
+        log.debug("Persisted {} hot keys to {}", lines.size(), path);
+    }
+}
@@ -0,0 +1,63 @@
+package com.demo.product.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Short-lived "not found" markers for book ids, kept in the {@code bookMisses}
+ * region so repeated lookups of deleted or unknown ids do not reach Mongo.
+ */
+@Component
+public class MissingBookCache {
+
+    static final String REGION = "bookMisses";
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Counter savedLookups;
+    private Counter recordedMisses;
+
+    @PostConstruct
+    void registerMeters() {
+        savedLookups = Counter.builder("product.cache.negative.hits")
+                .description("Book lookups answered from the not-found cache instead of Mongo")
+                .register(meterRegistry);
+        recordedMisses = Counter.builder("product.cache.negative.stores")
+                .description("Book ids recorded as not found")
+                .register(meterRegistry);
+    }
+
+    public boolean isMissing(String bookId) {
+        Cache cache = cacheManager.getCache(REGION);
+        if (cache == null || cache.get(bookId) == null) {
+            return false;
+        }
+        savedLookups.increment();
+        return true;
+    }
+
+    public void markMissing(String bookId) {
+        Cache cache = cacheManager.getCache(REGION);
+        if (cache != null) {
+            cache.put(bookId, Boolean.TRUE);
+            recordedMisses.increment();
+        }
+    }
+
+    public void forget(String bookId) {
+        Cache cache = cacheManager.getCache(REGION);
+        if (cache != null) {
+            cache.evict(bookId);
+        }
+    }
+}
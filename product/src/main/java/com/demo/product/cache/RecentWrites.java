@@ -0,0 +1,111 @@
+package com.demo.product.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived markers, shared through Redis, for data written within the replica
+ * staleness window. Reads that would refill a cache from a lagging secondary go to
+ * the primary while a marker is set, so a stale document is never cached for a full TTL.
+ * Single-book reads check only their own book, plus a marker that bulk rewrites set,
+ * so ordinary writes elsewhere in the catalog do not pin them; listings check the
+ * catalog marker every write sets.
+ */
+@Slf4j
+@Component
+public class RecentWrites {
+
+    static final String CATALOG_KEY = "replica:pin:catalog";
+    static final String BOOK_PREFIX = "replica:pin:book:";
+    static final String ALL_BOOKS_KEY = "replica:pin:books";
+
+    @Autowired
+    StringRedisTemplate redisTemplate;
+
+    @Value("${product.mongo.replica.enabled:false}")
+    boolean enabled;
+
+    // The configured max staleness plus one heartbeat, which is how far a secondary may really lag.
+    @Value("${product.mongo.replica.pin-ms:100000}")
+    long pinMs;
+
+    public void markCatalog() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(CATALOG_KEY, "1", pinMs, TimeUnit.MILLISECONDS);
+        } catch (DataAccessException e) {
+            log.warn("Could not pin catalog reads to the primary", e);
+        }
+    }
+
+    // For writes too large to mark book by book, such as imports.
+    public void markAllBooks() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(ALL_BOOKS_KEY, "1", pinMs, TimeUnit.MILLISECONDS);
+        } catch (DataAccessException e) {
+            log.warn("Could not pin book reads to the primary", e);
+        }
+    }
+
+    public void markBooks(Collection<String> bookIds) {
+        if (!enabled || bookIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    markBooks(operations, bookIds);
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not pin {} book reads to the primary", bookIds.size(), e);
+        }
+    }
+
+    // Queues the markers on a caller's pipeline, so they share its round trip.
+    public void markBooks(RedisOperations<String, String> operations, Collection<String> bookIds) {
+        if (!enabled) {
+            return;
+        }
+        for (String bookId : bookIds) {
+            operations.opsForValue().set(BOOK_PREFIX + bookId, "1", pinMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isCatalogRecent() {
+        return isAnySet(Collections.singletonList(CATALOG_KEY));
+    }
+
+    public boolean isBookRecent(String bookId) {
+        return isAnySet(Arrays.asList(ALL_BOOKS_KEY, BOOK_PREFIX + bookId));
+    }
+
+    // Unknown means recent: a Redis outage must not send reads to a lagging node.
+    private boolean isAnySet(Collection<String> keys) {
+        try {
+            Long found = redisTemplate.countExistingKeys(keys);
+            return found == null || found > 0;
+        } catch (DataAccessException e) {
+            return true;
+        }
+    }
+}
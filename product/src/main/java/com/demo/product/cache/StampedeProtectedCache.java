@@ -0,0 +1,228 @@
+package com.demo.product.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Cache decorator for {@code @Cacheable(sync = true)} regions. A miss is loaded
+ * once per node (concurrent callers wait for the same load) and once across
+ * nodes (a Redis lease; the others poll for the value). Hot entries are
+ * refreshed shortly before they expire so they rarely miss at all.
+ */
+@Slf4j
+public class StampedeProtectedCache implements Cache {
+
+    private static final long POLL_MS = 50;
+
+    private final Cache delegate;
+    private final Duration ttl;
+    private final CacheLease lease;
+    private final Duration leaseTtl;
+    private final Duration maxWait;
+    private final double beta;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public StampedeProtectedCache(Cache delegate, Duration ttl, CacheLease lease,
+                                  Duration leaseTtl, Duration maxWait, double beta) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.leaseTtl = leaseTtl;
+        this.maxWait = maxWait;
+        this.beta = beta;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEnvelope envelope = lookup(key);
+        return envelope == null ? null : envelope::getValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        CacheEnvelope envelope = lookup(key);
+        Object value = envelope == null ? null : envelope.getValue();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEnvelope envelope = lookup(key);
+        if (envelope == null) {
+            return (T) loadOnce(key, valueLoader);
+        }
+        if (envelope.shouldRefreshEarly(System.currentTimeMillis(), beta, ThreadLocalRandom.current().nextDouble())) {
+            return (T) refreshAhead(key, valueLoader, envelope.getValue());
+        }
+        return (T) envelope.getValue();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, wrap(value, 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, wrap(value, 0));
+        if (existing == null) {
+            return null;
+        }
+        Object stored = existing.get();
+        return stored instanceof CacheEnvelope ? ((CacheEnvelope) stored)::getValue : existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running, key, valueLoader);
+        }
+        try {
+            Object value = loadUnderLease(key, valueLoader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object loadUnderLease(Object key, Callable<?> valueLoader) {
+        String leaseKey = leaseKey(key);
+        String token = lease.tryAcquire(leaseKey, leaseTtl);
+        if (token == null) {
+            CacheEnvelope filled = awaitFill(key);
+            if (filled != null) {
+                return filled.getValue();
+            }
+            log.debug("Lease holder did not fill {} within {} ms, loading locally", leaseKey, maxWait.toMillis());
+        }
+        try {
+            return load(key, valueLoader);
+        } finally {
+            if (token != null) {
+                lease.release(leaseKey, token);
+            }
+        }
+    }
+
+    // Only the node that wins both the local slot and the lease refreshes; everyone else keeps serving the old value.
+    private Object refreshAhead(Object key, Callable<?> valueLoader, Object current) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return current;
+        }
+        Object result = current;
+        try {
+            String leaseKey = leaseKey(key);
+            String token = lease.tryAcquire(leaseKey, leaseTtl);
+            if (token != null) {
+                try {
+                    result = load(key, valueLoader);
+                } finally {
+                    lease.release(leaseKey, token);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Early refresh of {}::{} failed, serving the cached value", getName(), key, e);
+        } finally {
+            mine.complete(result);
+            inFlight.remove(key, mine);
+        }
+        return result;
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        long start = System.currentTimeMillis();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        delegate.put(key, wrap(value, Math.max(1, System.currentTimeMillis() - start)));
+        return value;
+    }
+
+    private CacheEnvelope awaitFill(Object key) {
+        long deadline = System.currentTimeMillis() + maxWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CacheEnvelope envelope = lookup(key);
+            if (envelope != null) {
+                return envelope;
+            }
+        }
+        return null;
+    }
+
+    private Object await(CompletableFuture<Object> running, Object key, Callable<?> valueLoader) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    // Entries written before this decorator was in place are served as-is and never refreshed early.
+    private CacheEnvelope lookup(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object stored = wrapper.get();
+        return stored instanceof CacheEnvelope ? (CacheEnvelope) stored : new CacheEnvelope(stored, 0, Long.MAX_VALUE);
+    }
+
+    private CacheEnvelope wrap(Object value, long computeMs) {
+        long expiresAt = ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : System.currentTimeMillis() + ttl.toMillis();
+        return new CacheEnvelope(value, computeMs, expiresAt);
+    }
+
+    private String leaseKey(Object key) {
+        return "lease:" + getName() + "::" + key;
+    }
+}
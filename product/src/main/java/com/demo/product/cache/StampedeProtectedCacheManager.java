@@ -0,0 +1,45 @@
+package com.demo.product.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis cache manager that wraps the configured regions in a
+ * {@link StampedeProtectedCache}; other regions are plain Redis caches.
+ */
+public class StampedeProtectedCacheManager extends RedisCacheManager {
+
+    private final Set<String> protectedRegions;
+    private final CacheLease lease;
+    private final Duration leaseTtl;
+    private final Duration maxWait;
+    private final double beta;
+
+    public StampedeProtectedCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaults,
+                                         Map<String, RedisCacheConfiguration> regions, Set<String> protectedRegions,
+                                         CacheLease lease, Duration leaseTtl, Duration maxWait, double beta) {
+        super(cacheWriter, defaults, regions);
+        this.protectedRegions = protectedRegions;
+        this.lease = lease;
+        this.leaseTtl = leaseTtl;
+        this.maxWait = maxWait;
+        this.beta = beta;
+    }
+
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        Cache decorated = super.decorateCache(cache);
+        if (!protectedRegions.contains(cache.getName()) || !(cache instanceof RedisCache)) {
+            return decorated;
+        }
+        Duration ttl = ((RedisCache) cache).getCacheConfiguration().getTtl();
+        return new StampedeProtectedCache(decorated, ttl, lease, leaseTtl, maxWait, beta);
+    }
+}
@@ -0,0 +1,20 @@
+package com.demo.product.catalog;
+
+/**
+ * Keeps the ready flag every {@link CatalogReadModel} needs: false while the model is
+ * still loading, so callers fall back to Mongo until {@link CatalogReadModels} marks it.
+ */
+public abstract class AbstractCatalogReadModel implements CatalogReadModel {
+
+    private volatile boolean ready;
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+}
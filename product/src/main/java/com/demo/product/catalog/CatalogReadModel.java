@@ -0,0 +1,14 @@
+package com.demo.product.catalog;
+
+import com.demo.product.entity.Books;
+
+/**
+ * An in-memory projection of the catalog. Implementations are loaded once at startup
+ * by {@link CatalogReadModels} and then kept in sync from {@code BookChangedEvent}s.
+ */
+public interface CatalogReadModel {
+    void upsert(Books book);
+    void remove(String bookId);
+    void markReady();
+    boolean isReady();
+}
@@ -0,0 +1,201 @@
+package com.demo.product.catalog;
+
+import com.demo.product.entity.Books;
+import com.demo.product.entity.CatalogChange;
+import com.demo.product.event.BookChangedEvent;
+import com.demo.product.repository.CatalogChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Loads every {@link CatalogReadModel} at startup and keeps them current: local writes
+ * arrive as {@link BookChangedEvent}s, and other nodes' writes by tailing the change outbox.
+ */
+@Slf4j
+@Component
+@Order(1)
+public class CatalogReadModels implements ApplicationRunner {
+
+    private static final int CHANGE_BATCH = 1000;
+
+    @Autowired(required = false)
+    List<CatalogReadModel> models = Collections.emptyList();
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired(required = false)
+    CatalogSnapshotStore snapshots;
+
+    @Autowired
+    CatalogChangeRepository changeRepository;
+
+    // Versions are allocated before their entries commit, so an entry can show up behind
+    // ones already applied; this many versions back are checked again on every tail.
+    @Value("${product.catalog.tail.margin:200}")
+    long tailMargin;
+
+    private volatile long appliedVersion = -1;
+    private final NavigableSet<Long> recentlyApplied = new TreeSet<>();
+
+    // One pass over the local snapshot, or else over the collection, feeds every registered model.
+    @Override
+    public void run(ApplicationArguments args) {
+        if (models.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        // Read before loading, so the tail picks up whatever is written meanwhile.
+        long version = changeRepository.latestVersion();
+        if (snapshots != null && snapshots.restore(this::upsert, this::remove)) {
+            appliedVersion = version;
+            models.forEach(CatalogReadModel::markReady);
+            log.info("Catalog read models ready from snapshot in {} ms", System.currentTimeMillis() - start);
+            return;
+        }
+
+        long loaded = 0;
+        Query query = new Query();
+        query.fields().exclude("description");
+
+        // Tagged with the version read before the scan, so replay covers writes made during it.
+        CatalogSnapshotStore.Writer writer = openSnapshot(version);
+        try (CloseableIterator<Books> it = mongoTemplate.stream(query, Books.class)) {
+            while (it.hasNext()) {
+                Books book = it.next();
+                upsert(book);
+                writer = appendToSnapshot(writer, book);
+                loaded++;
+            }
+        } catch (RuntimeException e) {
+            if (writer != null) {
+                closeQuietly(writer);
+            }
+            throw e;
+        }
+        commitSnapshot(writer);
+
+        appliedVersion = version;
+        models.forEach(CatalogReadModel::markReady);
+        log.info("Loaded {} books into {} catalog read models in {} ms",
+                loaded, models.size(), System.currentTimeMillis() - start);
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getBookId());
+        } else {
+            upsert(event.getBook());
+        }
+    }
+
+    // Applies outbox entries written since the last tail, mostly other nodes' writes;
+    // local ones come back too and are simply applied again.
+    @Scheduled(fixedDelayString = "${product.catalog.tail.interval-ms:5000}",
+            initialDelayString = "${product.catalog.tail.interval-ms:5000}")
+    public synchronized void tail() {
+        if (models.isEmpty() || appliedVersion < 0) {
+            return;
+        }
+        long since = Math.max(0, appliedVersion - tailMargin);
+        recentlyApplied.headSet(since, true).clear();
+
+        long applied = 0;
+        for (List<CatalogChange> batch = changeRepository.findAfter(since, recentlyApplied.tailSet(since, false), CHANGE_BATCH);
+             !batch.isEmpty();
+             batch = changeRepository.findAfter(since, recentlyApplied.tailSet(since, false), CHANGE_BATCH)) {
+            for (CatalogChange change : batch) {
+                if (change.getBook() == null) {
+                    remove(change.getBookId());
+                } else {
+                    upsert(change.getBook());
+                }
+                recentlyApplied.add(change.getVersion());
+                appliedVersion = Math.max(appliedVersion, change.getVersion());
+                since = change.getVersion();
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            log.debug("Applied {} catalog changes to the read models, now at version {}", applied, appliedVersion);
+        }
+    }
+
+    private void upsert(Books book) {
+        for (CatalogReadModel model : models) {
+            model.upsert(book);
+        }
+    }
+
+    private void remove(String bookId) {
+        for (CatalogReadModel model : models) {
+            model.remove(bookId);
+        }
+    }
+
+    // A snapshot that cannot be written only costs the next restart a full scan.
+    private CatalogSnapshotStore.Writer openSnapshot(long version) {
+        if (snapshots == null) {
+            return null;
+        }
+        try {
+            return snapshots.writer(version);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot start catalog snapshot", e);
+            return null;
+        }
+    }
+
+    private CatalogSnapshotStore.Writer appendToSnapshot(CatalogSnapshotStore.Writer writer, Books book) {
+        if (writer == null) {
+            return null;
+        }
+        try {
+            writer.append(book);
+            return writer;
+        } catch (IOException e) {
+            log.warn("Cannot write catalog snapshot", e);
+            closeQuietly(writer);
+            return null;
+        }
+    }
+
+    private void commitSnapshot(CatalogSnapshotStore.Writer writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Cannot write catalog snapshot", e);
+        } finally {
+            closeQuietly(writer);
+        }
+    }
+
+    private static void closeQuietly(CatalogSnapshotStore.Writer writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.debug("Cannot remove partial catalog snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.cache.BinaryCacheValueSerializer;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.CatalogChange;
+import com.demo.product.repository.CatalogChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Local, memory-mapped copy of the catalog as the read models see it, tagged with the
+ * outbox version it is current to. At startup the read models are fed from the file and
+ * then from the outbox entries after that version, so a restart costs one sequential read
+ * of local disk plus the recent changes instead of a full collection scan. The file is
+ * refreshed by merging the previous snapshot with the outbox, again without a scan.
+ * Merges only ever carry forward what the outbox recorded, so once the last full scan
+ * behind a snapshot is older than the rescan interval it is rebuilt from Mongo instead.
+ * <p>
+ * Layout: header (magic, format, catalog version, created at, scanned at, book count), then one
+ * length-prefixed record per book in the cache value format, then a CRC32 of the
+ * records and the magic again. A file that fails any check is ignored.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "product.catalog.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshotStore {
+
+    static final int MAGIC = 0x424B534E;
+    static final int FORMAT = 2;
+    static final int HEADER_BYTES = 40;
+    static final int FOOTER_BYTES = 12;
+    // Mapped in windows so catalogs larger than 2 GB still work.
+    private static final long WINDOW_BYTES = 256L * 1024 * 1024;
+    private static final int CHANGE_BATCH = 1000;
+
+    @Autowired
+    CatalogChangeRepository changeRepository;
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Value("${product.catalog.snapshot.path:data/catalog.snapshot}")
+    String path;
+
+    // Outbox entries expire after seven days; an older snapshot cannot be caught up.
+    @Value("${product.catalog.snapshot.max-age-ms:518400000}")
+    long maxAgeMs;
+
+    // Versions are allocated before their entries commit, so replay starts a little
+    // before the snapshot version to pick up writes that were still in flight.
+    @Value("${product.catalog.snapshot.replay-margin:1000}")
+    long replayMargin;
+
+    private final BinaryCacheValueSerializer codec = new BinaryCacheValueSerializer(Integer.MAX_VALUE);
+
+    // Writes that never reached the outbox (a crash before the entry, a skipped version)
+    // stay wrong in a merged snapshot until the next full scan.
+    @Value("${product.catalog.snapshot.rescan-after-ms:86400000}")
+    long rescanAfterMs;
+
+    private volatile long snapshotVersion = -1;
+    private volatile long snapshotScannedAt;
+
+    /**
+     * Feeds the snapshot and the changes recorded since into the consumers. Returns
+     * false, having fed nothing, when there is no usable snapshot.
+     */
+    public boolean restore(Consumer<Books> upsert, Consumer<String> remove) {
+        Path file = Paths.get(path);
+        if (!Files.isRegularFile(file)) {
+            log.info("No catalog snapshot at {}", file.toAbsolutePath());
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = verify(channel);
+            if (header == null) {
+                log.warn("Ignoring catalog snapshot {}: corrupt or written by an incompatible version", file);
+                return false;
+            }
+            if (System.currentTimeMillis() - header.createdAt > maxAgeMs || !changesCover(header.version)) {
+                log.info("Ignoring catalog snapshot {} at version {}: the outbox no longer covers it", file, header.version);
+                return false;
+            }
+            if (System.currentTimeMillis() - header.scannedAt > rescanAfterMs) {
+                log.info("Ignoring catalog snapshot {}: last reconciled with Mongo at {}", file, new Date(header.scannedAt));
+                return false;
+            }
+
+            readRecords(channel, header, upsert);
+            long replayed = replay(Math.max(0, header.version - replayMargin), upsert, remove);
+            snapshotVersion = header.version;
+            snapshotScannedAt = header.scannedAt;
+            log.info("Restored {} books from catalog snapshot at version {} and replayed {} changes in {} ms",
+                    header.count, header.version, replayed, System.currentTimeMillis() - start);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot read catalog snapshot {}", file, e);
+            return false;
+        }
+    }
+
+    // The outbox version to tag a snapshot with; read before the data it describes.
+    public long currentVersion() {
+        return changeRepository.latestVersion();
+    }
+
+    // For a snapshot written from a full scan of the collection.
+    public Writer writer(long version) throws IOException {
+        return new Writer(Paths.get(path), version, System.currentTimeMillis());
+    }
+
+    /**
+     * Rewrites the snapshot from the previous one plus the outbox entries after it.
+     * Books touched since are written in their latest state, deleted ones dropped.
+     * Past the rescan interval the snapshot is rebuilt from the collection instead.
+     */
+    @Scheduled(fixedDelayString = "${product.catalog.snapshot.interval-ms:600000}",
+            initialDelayString = "${product.catalog.snapshot.interval-ms:600000}")
+    public void refresh() {
+        long since = snapshotVersion;
+        if (since < 0) {
+            return;
+        }
+        if (System.currentTimeMillis() - snapshotScannedAt > rescanAfterMs) {
+            rescan();
+            return;
+        }
+        long latest = changeRepository.latestVersion();
+        if (latest <= since) {
+            return;
+        }
+
+        // Latest state per touched book; null marks a delete.
+        Map<String, Books> touched = new LinkedHashMap<>();
+        replay(Math.max(0, since - replayMargin), book -> touched.put(book.getId(), book), id -> touched.put(id, null));
+        long version = latest;
+
+        long start = System.currentTimeMillis();
+        Path file = Paths.get(path);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Writer writer = new Writer(file, version, snapshotScannedAt)) {
+            Header header = verify(channel);
+            if (header == null) {
+                log.warn("Cannot refresh catalog snapshot {}: it no longer verifies", file);
+                return;
+            }
+            readRecords(channel, header, book -> {
+                if (!touched.containsKey(book.getId())) {
+                    writer.appendUnchecked(book);
+                }
+            });
+            for (Books book : touched.values()) {
+                if (book != null) {
+                    writer.append(book);
+                }
+            }
+            writer.commit();
+            snapshotVersion = version;
+            log.info("Refreshed catalog snapshot to version {} ({} books, {} changed) in {} ms",
+                    version, writer.count, touched.size(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot refresh catalog snapshot {}", file, e);
+        }
+    }
+
+    private void rescan() {
+        long start = System.currentTimeMillis();
+        Query query = new Query();
+        query.fields().exclude("description");
+        try (Writer writer = writer(currentVersion());
+             CloseableIterator<Books> it = mongoTemplate.stream(query, Books.class)) {
+            while (it.hasNext()) {
+                writer.append(it.next());
+            }
+            writer.commit();
+            log.info("Rebuilt catalog snapshot from Mongo at version {} ({} books) in {} ms",
+                    writer.version, writer.count, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot rebuild catalog snapshot {}", path, e);
+        }
+    }
+
+    private boolean changesCover(long version) {
+        long latest = changeRepository.latestVersion();
+        if (latest <= version) {
+            return true;
+        }
+        return changeRepository.oldestVersion() <= version + 1;
+    }
+
+    private long replay(long since, Consumer<Books> upsert, Consumer<String> remove) {
+        long replayed = 0;
+        for (List<CatalogChange> batch = changeRepository.findAfter(since, CHANGE_BATCH); !batch.isEmpty();
+             batch = changeRepository.findAfter(since, CHANGE_BATCH)) {
+            for (CatalogChange change : batch) {
+                if (change.getBook() == null) {
+                    remove.accept(change.getBookId());
+                } else {
+                    upsert.accept(change.getBook());
+                }
+                since = change.getVersion();
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private Header verify(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES + FOOTER_BYTES) {
+            return null;
+        }
+        ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (head.getInt() != MAGIC || head.getInt() != FORMAT) {
+            return null;
+        }
+        Header header = new Header(head.getLong(), head.getLong(), head.getLong(), head.getLong(), size - FOOTER_BYTES);
+
+        ByteBuffer foot = channel.map(FileChannel.MapMode.READ_ONLY, header.end, FOOTER_BYTES);
+        long expected = foot.getLong();
+        if (foot.getInt() != MAGIC) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        for (long position = HEADER_BYTES; position < header.end; position += WINDOW_BYTES) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, header.end - position)));
+        }
+        return crc.getValue() == expected ? header : null;
+    }
+
+    private void readRecords(FileChannel channel, Header header, Consumer<Books> upsert) throws IOException {
+        Window window = new Window(channel);
+        long position = HEADER_BYTES;
+        for (long i = 0; i < header.count; i++) {
+            int length = window.at(position, 4).getInt();
+            byte[] record = new byte[length];
+            window.at(position + 4, length).get(record);
+            position += 4 + length;
+            upsert.accept(decode(record));
+        }
+        if (position != header.end) {
+            throw new IOException("Catalog snapshot record count does not match its length");
+        }
+    }
+
+    private Books decode(byte[] record) throws IOException {
+        Object value = codec.deserialize(record);
+        if (!(value instanceof BookResponseDTO)) {
+            throw new IOException("Catalog snapshot record is not a book");
+        }
+        // Folded search fields stay unset: each read model folds what it indexes.
+        BookResponseDTO dto = (BookResponseDTO) value;
+        return Books.builder()
+                .id(dto.getId())
+                .title(dto.getTitle())
+                .subtitle(dto.getSubtitle())
+                .author(dto.getAuthor())
+                .coAuthors(dto.getCoAuthors())
+                .publisher(dto.getPublisher())
+                .publishedDate(dto.getPublishedDate())
+                .edition(dto.getEdition())
+                .pageCount(dto.getPageCount())
+                .format(dto.getFormat())
+                .price(dto.getPrice())
+                .mrpPrice(dto.getMrpPrice())
+                .stockAvailable(dto.getStockAvailable())
+                .rating(dto.getRating())
+                .revision(dto.getRevision())
+                .lastModified(dto.getLastModified())
+                .build();
+    }
+
+    // Explicit copies: reflection-based copying dominated restore time for large catalogs.
+    private static BookResponseDTO toRecord(Books book) {
+        BookResponseDTO dto = new BookResponseDTO();
+        dto.setId(book.getId());
+        dto.setTitle(book.getTitle());
+        dto.setSubtitle(book.getSubtitle());
+        dto.setAuthor(book.getAuthor());
+        dto.setCoAuthors(book.getCoAuthors());
+        dto.setPublisher(book.getPublisher());
+        dto.setPublishedDate(book.getPublishedDate());
+        dto.setEdition(book.getEdition());
+        dto.setPageCount(book.getPageCount());
+        dto.setFormat(book.getFormat());
+        dto.setPrice(book.getPrice());
+        dto.setMrpPrice(book.getMrpPrice());
+        dto.setStockAvailable(book.getStockAvailable());
+        dto.setRating(book.getRating());
+        dto.setRevision(book.getRevision());
+        dto.setLastModified(book.getLastModified());
+        return dto;
+    }
+
+    private static class Header {
+        final long version;
+        final long createdAt;
+        // When the full scan this snapshot descends from was taken.
+        final long scannedAt;
+        final long count;
+        final long end;
+
+        Header(long version, long createdAt, long scannedAt, long count, long end) {
+            this.version = version;
+            this.createdAt = createdAt;
+            this.scannedAt = scannedAt;
+            this.count = count;
+            this.end = end;
+        }
+    }
+
+    // Read-only mapping of part of the file, moved forward as records are read.
+    private static class Window {
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+        private long start;
+
+        Window(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer at(long position, int length) throws IOException {
+            if (buffer == null || position < start || position + length > start + buffer.capacity()) {
+                start = position;
+                long size = Math.min(Math.max(WINDOW_BYTES, length), channel.size() - position);
+                if (size < length) {
+                    throw new EOFException("Catalog snapshot is truncated");
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            }
+            ByteBuffer slice = buffer.duplicate();
+            slice.position((int) (position - start));
+            slice.limit((int) (position - start) + length);
+            return slice;
+        }
+    }
+
+    /**
+     * Writes a new snapshot next to the current one and moves it into place on
+     * {@link #commit()}; closing without committing leaves the current one untouched.
+     */
+    public class Writer implements Closeable {
+        private final Path target;
+        private final Path temp;
+        private final long version;
+        private final long scannedAt;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private final CRC32 crc = new CRC32();
+        private long count;
+        private boolean committed;
+
+        Writer(Path target, long version, long scannedAt) throws IOException {
+            this.target = target;
+            this.version = version;
+            this.scannedAt = scannedAt;
+            Path dir = target.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            this.temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+            this.channel.position(HEADER_BYTES);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+        }
+
+        public void append(Books book) throws IOException {
+            // Descriptions are left out: the read models never load them.
+            byte[] record = codec.serialize(toRecord(book));
+            byte[] length = ByteBuffer.allocate(4).putInt(record.length).array();
+            out.write(length);
+            out.write(record);
+            crc.update(length);
+            crc.update(record);
+            count++;
+        }
+
+        void appendUnchecked(Books book) {
+            try {
+                append(book);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void commit() throws IOException {
+            out.flush();
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES).putLong(crc.getValue()).putInt(MAGIC);
+            footer.flip();
+            while (footer.hasRemaining()) {
+                channel.write(footer);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(FORMAT).putLong(version).putLong(System.currentTimeMillis()).putLong(scannedAt)
+                    .putLong(count);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotVersion = version;
+            snapshotScannedAt = scannedAt;
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
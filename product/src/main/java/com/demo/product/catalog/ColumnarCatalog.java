@@ -0,0 +1,289 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.FacetBucketDTO;
+import com.demo.product.DTO.TextMatch;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.SearchText;
+import com.demo.product.repository.BookSearchRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented copy of the filterable book attributes. Numeric attributes live in
+ * primitive arrays indexed by row, categorical ones in compressed bitmaps, so structured
+ * filters become bitmap intersections followed by a single range scan.
+ */
+@Component
+@ConditionalOnProperty(name = "product.catalog.in-memory.enabled", havingValue = "true")
+public class ColumnarCatalog extends AbstractCatalogReadModel {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private int rowCount;
+
+    private String[] ids = new String[INITIAL_ROWS];
+    private double[] price = new double[INITIAL_ROWS];
+    private double[] rating = new double[INITIAL_ROWS];
+    private int[] pageCount = new int[INITIAL_ROWS];
+    private int[] stock = new int[INITIAL_ROWS];
+    private String[] formatOf = new String[INITIAL_ROWS];
+    private String[] publisherOf = new String[INITIAL_ROWS];
+
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byFormat = new HashMap<>();
+    private final Map<String, RoaringBitmap> byPublisher = new HashMap<>();
+
+    @Override
+    public void upsert(Books book) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.get(book.getId());
+            if (row == null) {
+                row = freeRows.isEmpty() ? allocateRow() : freeRows.pop();
+                rowById.put(book.getId(), row);
+                ids[row] = book.getId();
+                live.add(row);
+            } else {
+                unindex(row);
+            }
+
+            price[row] = toDouble(book.getPrice());
+            rating[row] = toDouble(book.getRating());
+            pageCount[row] = toInt(book.getPageCount());
+            stock[row] = toInt(book.getStockAvailable());
+            formatOf[row] = SearchText.fold(book.getFormat());
+            publisherOf[row] = SearchText.fold(book.getPublisher());
+
+            index(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String bookId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(bookId);
+            if (row == null) {
+                return;
+            }
+            unindex(row);
+            live.remove(row);
+            ids[row] = null;
+            freeRows.push(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(String bookId, int stockAvailable) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.get(bookId);
+            if (row == null) {
+                return;
+            }
+            stock[row] = stockAvailable;
+            if (stockAvailable > 0) inStock.add(row); else inStock.remove(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Free-text attributes are not held in memory; those filters stay on Mongo.
+    public boolean canAnswer(BookListFilterDTO filter) {
+        return isReady() && filter.getTitle() == null && filter.getAuthor() == null;
+    }
+
+    public ColumnarResult query(BookListFilterDTO filter, long offset, int limit, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = live.clone();
+            TextMatch match = TextMatch.fromParam(filter.getMatch());
+
+            if (filter.getFormat() != null)
+                matches.and(matching(byFormat, SearchText.fold(filter.getFormat()), match));
+
+            if (filter.getPublisher() != null)
+                matches.and(matching(byPublisher, SearchText.fold(filter.getPublisher()), match));
+
+            if (Boolean.TRUE.equals(filter.getInStock()))
+                matches.and(inStock);
+            else if (Boolean.FALSE.equals(filter.getInStock()))
+                matches.andNot(inStock);
+
+            if (hasRangeFilter(filter))
+                matches = scanRanges(matches, filter);
+
+            List<String> page = new ArrayList<>(limit);
+            IntIterator it = matches.getIntIterator();
+            long skipped = 0;
+            while (it.hasNext() && page.size() < limit) {
+                int row = it.next();
+                if (skipped++ >= offset) {
+                    page.add(ids[row]);
+                }
+            }
+
+            Map<String, List<FacetBucketDTO>> facets = withFacets ? facets(matches) : null;
+            return new ColumnarResult(page, matches.getLongCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap matching(Map<String, RoaringBitmap> dictionary, String value, TextMatch match) {
+        if (match == TextMatch.EXACT) {
+            RoaringBitmap bitmap = dictionary.get(value);
+            return bitmap == null ? new RoaringBitmap() : bitmap;
+        }
+        List<RoaringBitmap> selected = new ArrayList<>();
+        for (Map.Entry<String, RoaringBitmap> entry : dictionary.entrySet()) {
+            boolean hit = match == TextMatch.PREFIX ? entry.getKey().startsWith(value) : entry.getKey().contains(value);
+            if (hit) {
+                selected.add(entry.getValue());
+            }
+        }
+        return FastAggregation.or(selected.iterator());
+    }
+
+    private boolean hasRangeFilter(BookListFilterDTO filter) {
+        return filter.getMinPrice() != null || filter.getMaxPrice() != null
+                || filter.getMinRating() != null || filter.getMaxRating() != null
+                || filter.getMinPageCount() != null || filter.getMaxPageCount() != null;
+    }
+
+    private RoaringBitmap scanRanges(RoaringBitmap candidates, BookListFilterDTO filter) {
+        RoaringBitmap result = new RoaringBitmap();
+        IntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            int row = it.next();
+            if (within(price[row], filter.getMinPrice(), filter.getMaxPrice())
+                    && within(rating[row], filter.getMinRating(), filter.getMaxRating())
+                    && within(pageCount[row] == NO_VALUE ? Double.NaN : pageCount[row],
+                    filter.getMinPageCount(), filter.getMaxPageCount())) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    // Missing values never satisfy a bound, matching Mongo's $gte/$lte semantics.
+    private boolean within(double value, Number min, Number max) {
+        if (min != null && !(value >= min.doubleValue())) return false;
+        if (max != null && !(value <= max.doubleValue())) return false;
+        return true;
+    }
+
+    private Map<String, List<FacetBucketDTO>> facets(RoaringBitmap matches) {
+        Map<String, List<FacetBucketDTO>> facets = new LinkedHashMap<>();
+        facets.put("format", dictionaryFacet(byFormat, matches, Integer.MAX_VALUE));
+        facets.put("publisher", dictionaryFacet(byPublisher, matches, BookSearchRepository.PUBLISHER_FACET_LIMIT));
+        facets.put("price", rangeFacet(price, matches, BookSearchRepository.PRICE_BUCKETS, "other"));
+        facets.put("rating", rangeFacet(rating, matches, BookSearchRepository.RATING_BUCKETS, "unrated"));
+        return facets;
+    }
+
+    private List<FacetBucketDTO> dictionaryFacet(Map<String, RoaringBitmap> dictionary, RoaringBitmap matches, int limit) {
+        List<FacetBucketDTO> buckets = new ArrayList<>();
+        for (Map.Entry<String, RoaringBitmap> entry : dictionary.entrySet()) {
+            long count = RoaringBitmap.andCardinality(entry.getValue(), matches);
+            if (count > 0) {
+                buckets.add(new FacetBucketDTO(entry.getKey(), count));
+            }
+        }
+        buckets.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return buckets.size() > limit ? new ArrayList<>(buckets.subList(0, limit)) : buckets;
+    }
+
+    private List<FacetBucketDTO> rangeFacet(double[] column, RoaringBitmap matches, Object[] boundaries, String defaultBucket) {
+        long[] counts = new long[boundaries.length];
+        IntIterator it = matches.getIntIterator();
+        while (it.hasNext()) {
+            double value = column[it.next()];
+            int bucket = boundaries.length - 1;
+            for (int i = 0; i < boundaries.length - 1; i++) {
+                if (value >= ((Number) boundaries[i]).doubleValue() && value < ((Number) boundaries[i + 1]).doubleValue()) {
+                    bucket = i;
+                    break;
+                }
+            }
+            counts[bucket]++;
+        }
+        List<FacetBucketDTO> buckets = new ArrayList<>();
+        for (int i = 0; i < boundaries.length - 1; i++) {
+            if (counts[i] > 0) {
+                buckets.add(new FacetBucketDTO(String.valueOf(boundaries[i]), counts[i]));
+            }
+        }
+        if (counts[boundaries.length - 1] > 0) {
+            buckets.add(new FacetBucketDTO(defaultBucket, counts[boundaries.length - 1]));
+        }
+        return buckets;
+    }
+
+    private void index(int row) {
+        if (formatOf[row] != null) byFormat.computeIfAbsent(formatOf[row], k -> new RoaringBitmap()).add(row);
+        if (publisherOf[row] != null) byPublisher.computeIfAbsent(publisherOf[row], k -> new RoaringBitmap()).add(row);
+        if (stock[row] != NO_VALUE && stock[row] > 0) inStock.add(row);
+    }
+
+    private void unindex(int row) {
+        removeFrom(byFormat, formatOf[row], row);
+        removeFrom(byPublisher, publisherOf[row], row);
+        inStock.remove(row);
+    }
+
+    private void removeFrom(Map<String, RoaringBitmap> dictionary, String key, int row) {
+        if (key == null) return;
+        RoaringBitmap bitmap = dictionary.get(key);
+        if (bitmap == null) return;
+        bitmap.remove(row);
+        if (bitmap.isEmpty()) dictionary.remove(key);
+    }
+
+    private int allocateRow() {
+        if (rowCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            price = Arrays.copyOf(price, capacity);
+            rating = Arrays.copyOf(rating, capacity);
+            pageCount = Arrays.copyOf(pageCount, capacity);
+            stock = Arrays.copyOf(stock, capacity);
+            formatOf = Arrays.copyOf(formatOf, capacity);
+            publisherOf = Arrays.copyOf(publisherOf, capacity);
+        }
+        return rowCount++;
+    }
+
+    private static double toDouble(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static int toInt(Integer value) {
+        return value == null ? NO_VALUE : value;
+    }
+}
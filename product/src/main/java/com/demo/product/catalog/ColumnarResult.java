@@ -0,0 +1,16 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.FacetBucketDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ColumnarResult {
+    private List<String> ids;
+    private long total;
+    private Map<String, List<FacetBucketDTO>> facets;
+}
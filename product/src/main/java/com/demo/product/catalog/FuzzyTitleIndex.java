@@ -0,0 +1,321 @@
+package com.demo.product.catalog;
+
+import com.demo.product.entity.Books;
+import com.demo.product.entity.SearchText;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant lookup over title and author words. Distinct words form a vocabulary
+ * indexed by trigrams; a query word is expanded to the vocabulary words within a small
+ * edit distance, and books are ranked by how well every query word is covered.
+ * Work per query is capped by the candidate words verified and the books scored, not by catalog size.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.fuzzy.enabled", havingValue = "true")
+public class FuzzyTitleIndex extends AbstractCatalogReadModel {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int INITIAL_ROWS = 1024;
+    private static final int MAX_QUERY_WORDS = 6;
+    private static final double MIN_SCORE = 0.5;
+    // Popularity only reorders close matches: at most +10% for very frequently viewed books.
+    private static final double POPULARITY_WEIGHT = 0.1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private int rowCount;
+    private String[] ids = new String[INITIAL_ROWS];
+    private int[][] wordsOf = new int[INITIAL_ROWS][];
+
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<RoaringBitmap> rowsByWord = new ArrayList<>();
+    private final Map<String, RoaringBitmap> wordsByTrigram = new HashMap<>();
+
+    // Bounds on the work per query: vocabulary words verified per query word, and books scored.
+    @Value("${product.search.fuzzy.max-candidate-words:2000}")
+    int maxCandidateWords = 2000;
+
+    @Value("${product.search.fuzzy.max-candidate-rows:20000}")
+    int maxCandidateRows = 20000;
+
+    @Override
+    public void upsert(Books book) {
+        Set<String> distinct = new LinkedHashSet<>(tokenize(book.getTitle()));
+        distinct.addAll(tokenize(book.getAuthor()));
+        lock.writeLock().lock();
+        try {
+            int[] bookWords = new int[distinct.size()];
+            int i = 0;
+            for (String word : distinct) {
+                bookWords[i++] = wordId(word);
+            }
+            Integer row = rowById.get(book.getId());
+            if (row == null) {
+                row = freeRows.isEmpty() ? allocateRow() : freeRows.pop();
+                rowById.put(book.getId(), row);
+                ids[row] = book.getId();
+            } else {
+                unindex(row);
+            }
+            wordsOf[row] = bookWords;
+            for (int word : bookWords) {
+                rowsByWord.get(word).add(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String bookId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(bookId);
+            if (row == null) {
+                return;
+            }
+            unindex(row);
+            ids[row] = null;
+            freeRows.push(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Book ids best matching the query, most similar first. {@code views} supplies a
+     * popularity count per book id and may return 0 for unknown books.
+     */
+    public List<String> search(String query, int limit, ToLongFunction<String> views) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (queryWords.size() > MAX_QUERY_WORDS) {
+            queryWords = queryWords.subList(0, MAX_QUERY_WORDS);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<WordMatches> matches = new ArrayList<>(queryWords.size());
+            for (String queryWord : queryWords) {
+                matches.add(match(queryWord));
+            }
+
+            // Candidates come from the selective words only; a word matching a large share
+            // of the catalog ("the") still adds to the score but does not widen the scan.
+            List<WordMatches> bySelectivity = new ArrayList<>(matches);
+            bySelectivity.sort(Comparator.comparingLong(m -> m.all.getLongCardinality()));
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (WordMatches match : bySelectivity) {
+                if (!candidates.isEmpty() && candidates.getLongCardinality() + match.all.getLongCardinality() > maxCandidateRows) {
+                    break;
+                }
+                candidates.or(match.all);
+            }
+
+            List<Scored> ranked = new ArrayList<>();
+            IntIterator rows = candidates.getIntIterator();
+            for (int scanned = 0; rows.hasNext() && scanned < maxCandidateRows; scanned++) {
+                int row = rows.next();
+                double total = 0;
+                for (WordMatches match : matches) {
+                    total += match.similarity(row);
+                }
+                double similarity = total / matches.size();
+                if (similarity >= MIN_SCORE) {
+                    String id = ids[row];
+                    double boost = Math.min(1.0, Math.log10(1 + views.applyAsLong(id)) / 4);
+                    ranked.add(new Scored(id, similarity * (1 + POPULARITY_WEIGHT * boost)));
+                }
+            }
+            ranked.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : a.id.compareTo(b.id));
+
+            List<String> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                result.add(ranked.get(i).id);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rows containing a vocabulary word within the allowed edit distance, grouped by distance.
+    private WordMatches match(String queryWord) {
+        int maxEdits = maxEdits(queryWord.length());
+        List<String> grams = trigrams(queryWord);
+
+        Map<Integer, Integer> overlap = new HashMap<>();
+        for (String gram : grams) {
+            RoaringBitmap posting = wordsByTrigram.get(gram);
+            if (posting == null) continue;
+            IntIterator it = posting.getIntIterator();
+            while (it.hasNext()) {
+                overlap.merge(it.next(), 1, Integer::sum);
+            }
+        }
+
+        // A transposition, counted as one edit, can destroy four trigrams, so closer words must
+        // share at least this many.
+        int minOverlap = Math.max(1, grams.size() - 4 * maxEdits);
+        List<Map.Entry<Integer, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : overlap.entrySet()) {
+            if (entry.getValue() >= minOverlap && !rowsByWord.get(entry.getKey()).isEmpty()
+                    && Math.abs(words.get(entry.getKey()).length() - queryWord.length()) <= maxEdits) {
+                candidates.add(entry);
+            }
+        }
+        if (candidates.size() > maxCandidateWords) {
+            candidates.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+            candidates = candidates.subList(0, maxCandidateWords);
+        }
+
+        WordMatches matches = new WordMatches(queryWord.length(), maxEdits);
+        for (Map.Entry<Integer, Integer> candidate : candidates) {
+            int distance = editDistance(queryWord, words.get(candidate.getKey()), maxEdits);
+            if (distance <= maxEdits) {
+                matches.byDistance[distance].or(rowsByWord.get(candidate.getKey()));
+            }
+        }
+        for (RoaringBitmap rows : matches.byDistance) {
+            matches.all.or(rows);
+        }
+        return matches;
+    }
+
+    static int maxEdits(int length) {
+        if (length <= 2) return 0;
+        return length <= 5 ? 1 : 2;
+    }
+
+    // Optimal string alignment distance (adjacent swaps count once), or limit + 1 once it is exceeded.
+    static int editDistance(String a, String b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > limit) return limit + 1;
+        int[] twoBack = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) previous[j] = j;
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, twoBack[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) return limit + 1;
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+
+    static List<String> tokenize(String text) {
+        String folded = SearchText.fold(text);
+        if (folded == null || folded.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    // Padded so that short words still have trigrams and word boundaries count.
+    static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Words are never dropped from the vocabulary; one whose books are all gone is skipped at query time.
+    private int wordId(String word) {
+        Integer id = wordIds.get(word);
+        if (id != null) {
+            return id;
+        }
+        int newId = words.size();
+        wordIds.put(word, newId);
+        words.add(word);
+        rowsByWord.add(new RoaringBitmap());
+        for (String gram : trigrams(word)) {
+            wordsByTrigram.computeIfAbsent(gram, k -> new RoaringBitmap()).add(newId);
+        }
+        return newId;
+    }
+
+    private void unindex(int row) {
+        if (wordsOf[row] == null) return;
+        for (int word : wordsOf[row]) {
+            rowsByWord.get(word).remove(row);
+        }
+        wordsOf[row] = null;
+    }
+
+    private int allocateRow() {
+        if (rowCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            wordsOf = Arrays.copyOf(wordsOf, capacity);
+        }
+        return rowCount++;
+    }
+
+    private static class WordMatches {
+        final RoaringBitmap[] byDistance;
+        final RoaringBitmap all = new RoaringBitmap();
+        final int length;
+
+        WordMatches(int length, int maxEdits) {
+            this.length = length;
+            this.byDistance = new RoaringBitmap[maxEdits + 1];
+            for (int i = 0; i <= maxEdits; i++) {
+                byDistance[i] = new RoaringBitmap();
+            }
+        }
+
+        double similarity(int row) {
+            for (int distance = 0; distance < byDistance.length; distance++) {
+                if (byDistance[distance].contains(row)) {
+                    return 1.0 - (double) distance / length;
+                }
+            }
+            return 0;
+        }
+    }
+
+    private static class Scored {
+        final String id;
+        final double score;
+
+        Scored(String id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
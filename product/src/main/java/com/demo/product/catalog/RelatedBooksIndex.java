@@ -0,0 +1,209 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.RelatedBooksDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.SearchText;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "More by this author" and "similar books" rails. Books are grouped by author and
+ * co-author, by publisher and format, and by format alone; each group is kept sorted
+ * by rating, so a rail is the head of one or two groups and costs the same whatever
+ * the catalog size. Similar books can additionally be re-ranked by title overlap.
+ */
+@Component
+@ConditionalOnProperty(name = "product.related.enabled", havingValue = "true")
+public class RelatedBooksIndex extends AbstractCatalogReadModel {
+
+    private static final Comparator<Entry> BEST_RATED = Comparator
+            .comparingDouble((Entry e) -> -e.rating)
+            .thenComparing(e -> e.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, TreeSet<Entry>> byAuthor = new HashMap<>();
+    private final Map<String, TreeSet<Entry>> byPublisherFormat = new HashMap<>();
+    private final Map<String, TreeSet<Entry>> byFormat = new HashMap<>();
+
+    // Books considered for the similar rail before re-ranking by title overlap.
+    @Value("${product.related.candidate-pool:100}")
+    int candidatePool = 100;
+
+    @Value("${product.related.text-similarity:true}")
+    boolean textSimilarity = true;
+
+    @Override
+    public void upsert(Books book) {
+        Entry entry = new Entry(book);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(entry.id, entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            for (String author : entry.authors) {
+                add(byAuthor, author, entry);
+            }
+            add(byPublisherFormat, entry.publisherFormat, entry);
+            add(byFormat, entry.format, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String bookId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(bookId);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Both rails for a book, at most {@code limit} books each, or {@code null} when the
+     * book is not in the index. A book never appears in both rails.
+     */
+    public RelatedBooksDTO related(String bookId, int limit) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(bookId);
+            if (entry == null) {
+                return null;
+            }
+
+            Set<String> seen = new HashSet<>();
+            seen.add(entry.id);
+
+            List<Entry> moreByAuthor = new ArrayList<>(limit);
+            for (String author : entry.authors) {
+                collect(byAuthor.get(author), seen, moreByAuthor, limit);
+            }
+
+            int poolSize = textSimilarity ? Math.max(limit, candidatePool) : limit;
+            List<Entry> similar = new ArrayList<>(poolSize);
+            collect(byPublisherFormat.get(entry.publisherFormat), seen, similar, poolSize);
+            collect(byFormat.get(entry.format), seen, similar, poolSize);
+            if (textSimilarity && !entry.titleWords.isEmpty()) {
+                // Stable sort: equal overlap keeps the rating order.
+                similar.sort(Comparator.comparingDouble(e -> -overlap(entry.titleWords, e.titleWords)));
+            }
+
+            RelatedBooksDTO related = new RelatedBooksDTO();
+            related.setBookId(entry.id);
+            for (Entry e : moreByAuthor) {
+                related.getMoreByAuthor().add(e.toSummary());
+            }
+            for (int i = 0; i < similar.size() && i < limit; i++) {
+                related.getSimilar().add(similar.get(i).toSummary());
+            }
+            return related;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(TreeSet<Entry> group, Set<String> seen, List<Entry> into, int limit) {
+        if (group == null) return;
+        for (Iterator<Entry> it = group.iterator(); it.hasNext() && into.size() < limit; ) {
+            Entry e = it.next();
+            if (seen.add(e.id)) {
+                into.add(e);
+            }
+        }
+    }
+
+    // Jaccard similarity of the two title word sets.
+    static double overlap(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0;
+        int shared = 0;
+        for (String word : a) {
+            if (b.contains(word)) shared++;
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private static void add(Map<String, TreeSet<Entry>> groups, String key, Entry entry) {
+        if (key != null) {
+            groups.computeIfAbsent(key, k -> new TreeSet<>(BEST_RATED)).add(entry);
+        }
+    }
+
+    private static void drop(Map<String, TreeSet<Entry>> groups, String key, Entry entry) {
+        if (key == null) return;
+        TreeSet<Entry> group = groups.get(key);
+        if (group != null && group.remove(entry) && group.isEmpty()) {
+            groups.remove(key);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (String author : entry.authors) {
+            drop(byAuthor, author, entry);
+        }
+        drop(byPublisherFormat, entry.publisherFormat, entry);
+        drop(byFormat, entry.format, entry);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    // Immutable snapshot of what the rails need, so reads never touch Mongo.
+    private static final class Entry {
+        final String id;
+        final String title;
+        final String author;
+        final Double price;
+        final double rating;
+        final Double ratingValue;
+        final List<String> authors = new ArrayList<>(2);
+        final String publisherFormat;
+        final String format;
+        final Set<String> titleWords;
+
+        Entry(Books book) {
+            id = book.getId();
+            title = book.getTitle();
+            author = book.getAuthor();
+            price = book.getPrice();
+            ratingValue = book.getRating();
+            rating = ratingValue == null ? 0 : ratingValue;
+
+            String primary = emptyToNull(SearchText.fold(book.getAuthor()));
+            if (primary != null) authors.add(primary);
+            if (book.getCoAuthors() != null) {
+                for (String coAuthor : book.getCoAuthors()) {
+                    String folded = emptyToNull(SearchText.fold(coAuthor));
+                    if (folded != null && !authors.contains(folded)) authors.add(folded);
+                }
+            }
+
+            format = emptyToNull(SearchText.fold(book.getFormat()));
+            String publisher = emptyToNull(SearchText.fold(book.getPublisher()));
+            publisherFormat = publisher == null ? null : publisher + "|" + (format == null ? "" : format);
+            titleWords = new HashSet<>(FuzzyTitleIndex.tokenize(book.getTitle()));
+        }
+
+        BookResponseDTO toSummary() {
+            BookResponseDTO dto = new BookResponseDTO();
+            dto.setId(id);
+            dto.setTitle(title);
+            dto.setAuthor(author);
+            dto.setPrice(price);
+            dto.setRating(ratingValue);
+            return dto;
+        }
+    }
+}
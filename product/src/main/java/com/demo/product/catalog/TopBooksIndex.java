@@ -0,0 +1,165 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.TopList;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.SearchText;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Precomputed "top" listings (top rated, newest, best discount, cheapest), for the whole
+ * catalog and per format. Every list keeps all qualifying books in order rather than only
+ * the first N, so a book dropping out is simply replaced by the next one and each change
+ * costs a few tree updates; a read is the head of one set.
+ */
+@Component
+@ConditionalOnProperty(name = "product.catalog.top-lists.enabled", havingValue = "true")
+public class TopBooksIndex extends AbstractCatalogReadModel {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<TopList, TreeSet<Entry>> all = new EnumMap<>(TopList.class);
+    private final Map<TopList, Map<String, TreeSet<Entry>>> byFormat = new EnumMap<>(TopList.class);
+
+    public TopBooksIndex() {
+        for (TopList list : TopList.values()) {
+            all.put(list, new TreeSet<>(order(list)));
+            byFormat.put(list, new HashMap<>());
+        }
+    }
+
+    @Override
+    public void upsert(Books book) {
+        Entry entry = new Entry(book);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(entry.id, entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            for (TopList list : TopList.values()) {
+                if (metric(list, entry) == null) continue;
+                all.get(list).add(entry);
+                if (entry.format != null) {
+                    byFormat.get(list).computeIfAbsent(entry.format, k -> new TreeSet<>(order(list))).add(entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String bookId) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(bookId);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The first {@code limit} books of a list, for one format or the whole catalog when
+     * {@code format} is null. Books without a value for the list's field are left out.
+     */
+    public List<BookResponseDTO> top(TopList list, String format, int limit) {
+        lock.readLock().lock();
+        try {
+            TreeSet<Entry> ranked = format == null
+                    ? all.get(list)
+                    : byFormat.get(list).get(SearchText.fold(format));
+            if (ranked == null) {
+                return new ArrayList<>();
+            }
+            List<BookResponseDTO> top = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (Iterator<Entry> it = ranked.iterator(); it.hasNext() && top.size() < limit; ) {
+                top.add(it.next().toSummary());
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (TopList list : TopList.values()) {
+            if (metric(list, entry) == null) continue;
+            all.get(list).remove(entry);
+            if (entry.format != null) {
+                Map<String, TreeSet<Entry>> groups = byFormat.get(list);
+                TreeSet<Entry> group = groups.get(entry.format);
+                if (group != null && group.remove(entry) && group.isEmpty()) {
+                    groups.remove(entry.format);
+                }
+            }
+        }
+    }
+
+    // Same order as the Mongo fallback, whose (field, _id) sort is one index walked in the
+    // list's direction: ties on the field are broken by id in that direction too.
+    @SuppressWarnings("unchecked")
+    private static Comparator<Entry> order(TopList list) {
+        Comparator<Entry> ascending = Comparator
+                .comparing((Function<Entry, Comparable<Object>>) e -> (Comparable<Object>) metric(list, e))
+                .thenComparing(e -> e.id);
+        return list.getDirection() == Sort.Direction.DESC ? ascending.reversed() : ascending;
+    }
+
+    private static Object metric(TopList list, Entry entry) {
+        switch (list.getSortField()) {
+            case RATING: return entry.rating;
+            case PUBLISHED_DATE: return entry.publishedDate;
+            case DISCOUNT: return entry.discount;
+            case PRICE: return entry.price;
+            default: throw new IllegalStateException("Unsupported top list field: " + list.getSortField());
+        }
+    }
+
+    // The fields a list entry shows, with the discount worked out once per change.
+    private static final class Entry {
+        final String id;
+        final String title;
+        final String author;
+        final Double price;
+        final Double rating;
+        final Date publishedDate;
+        final Double discount;
+        final String format;
+
+        Entry(Books book) {
+            id = book.getId();
+            title = book.getTitle();
+            author = book.getAuthor();
+            price = book.getPrice();
+            rating = book.getRating();
+            publishedDate = book.getPublishedDate();
+            discount = book.getMrpPrice() == null || book.getPrice() == null
+                    ? null : book.getMrpPrice() - book.getPrice();
+            String folded = SearchText.fold(book.getFormat());
+            format = folded == null || folded.isEmpty() ? null : folded;
+        }
+
+        BookResponseDTO toSummary() {
+            BookResponseDTO dto = new BookResponseDTO();
+            dto.setId(id);
+            dto.setTitle(title);
+            dto.setAuthor(author);
+            dto.setPrice(price);
+            dto.setRating(rating);
+            dto.setPublishedDate(publishedDate);
+            dto.setDiscount(discount);
+            return dto;
+        }
+    }
+}
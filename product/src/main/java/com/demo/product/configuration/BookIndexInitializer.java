@@ -0,0 +1,213 @@
+package com.demo.product.configuration;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.CatalogChange;
+import com.demo.product.entity.StockReservation;
+import com.demo.product.repository.BookSearchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepares the books collection for index-backed filtering at startup: backfills the
+ * folded search fields and the stored discount on older documents, creates the indexes
+ * declared on {@link Books}
+ * and logs any supported filter shape whose plan falls back to a collection scan.
+ */
+@Slf4j
+@Component
+@Order(0)
+public class BookIndexInitializer implements ApplicationRunner {
+
+    private static final int BACKFILL_BATCH = 500;
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    MongoMappingContext mappingContext;
+
+    @Autowired
+    BookSearchRepository searchRepository;
+
+    @Value("${product.mongodb.index-check.enabled:true}")
+    boolean indexCheckEnabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            backfillSearchFields();
+            backfillDiscounts();
+            ensureIndexes();
+            if (indexCheckEnabled) {
+                checkQueryPlans();
+            }
+        } catch (Exception e) {
+            log.warn("Book index initialisation failed, filters may fall back to collection scans", e);
+        }
+    }
+
+    private void backfillSearchFields() {
+        Query missing = new Query(Criteria.where("titleFolded").exists(false));
+        missing.fields().include("title").include("author").include("publisher").include("format");
+
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+
+        try (CloseableIterator<Books> it = mongoTemplate.stream(missing, Books.class)) {
+            while (it.hasNext()) {
+                Books book = it.next();
+                book.refreshSearchFields();
+
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(book.getId())), new Update()
+                        .set("titleFolded", book.getTitleFolded())
+                        .set("authorFolded", book.getAuthorFolded())
+                        .set("publisherFolded", book.getPublisherFolded())
+                        .set("formatFolded", book.getFormatFolded()));
+
+                if (++pending == BACKFILL_BATCH) {
+                    bulk.execute();
+                    updated += pending;
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+            updated += pending;
+        }
+        if (updated > 0) {
+            log.info("Backfilled folded search fields on {} books", updated);
+        }
+    }
+
+    private void backfillDiscounts() {
+        Query missing = new Query(Criteria.where("discount").exists(false)
+                .and("price").ne(null).and("mrpPrice").ne(null));
+        missing.fields().include("price").include("mrpPrice");
+
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+
+        try (CloseableIterator<Books> it = mongoTemplate.stream(missing, Books.class)) {
+            while (it.hasNext()) {
+                Books book = it.next();
+                book.refreshDiscount();
+
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(book.getId())),
+                        new Update().set("discount", book.getDiscount()));
+
+                if (++pending == BACKFILL_BATCH) {
+                    bulk.execute();
+                    updated += pending;
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+            updated += pending;
+        }
+        if (updated > 0) {
+            log.info("Backfilled discount on {} books", updated);
+        }
+    }
+
+    private void ensureIndexes() {
+        for (Class<?> entity : new Class<?>[]{Books.class, StockReservation.class, CatalogChange.class}) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            new MongoPersistentEntityIndexResolver(mappingContext)
+                    .resolveIndexFor(entity)
+                    .forEach(indexOps::ensureIndex);
+            log.info("Ensured {} indexes on {} collection", indexOps.getIndexInfo().size(),
+                    mongoTemplate.getCollectionName(entity));
+        }
+    }
+
+    private void checkQueryPlans() {
+        for (Map.Entry<String, BookListFilterDTO> shape : supportedShapes().entrySet()) {
+            for (Sort sort : new Sort[]{Sort.unsorted(), Sort.by("price").and(Sort.by("id")),
+                    Sort.by("rating").and(Sort.by("id")), Sort.by("publishedDate").and(Sort.by("id")),
+                    Sort.by("discount").and(Sort.by("id"))}) {
+                Document plan = searchRepository.explain(shape.getValue(), sort);
+                Object winningPlan = plan.get("queryPlanner", Document.class).get("winningPlan");
+                String planJson = winningPlan instanceof Document ? ((Document) winningPlan).toJson() : String.valueOf(winningPlan);
+                if (planJson.contains("\"COLLSCAN\"")) {
+                    log.warn("Filter shape '{}' with sort {} uses a collection scan: {}", shape.getKey(), sort, planJson);
+                }
+            }
+        }
+    }
+
+    private Map<String, BookListFilterDTO> supportedShapes() {
+        Map<String, BookListFilterDTO> shapes = new LinkedHashMap<>();
+
+        BookListFilterDTO titlePrefix = new BookListFilterDTO();
+        titlePrefix.setTitle("a");
+        titlePrefix.setMatch("prefix");
+        shapes.put("title prefix", titlePrefix);
+
+        BookListFilterDTO authorExact = new BookListFilterDTO();
+        authorExact.setAuthor("a");
+        authorExact.setMatch("exact");
+        shapes.put("author exact", authorExact);
+
+        BookListFilterDTO publisherExact = new BookListFilterDTO();
+        publisherExact.setPublisher("a");
+        publisherExact.setMatch("exact");
+        shapes.put("publisher exact", publisherExact);
+
+        BookListFilterDTO formatPrice = new BookListFilterDTO();
+        formatPrice.setFormat("a");
+        formatPrice.setMatch("exact");
+        formatPrice.setMinPrice(0.0);
+        formatPrice.setMaxPrice(100.0);
+        shapes.put("format + price range", formatPrice);
+
+        BookListFilterDTO formatRating = new BookListFilterDTO();
+        formatRating.setFormat("a");
+        formatRating.setMatch("exact");
+        formatRating.setMinRating(4.0);
+        shapes.put("format + rating", formatRating);
+
+        BookListFilterDTO priceRange = new BookListFilterDTO();
+        priceRange.setMinPrice(0.0);
+        priceRange.setMaxPrice(100.0);
+        shapes.put("price range", priceRange);
+
+        BookListFilterDTO ratingRange = new BookListFilterDTO();
+        ratingRange.setMinRating(4.0);
+        shapes.put("rating range", ratingRange);
+
+        return shapes;
+    }
+}
@@ -0,0 +1,89 @@
+package com.demo.product.configuration;
+
+import com.demo.product.cache.BinaryCacheValueSerializer;
+import com.demo.product.cache.CacheLease;
+import com.demo.product.cache.StampedeProtectedCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${product.cache.books.ttl-ms:600000}")
+    private long booksTtlMs;
+
+    @Value("${product.cache.pages.ttl-ms:1800000}")
+    private long pagesTtlMs;
+
+    @Value("${product.cache.counts.ttl-ms:1800000}")
+    private long countsTtlMs;
+
+    @Value("${product.cache.misses.ttl-ms:60000}")
+    private long missesTtlMs;
+
+    @Value("${product.cache.stampede.regions:books,bookPages,bookCounts}")
+    private Set<String> stampedeRegions;
+
+    @Value("${product.cache.stampede.lease-ms:5000}")
+    private long leaseMs;
+
+    @Value("${product.cache.stampede.max-wait-ms:3000}")
+    private long maxWaitMs;
+
+    @Value("${product.cache.stampede.beta:1.0}")
+    private double beta;
+
+    @Value("${product.cache.codec:binary}")
+    private String codec;
+
+    @Value("${product.cache.codec.compress-threshold-bytes:1024}")
+    private int compressThresholdBytes;
+
+    @Bean
+    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheLease cacheLease) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMillis(booksTtlMs))
+                .serializeValuesWith(SerializationPair.fromSerializer(cacheValueSerializer()));
+
+        // Single books and result pages expire independently; pages are invalidated
+        // by the catalog generation in their key, so they can live longer.
+        Map<String, RedisCacheConfiguration> regions = new HashMap<>();
+        regions.put("books", defaults.entryTtl(Duration.ofMillis(booksTtlMs)));
+        regions.put("bookPages", defaults.entryTtl(Duration.ofMillis(pagesTtlMs)));
+        regions.put("bookCounts", defaults.entryTtl(Duration.ofMillis(countsTtlMs)));
+        regions.put("bookFacets", defaults.entryTtl(Duration.ofMillis(countsTtlMs)));
+        // Not-found markers stay short so an id created elsewhere is not hidden for long.
+        regions.put("bookMisses", defaults.entryTtl(Duration.ofMillis(missesTtlMs)));
+
+        // Hot regions load each missing key once across the cluster and refresh ahead of expiry.
+        return new StampedeProtectedCacheManager(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                defaults, regions, stampedeRegions, cacheLease,
+                Duration.ofMillis(leaseMs), Duration.ofMillis(maxWaitMs), beta);
+    }
+
+    // Shared with the reactive read path, which reads and fills the same entries.
+    @Bean
+    public RedisSerializer<Object> cacheValueSerializer() {
+        switch (codec.trim().toLowerCase(Locale.ROOT)) {
+            case "binary":
+                return new BinaryCacheValueSerializer(compressThresholdBytes);
+            case "jdk":
+                return RedisSerializer.java();
+            default:
+                throw new IllegalArgumentException("Unsupported cache codec: " + codec + ". Supported codecs: binary, jdk");
+        }
+    }
+}
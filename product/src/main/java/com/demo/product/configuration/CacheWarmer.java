@@ -0,0 +1,150 @@
+package com.demo.product.configuration;
+
+import com.demo.product.DTO.BookFieldSet;
+import com.demo.product.cache.CatalogGeneration;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.exception.ResourceNotFoundException;
+import com.demo.product.service.BookService;
+import com.demo.product.service.SearchAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Replays the hot keys persisted by {@link HotKeyTracker} through the cached
+ * service methods at startup, paced to a fixed rate so Mongo is not flooded.
+ * Health reports OUT_OF_SERVICE until warming has finished. Afterwards the
+ * costliest searches from {@link SearchAnalyticsService} are re-cached once per
+ * catalog generation.
+ */
+@Slf4j
+@Component
+@Order(2)
+public class CacheWarmer implements ApplicationRunner, HealthIndicator {
+
+    @Autowired
+    HotKeyTracker hotKeys;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    SearchAnalyticsService searchAnalytics;
+
+    @Autowired
+    CatalogGeneration catalogGeneration;
+
+    @Value("${product.cache.warmup.enabled:true}")
+    boolean enabled;
+
+    @Value("${product.cache.warmup.rate-per-second:100}")
+    int ratePerSecond;
+
+    @Value("${product.cache.warmup.max-duration-ms:60000}")
+    long maxDurationMs;
+
+    @Value("${product.cache.warmup.costly-searches:20}")
+    int costlySearches;
+
+    @Value("${product.cache.warmup.costly-page-size:10}")
+    int costlyPageSize;
+
+    private volatile boolean warm;
+    private volatile int warmed;
+    private volatile long rewarmedGeneration = -1;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Map.Entry<String, Long>> entries = hotKeys.restore();
+        if (!enabled || entries.isEmpty()) {
+            warm = true;
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long intervalNanos = 1_000_000_000L / Math.max(1, ratePerSecond);
+        long next = System.nanoTime();
+
+        for (Map.Entry<String, Long> entry : entries) {
+            if (System.currentTimeMillis() - start > maxDurationMs) {
+                log.warn("Cache warmup stopped after {} ms with {} of {} keys warmed", maxDurationMs, warmed, entries.size());
+                break;
+            }
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            next += intervalNanos;
+            warm(entry.getKey());
+        }
+
+        warm = true;
+        log.info("Cache warmup finished - warmed {} of {} hot keys in {} ms",
+                warmed, entries.size(), System.currentTimeMillis() - start);
+    }
+
+    // Every catalog write moves search pages to a new generation, so the costliest
+    // queries are re-run once per generation rather than on a fixed schedule.
+    @Scheduled(fixedDelayString = "${product.cache.warmup.rewarm-interval-ms:30000}",
+            initialDelayString = "${product.cache.warmup.rewarm-interval-ms:30000}")
+    public void rewarm() {
+        if (!enabled || !warm) {
+            return;
+        }
+        long generation = catalogGeneration.current();
+        if (generation == rewarmedGeneration) {
+            return;
+        }
+        List<String> queries = searchAnalytics.precacheCandidates(costlySearches);
+        Set<String> fields = new LinkedHashSet<>(BookFieldSet.SUMMARY_FIELDS);
+        for (String query : queries) {
+            try {
+                bookService.search(query, 0, costlyPageSize, fields);
+            } catch (RuntimeException e) {
+                log.warn("Cannot re-cache search for '{}'", query, e);
+            }
+        }
+        rewarmedGeneration = generation;
+        log.debug("Re-cached {} costly searches for catalog generation {}", queries.size(), generation);
+    }
+
+    private void warm(String key) {
+        String[] parts = key.split("\\|", 5);
+        try {
+            if (HotKeyTracker.BOOK.equals(parts[0]) && parts.length == 2) {
+                bookService.getBook(parts[1]);
+            } else if (HotKeyTracker.SEARCH.equals(parts[0]) && parts.length == 5) {
+                Set<String> fields = "all".equals(parts[3]) ? new LinkedHashSet<>()
+                        : new LinkedHashSet<>(Arrays.asList(parts[3].split(",")));
+                bookService.search(parts[4], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), fields);
+            } else {
+                return;
+            }
+            warmed++;
+        } catch (ResourceNotFoundException e) {
+            log.debug("Hot book {} no longer exists", key);
+        } catch (RuntimeException e) {
+            log.warn("Cannot warm cache entry {}", key, e);
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warm ? Health.up() : Health.outOfService();
+        return builder.withDetail("warmedKeys", warmed).build();
+    }
+}
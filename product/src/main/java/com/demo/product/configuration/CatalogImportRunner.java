@@ -0,0 +1,57 @@
+package com.demo.product.configuration;
+
+import com.demo.product.DTO.ImportFormat;
+import com.demo.product.DTO.ImportReportDTO;
+import com.demo.product.service.CatalogImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+/**
+ * Command-line catalog import:
+ * {@code java -jar product-service.jar --product.import.file=books.ndjson --spring.main.web-application-type=none}.
+ * Files ending in .csv are read as CSV, anything else as NDJSON. The application exits when done.
+ */
+@Slf4j
+@Component
+@Order(10)
+@ConditionalOnProperty(name = "product.import.file")
+public class CatalogImportRunner implements ApplicationRunner {
+
+    @Autowired
+    CatalogImportService importService;
+
+    @Autowired
+    ConfigurableApplicationContext context;
+
+    @Value("${product.import.file}")
+    String file;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ImportReportDTO report;
+        try (InputStream input = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            report = importService.importBooks(input, ImportFormat.fromFileName(file));
+        }
+
+        report.getErrors().forEach(error ->
+                log.warn("Import error at line {} (bookId: {}): {}", error.getLine(), error.getBookId(), error.getMessage()));
+        if (report.isErrorsTruncated()) {
+            log.warn("More than {} rows failed; only the first ones are listed", report.getErrors().size());
+        }
+
+        int exitCode = report.getFailed() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,19 @@
+package com.demo.product.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+// Multi-document transactions need a replica set, so they are opt-in. Without them
+// outbox entries are written right after the book change they describe.
+@Configuration
+@ConditionalOnProperty(name = "product.outbox.transactions.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDbFactory dbFactory) {
+        return new MongoTransactionManager(dbFactory);
+    }
+}
@@ -0,0 +1,58 @@
+package com.demo.product.configuration;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.autoconfigure.mongo.ReactiveMongoClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Collections;
+
+// The reactive read path shares the cache entries of the blocking one, so its template
+// uses the same key layout ("region::key") and value codec as the cache manager.
+// Boot's reactive Mongo auto-configuration is excluded, so the reactive client and its
+// connection pool exist only while this path is enabled.
+@Configuration
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    public static final String CACHE_TEMPLATE = "reactiveCacheTemplate";
+
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(MongoProperties properties, Environment environment) {
+        return new ReactiveMongoClientFactory(properties, environment, Collections.emptyList()).createMongoClient(null);
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoProperties properties,
+                                                       MongoMappingContext mappingContext,
+                                                       MongoCustomConversions conversions) {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, properties.getMongoClientDatabase()), converter);
+    }
+
+    @Bean(CACHE_TEMPLATE)
+    public ReactiveRedisTemplate<String, Object> reactiveCacheTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                       RedisSerializer<Object> cacheValueSerializer) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(RedisSerializer.string())
+                .value(cacheValueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.product.configuration;
+
+import com.mongodb.ReadPreference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// Secondary reads need a replica set, so they are opt-in. Both templates share one
+// client and connection pool; only the read preference differs. Declaring the second
+// template switches off Boot's own, so the primary one is declared here as well.
+@Configuration
+@ConditionalOnProperty(name = "product.mongo.replica.enabled", havingValue = "true")
+public class ReplicaReadConfig {
+
+    public static final String SECONDARY_TEMPLATE = "secondaryMongoTemplate";
+
+    @Value("${product.mongo.replica.read-preference:secondaryPreferred}")
+    private String readPreference;
+
+    // The driver rejects anything below 90 seconds.
+    @Value("${product.mongo.replica.max-staleness-ms:90000}")
+    private long maxStalenessMs;
+
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDbFactory dbFactory, MongoConverter converter) {
+        return new MongoTemplate(dbFactory, converter);
+    }
+
+    @Bean(SECONDARY_TEMPLATE)
+    public MongoTemplate secondaryMongoTemplate(MongoDbFactory dbFactory, MongoConverter converter) {
+        MongoTemplate template = new MongoTemplate(dbFactory, converter);
+        template.setReadPreference(ReadPreference.valueOf(readPreference, Collections.emptyList(),
+                maxStalenessMs, TimeUnit.MILLISECONDS));
+        return template;
+    }
+}
@@ -0,0 +1,57 @@
+package com.demo.product.controller;
+
+import com.demo.product.DTO.CatalogChangesDTO;
+import com.demo.product.DTO.GdnBaseResponse;
+import com.demo.product.service.CatalogChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@RestController
+@RequestMapping("/books/changes")
+public class CatalogChangeController {
+
+    static final long MAX_WAIT_MS = 25000;
+
+    @Autowired
+    private CatalogChangeService changeService;
+
+    // Delta-sync feed. With waitMs > 0 the request is parked until a newer change
+    // exists or the wait runs out, so idle consumers do not have to poll.
+    @GetMapping
+    public CompletableFuture<ResponseEntity<GdnBaseResponse<CatalogChangesDTO>>> changes(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long waitMs) {
+
+        log.info("Received catalog changes request - since: {}, limit: {}, waitMs: {}", since, limit, waitMs);
+
+        if (since < 0) {
+            log.warn("Invalid since version: {}", since);
+            throw new IllegalArgumentException("Since must be non-negative");
+        }
+        if (limit <= 0 || limit > 1000) {
+            log.warn("Invalid limit: {}", limit);
+            throw new IllegalArgumentException("Limit must be between 1 and 1000");
+        }
+        if (waitMs < 0 || waitMs > MAX_WAIT_MS) {
+            log.warn("Invalid wait: {}", waitMs);
+            throw new IllegalArgumentException("WaitMs must be between 0 and " + MAX_WAIT_MS);
+        }
+
+        return changeService.awaitChanges(since, limit, waitMs).thenApply(changes -> {
+            log.info("Catalog changes served - since: {}, returned: {}, nextSince: {}",
+                    since, changes.getChanges().size(), changes.getNextSince());
+            GdnBaseResponse<CatalogChangesDTO> response = GdnBaseResponse.success(changes, "Catalog changes retrieved successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+}
@@ -1,16 +1,46 @@
 package com.demo.product.controller;
 
 import com.demo.product.DTO.GdnBaseResponse;
+import com.demo.product.DTO.BookFacetPageDTO;
+import com.demo.product.DTO.BookPatchDTO;
+import com.demo.product.DTO.BookFieldSet;
 import com.demo.product.DTO.BookListFilterDTO;
 import com.demo.product.DTO.BookRequestDTO;
 import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.BookSortField;
+import com.demo.product.DTO.BookStamp;
+import com.demo.product.DTO.BulkUpdateReportDTO;
+import com.demo.product.DTO.CountMode;
+import com.demo.product.DTO.CursorPageDTO;
+import com.demo.product.DTO.ImportFormat;
+import com.demo.product.DTO.ImportReportDTO;
+import com.demo.product.DTO.RelatedBooksDTO;
+import com.demo.product.DTO.TopList;
+import com.demo.product.cache.CatalogGeneration;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.service.BookBulkUpdateService;
 import com.demo.product.service.BookService;
+import com.demo.product.service.CatalogExportService;
+import com.demo.product.service.CatalogImportService;
+import com.demo.product.service.RelatedBooksService;
+import com.demo.product.service.SearchAnalyticsService;
+import com.demo.product.service.TopBooksService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -20,15 +50,44 @@ public class ProductController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private CatalogImportService importService;
+
+    @Autowired
+    private BookBulkUpdateService bulkUpdateService;
+
+    @Autowired
+    private CatalogExportService exportService;
+
+    @Autowired
+    private HotKeyTracker hotKeys;
+
+    @Autowired
+    private CatalogGeneration catalogGeneration;
+
+    @Autowired
+    private SearchAnalyticsService searchAnalytics;
+
+    @Autowired
+    private RelatedBooksService relatedBooksService;
+
+    @Autowired
+    private TopBooksService topBooksService;
+
 
     @GetMapping("/searchWithFilter")
-    public ResponseEntity<GdnBaseResponse<Page<BookResponseDTO>>> listBooks(
+    public ResponseEntity<GdnBaseResponse<Slice<BookResponseDTO>>> listBooks(
             BookListFilterDTO filter,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "cached") String count,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest webRequest) {
 
-        log.info("Received book search request with filter - page: {}, size: {}, filter: {}", 
-                page, size, filter);
+        log.info("Received book search request with filter - page: {}, size: {}, count: {}, fields: {}, sort: {} {}, filter: {}", 
+                page, size, count, fields, sort, direction, filter);
 
         if (page < 0) {
             log.warn("Invalid page number: {}", page);
@@ -38,12 +97,29 @@ public class ProductController {
             log.warn("Invalid page size: {}", size);
             throw new IllegalArgumentException("Size must be between 1 and 100");
         }
+        CountMode countMode = CountMode.fromParam(count);
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+        BookSortField sortField = sort == null || sort.trim().isEmpty() ? null : BookSortField.fromParam(sort);
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid sort direction: " + direction));
+
+        if (webRequest.checkNotModified(catalogETag())) {
+            log.info("Book search with filter not modified");
+            return null;
+        }
 
         try {
-            Page<BookResponseDTO> books = bookService.getBooks(filter, page, size);
-            log.info("Book search completed - found {} books, total pages: {}", 
-                    books.getTotalElements(), books.getTotalPages());
-            GdnBaseResponse<Page<BookResponseDTO>> response = GdnBaseResponse.success(books, "Books retrieved successfully", HttpStatus.OK.value());
+            Slice<BookResponseDTO> books = sortField == null
+                    ? bookService.getBooks(filter, page, size, countMode, selectedFields)
+                    : bookService.getBooks(filter, page, size, countMode, selectedFields, sortField, sortDirection);
+            if (books instanceof Page) {
+                log.info("Book search completed - found {} books, total pages: {}", 
+                        ((Page<BookResponseDTO>) books).getTotalElements(), ((Page<BookResponseDTO>) books).getTotalPages());
+            } else {
+                log.info("Book search completed - returned {} books, hasNext: {}",
+                        books.getNumberOfElements(), books.hasNext());
+            }
+            GdnBaseResponse<Slice<BookResponseDTO>> response = GdnBaseResponse.success(books, "Books retrieved successfully", HttpStatus.OK.value());
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (Exception e) {
             log.error("Error during book search with filter", e);
@@ -51,14 +127,94 @@ public class ProductController {
         }
     }
 
+    @GetMapping(value = "/searchWithFilter", params = "cursor")
+    public ResponseEntity<GdnBaseResponse<CursorPageDTO<BookResponseDTO>>> listBooksByCursor(
+            BookListFilterDTO filter,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        log.info("Received keyset book search request - sort: {}, direction: {}, size: {}, fields: {}, filter: {}",
+                sort, direction, size, fields, filter);
+
+        if (size <= 0 || size > 100) {
+            log.warn("Invalid page size: {}", size);
+            throw new IllegalArgumentException("Size must be between 1 and 100");
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid sort direction: " + direction));
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+
+        if (webRequest.checkNotModified(catalogETag())) {
+            log.info("Keyset book search not modified");
+            return null;
+        }
+
+        try {
+            CursorPageDTO<BookResponseDTO> books = bookService.getBooksByCursor(
+                    filter, cursor, BookSortField.fromParam(sort), sortDirection, size, withTotal, selectedFields);
+            log.info("Keyset book search completed - returned {} books, hasNext: {}",
+                    books.getContent().size(), books.isHasNext());
+            GdnBaseResponse<CursorPageDTO<BookResponseDTO>> response = GdnBaseResponse.success(books, "Books retrieved successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error during keyset book search with filter", e);
+            throw e;
+        }
+    }
+
+    @GetMapping(value = "/searchWithFilter", params = {"facets=true", "!cursor"})
+    public ResponseEntity<GdnBaseResponse<BookFacetPageDTO>> listBooksWithFacets(
+            BookListFilterDTO filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        log.info("Received faceted book search request - page: {}, size: {}, fields: {}, filter: {}",
+                page, size, fields, filter);
+
+        if (page < 0) {
+            log.warn("Invalid page number: {}", page);
+            throw new IllegalArgumentException("Page number must be non-negative");
+        }
+        if (size <= 0 || size > 100) {
+            log.warn("Invalid page size: {}", size);
+            throw new IllegalArgumentException("Size must be between 1 and 100");
+        }
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+
+        if (webRequest.checkNotModified(catalogETag())) {
+            log.info("Faceted book search not modified");
+            return null;
+        }
+
+        try {
+            BookFacetPageDTO books = bookService.getBooksWithFacets(filter, page, size, selectedFields);
+            log.info("Faceted book search completed - found {} books, total pages: {}",
+                    books.getTotalElements(), books.getTotalPages());
+            GdnBaseResponse<BookFacetPageDTO> response = GdnBaseResponse.success(books, "Books retrieved successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error during faceted book search with filter", e);
+            throw e;
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<GdnBaseResponse<Page<BookResponseDTO>>> search(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
 
-        log.info("Received book search request - keyword: {}, page: {}, size: {}", 
-                keyword, page, size);
+        log.info("Received book search request - keyword: {}, page: {}, size: {}, fields: {}", 
+                keyword, page, size, fields);
 
         if (keyword == null || keyword.trim().isEmpty()) {
             log.warn("Book search failed: Keyword is missing");
@@ -72,9 +228,18 @@ public class ProductController {
             log.warn("Invalid page size: {}", size);
             throw new IllegalArgumentException("Size must be between 1 and 100");
         }
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+
+        hotKeys.recordSearch(keyword, page, size, selectedFields);
+
+        if (webRequest.checkNotModified(catalogETag())) {
+            log.info("Book search not modified for keyword '{}'", keyword);
+            return null;
+        }
 
         try {
-            Page<BookResponseDTO> books = bookService.search(keyword, page, size);
+            Page<BookResponseDTO> books = bookService.search(keyword, page, size, selectedFields);
+            searchAnalytics.record(keyword, books.getTotalElements());
             log.info("Book search completed for keyword '{}' - found {} books, total pages: {}", 
                     keyword, books.getTotalElements(), books.getTotalPages());
             GdnBaseResponse<Page<BookResponseDTO>> response = GdnBaseResponse.success(books, "Books retrieved successfully", HttpStatus.OK.value());
@@ -85,8 +250,90 @@ public class ProductController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<GdnBaseResponse<ImportReportDTO>> importBooks(HttpServletRequest request) throws IOException {
+
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        log.info("Received catalog import request - format: {}", format);
+
+        try {
+            ImportReportDTO report = importService.importBooks(request.getInputStream(), format);
+            log.info("Catalog import completed - processed: {}, failed: {}", report.getProcessed(), report.getFailed());
+            GdnBaseResponse<ImportReportDTO> response = GdnBaseResponse.success(report, "Catalog import completed", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error during catalog import", e);
+            throw e;
+        }
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<GdnBaseResponse<BulkUpdateReportDTO>> updateBooks(@RequestBody List<BookPatchDTO> patches) {
+
+        log.info("Received bulk update request - items: {}", patches == null ? 0 : patches.size());
+
+        try {
+            BulkUpdateReportDTO report = bulkUpdateService.updateBooks(patches);
+            log.info("Bulk update completed - updated: {}, notFound: {}, failed: {}",
+                    report.getUpdated(), report.getNotFound(), report.getFailed());
+            GdnBaseResponse<BulkUpdateReportDTO> response = GdnBaseResponse.success(report, "Bulk update completed", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error during bulk update", e);
+            throw e;
+        }
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportBooks(BookListFilterDTO filter,
+                            @RequestParam(required = false) String fields,
+                            @RequestParam(required = false) String afterId,
+                            HttpServletResponse response) throws IOException {
+
+        log.info("Received catalog export request - fields: {}, afterId: {}, filter: {}", fields, afterId, filter);
+
+        Set<String> selectedFields = BookFieldSet.parse(fields);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        try {
+            long exported = exportService.exportBooks(filter, selectedFields,
+                    afterId == null || afterId.trim().isEmpty() ? null : afterId.trim(), response.getOutputStream());
+            log.info("Catalog export completed - exported {} books", exported);
+        } catch (Exception e) {
+            log.error("Error during catalog export", e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<GdnBaseResponse<List<BookResponseDTO>>> getTopBooks(
+            @RequestParam(defaultValue = "top-rated") String list,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        log.info("Received top books request - list: {}, format: {}, limit: {}", list, format, limit);
+
+        if (limit <= 0 || limit > 100) {
+            log.warn("Invalid limit: {}", limit);
+            throw new IllegalArgumentException("Limit must be between 1 and 100");
+        }
+        TopList topList = TopList.fromParam(list);
+
+        try {
+            List<BookResponseDTO> books = topBooksService.getTopBooks(topList,
+                    format == null || format.trim().isEmpty() ? null : format.trim(), limit);
+            log.info("Top books retrieved - list: {}, format: {}, count: {}", topList, format, books.size());
+            GdnBaseResponse<List<BookResponseDTO>> response = GdnBaseResponse.success(books, "Top books retrieved successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error retrieving top books - list: {}, format: {}", topList, format, e);
+            throw e;
+        }
+    }
+
     @GetMapping("/{bookId}")
-    public ResponseEntity<GdnBaseResponse<BookResponseDTO>> getBook(@PathVariable String bookId) {
+    public ResponseEntity<GdnBaseResponse<BookResponseDTO>> getBook(@PathVariable String bookId, WebRequest webRequest) {
 
         log.info("Received request to get book details for bookId: {}", bookId);
 
@@ -95,18 +342,56 @@ public class ProductController {
             throw new IllegalArgumentException("Book ID is required");
         }
 
+        hotKeys.recordBook(bookId);
+
         try {
+            if (isConditional(webRequest)) {
+                BookStamp stamp = bookService.getBookStamp(bookId);
+                if (webRequest.checkNotModified(stamp.eTag(), stamp.lastModifiedMillis())) {
+                    log.info("Book not modified for bookId: {}", bookId);
+                    return null;
+                }
+            }
             BookResponseDTO book = bookService.getBook(bookId);
             log.info("Book details retrieved successfully for bookId: {}, title: {}", 
                     bookId, book.getTitle());
             GdnBaseResponse<BookResponseDTO> response = GdnBaseResponse.success(book, "Book retrieved successfully", HttpStatus.OK.value());
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            BookStamp stamp = BookStamp.of(book);
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(stamp.eTag());
+            if (stamp.getLastModified() != null) {
+                ok.lastModified(stamp.lastModifiedMillis());
+            }
+            return ok.body(response);
         } catch (Exception e) {
             log.error("Error retrieving book details for bookId: {}", bookId, e);
             throw e;
         }
     }
 
+    @GetMapping("/{bookId}/related")
+    public ResponseEntity<GdnBaseResponse<RelatedBooksDTO>> getRelatedBooks(
+            @PathVariable String bookId,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.info("Received request for related books - bookId: {}, limit: {}", bookId, limit);
+
+        if (limit <= 0 || limit > 50) {
+            log.warn("Invalid limit: {}", limit);
+            throw new IllegalArgumentException("Limit must be between 1 and 50");
+        }
+
+        try {
+            RelatedBooksDTO related = relatedBooksService.getRelatedBooks(bookId, limit);
+            log.info("Related books retrieved for bookId: {} - {} by author, {} similar",
+                    bookId, related.getMoreByAuthor().size(), related.getSimilar().size());
+            GdnBaseResponse<RelatedBooksDTO> response = GdnBaseResponse.success(related, "Related books retrieved successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error retrieving related books for bookId: {}", bookId, e);
+            throw e;
+        }
+    }
+
     @PostMapping
     public ResponseEntity<GdnBaseResponse<BookResponseDTO>> createBook(@RequestBody BookRequestDTO request) {
         log.info("Received request to create book - title: {}", request != null ? request.getTitle() : "null");
@@ -178,4 +463,15 @@ public class ProductController {
             throw e;
         }
     }
+
+    private static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // Every listing and search result is computed under the current catalog generation,
+    // so it alone identifies the representation for a given URL.
+    private String catalogETag() {
+        return "\"g" + catalogGeneration.current() + "\"";
+    }
 }
@@ -0,0 +1,186 @@
+package com.demo.product.controller;
+
+import com.demo.product.DTO.BookFieldSet;
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.BookStamp;
+import com.demo.product.DTO.GdnBaseResponse;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.service.ReactiveBookService;
+import com.demo.product.service.SearchAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking variants of the book read endpoints. Request threads are released while
+ * Mongo and Redis work, so slow backends no longer pin a servlet thread per request.
+ * With {@code Accept: application/stream+json} listings are streamed one book per line,
+ * and the next book is only read from the cursor once the previous one was written.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/reactive/books")
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+public class ReactiveProductController {
+
+    @Autowired
+    private ReactiveBookService reactiveBookService;
+
+    @Autowired
+    private HotKeyTracker hotKeys;
+
+    @Autowired
+    private SearchAnalyticsService searchAnalytics;
+
+    @Value("${product.reactive.max-stream-items:10000}")
+    private int maxStreamItems;
+
+    @GetMapping("/{bookId}")
+    public Mono<ResponseEntity<GdnBaseResponse<BookResponseDTO>>> getBook(@PathVariable String bookId) {
+
+        log.info("Received reactive request to get book details for bookId: {}", bookId);
+
+        if (bookId == null || bookId.trim().isEmpty()) {
+            log.warn("Get book request failed: Book ID is missing");
+            throw new IllegalArgumentException("Book ID is required");
+        }
+
+        hotKeys.recordBook(bookId);
+
+        return reactiveBookService.getBook(bookId)
+                .map(book -> {
+                    GdnBaseResponse<BookResponseDTO> response = GdnBaseResponse.success(book, "Book retrieved successfully", HttpStatus.OK.value());
+                    BookStamp stamp = BookStamp.of(book);
+                    ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(stamp.eTag());
+                    if (stamp.getLastModified() != null) {
+                        ok.lastModified(stamp.lastModifiedMillis());
+                    }
+                    return ok.body(response);
+                })
+                .doOnError(e -> log.error("Error retrieving book details for bookId: {}", bookId, e));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<GdnBaseResponse<List<BookResponseDTO>>>> search(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Received reactive book search request - keyword: {}, page: {}, size: {}, fields: {}",
+                keyword, page, size, fields);
+
+        validateKeyword(keyword);
+        validatePage(page, size);
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+
+        return toResponse(recorded(keyword, reactiveBookService.search(keyword, (long) page * size, size, selectedFields)));
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<BookResponseDTO> streamSearch(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Received streaming book search request - keyword: {}, limit: {}, fields: {}", keyword, limit, fields);
+
+        validateKeyword(keyword);
+        validateLimit(limit);
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+
+        return recorded(keyword, reactiveBookService.search(keyword, 0, limit, selectedFields));
+    }
+
+    @GetMapping("/searchWithFilter")
+    public Mono<ResponseEntity<GdnBaseResponse<List<BookResponseDTO>>>> filterBooks(
+            BookListFilterDTO filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Received reactive book search request with filter - page: {}, size: {}, fields: {}, filter: {}",
+                page, size, fields, filter);
+
+        validatePage(page, size);
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+
+        return toResponse(reactiveBookService.filterBooks(filter, (long) page * size, size, selectedFields));
+    }
+
+    @GetMapping(value = "/searchWithFilter", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<BookResponseDTO> streamFilterBooks(
+            BookListFilterDTO filter,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Received streaming book search request with filter - limit: {}, fields: {}, filter: {}",
+                limit, fields, filter);
+
+        validateLimit(limit);
+        Set<String> selectedFields = BookFieldSet.parseListing(fields);
+
+        return reactiveBookService.filterBooks(filter, 0, limit, selectedFields)
+                .doOnError(e -> log.error("Error during streaming book search with filter", e));
+    }
+
+    private Mono<ResponseEntity<GdnBaseResponse<List<BookResponseDTO>>>> toResponse(Flux<BookResponseDTO> books) {
+        return books.collectList()
+                .map(list -> {
+                    log.info("Reactive book search completed - returned {} books", list.size());
+                    GdnBaseResponse<List<BookResponseDTO>> response = GdnBaseResponse.success(list, "Books retrieved successfully", HttpStatus.OK.value());
+                    return new ResponseEntity<>(response, HttpStatus.OK);
+                })
+                .doOnError(e -> log.error("Error during reactive book search", e));
+    }
+
+    // Feeds search analytics once the result has been fully delivered; these reads are never cached.
+    private Flux<BookResponseDTO> recorded(String keyword, Flux<BookResponseDTO> books) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong count = new AtomicLong();
+            return books.doOnNext(book -> count.incrementAndGet())
+                    .doOnComplete(() -> {
+                        searchAnalytics.record(keyword, count.get());
+                        searchAnalytics.recordExecution(keyword, System.nanoTime() - start);
+                    });
+        });
+    }
+
+    private void validateKeyword(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            log.warn("Book search failed: Keyword is missing");
+            throw new IllegalArgumentException("Keyword parameter is required for search");
+        }
+    }
+
+    private void validatePage(int page, int size) {
+        if (page < 0) {
+            log.warn("Invalid page number: {}", page);
+            throw new IllegalArgumentException("Page number must be non-negative");
+        }
+        if (size <= 0 || size > 100) {
+            log.warn("Invalid page size: {}", size);
+            throw new IllegalArgumentException("Size must be between 1 and 100");
+        }
+    }
+
+    private void validateLimit(int limit) {
+        if (limit <= 0 || limit > maxStreamItems) {
+            log.warn("Invalid limit: {}", limit);
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxStreamItems);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.demo.product.controller;
+
+import com.demo.product.DTO.GdnBaseResponse;
+import com.demo.product.DTO.SearchAnalyticsDTO;
+import com.demo.product.service.SearchAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/books/search/analytics")
+public class SearchAnalyticsController {
+
+    @Autowired
+    private SearchAnalyticsService searchAnalytics;
+
+    @GetMapping
+    public ResponseEntity<GdnBaseResponse<SearchAnalyticsDTO>> getReport(@RequestParam(defaultValue = "20") int limit) {
+
+        log.info("Received search analytics request - limit: {}", limit);
+
+        if (limit <= 0 || limit > 200) {
+            log.warn("Invalid limit: {}", limit);
+            throw new IllegalArgumentException("Limit must be between 1 and 200");
+        }
+
+        SearchAnalyticsDTO report = searchAnalytics.getReport(limit);
+        GdnBaseResponse<SearchAnalyticsDTO> response = GdnBaseResponse.success(report, "Search analytics retrieved successfully", HttpStatus.OK.value());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
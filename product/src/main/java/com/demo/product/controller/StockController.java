@@ -0,0 +1,68 @@
+package com.demo.product.controller;
+
+import com.demo.product.DTO.GdnBaseResponse;
+import com.demo.product.DTO.StockReservationDTO;
+import com.demo.product.DTO.StockReservationRequestDTO;
+import com.demo.product.service.StockReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/books/stock/reservations")
+public class StockController {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @PostMapping
+    public ResponseEntity<GdnBaseResponse<StockReservationDTO>> reserve(@RequestBody StockReservationRequestDTO request) {
+        log.info("Received stock reservation request - reservationId: {}", request != null ? request.getReservationId() : "null");
+
+        if (request == null) {
+            log.warn("Stock reservation failed: Request body is missing");
+            throw new IllegalArgumentException("Request body is required");
+        }
+
+        try {
+            StockReservationDTO reservation = reservationService.reserve(request);
+            log.info("Stock reservation {} is {}", reservation.getReservationId(), reservation.getStatus());
+            GdnBaseResponse<StockReservationDTO> response = GdnBaseResponse.success(reservation, "Stock reserved successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error reserving stock for reservationId: {}", request.getReservationId(), e);
+            throw e;
+        }
+    }
+
+    @PostMapping("/{reservationId}/release")
+    public ResponseEntity<GdnBaseResponse<StockReservationDTO>> release(@PathVariable String reservationId) {
+        log.info("Received stock release request - reservationId: {}", reservationId);
+
+        try {
+            StockReservationDTO reservation = reservationService.release(reservationId);
+            GdnBaseResponse<StockReservationDTO> response = GdnBaseResponse.success(reservation, "Stock released successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error releasing stock for reservationId: {}", reservationId, e);
+            throw e;
+        }
+    }
+
+    @PostMapping("/{reservationId}/commit")
+    public ResponseEntity<GdnBaseResponse<StockReservationDTO>> commit(@PathVariable String reservationId) {
+        log.info("Received stock commit request - reservationId: {}", reservationId);
+
+        try {
+            StockReservationDTO reservation = reservationService.commit(reservationId);
+            GdnBaseResponse<StockReservationDTO> response = GdnBaseResponse.success(reservation, "Stock reservation committed successfully", HttpStatus.OK.value());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (Exception e) {
+            log.error("Error committing stock reservation: {}", reservationId, e);
+            throw e;
+        }
+    }
+}
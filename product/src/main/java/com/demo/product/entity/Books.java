@@ -2,6 +2,9 @@ package com.demo.product.entity;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.io.Serializable;
@@ -14,6 +17,16 @@ import java.util.List;
 @AllArgsConstructor
 @ToString
 @Document(collection = "books")
+@CompoundIndexes({
+        @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "rating_id", def = "{'rating': 1, '_id': 1}"),
+        @CompoundIndex(name = "format_price_id", def = "{'formatFolded': 1, 'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "format_rating_id", def = "{'formatFolded': 1, 'rating': 1, '_id': 1}"),
+        @CompoundIndex(name = "publishedDate_id", def = "{'publishedDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "discount_id", def = "{'discount': 1, '_id': 1}"),
+        @CompoundIndex(name = "format_publishedDate_id", def = "{'formatFolded': 1, 'publishedDate': 1, '_id': 1}"),
+        @CompoundIndex(name = "format_discount_id", def = "{'formatFolded': 1, 'discount': 1, '_id': 1}")
+})
 public class Books implements Serializable {
 
     @Id
@@ -33,4 +46,35 @@ public class Books implements Serializable {
     private Double mrpPrice;
     private Integer stockAvailable;
     private Double rating;
+    // mrpPrice minus price, stored so that listings can sort on it through an index.
+    private Double discount;
+
+    // Bumped on every write; together they form the book's ETag.
+    private Long revision;
+    private Date lastModified;
+
+    // Folded copies of the text filters, maintained on every save so filters can use plain indexes.
+    @Indexed
+    private String titleFolded;
+    @Indexed
+    private String authorFolded;
+    @Indexed
+    private String publisherFolded;
+    private String formatFolded;
+
+    public void refreshSearchFields() {
+        this.titleFolded = SearchText.fold(title);
+        this.authorFolded = SearchText.fold(author);
+        this.publisherFolded = SearchText.fold(publisher);
+        this.formatFolded = SearchText.fold(format);
+    }
+
+    public void refreshDiscount() {
+        this.discount = price == null || mrpPrice == null ? null : mrpPrice - price;
+    }
+
+    public void touch() {
+        this.revision = revision == null ? 1L : revision + 1;
+        this.lastModified = new Date();
+    }
 }
@@ -0,0 +1,29 @@
+package com.demo.product.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One outbox entry per catalog write; the version is dense and increasing, so
+// consumers resume from the last version they applied.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "catalog_changes")
+public class CatalogChange {
+
+    @Id
+    private Long version;
+
+    private String bookId;
+    private ChangeType type;
+    // State after the change; null for deletes.
+    private Books book;
+
+    @Indexed(name = "changedAt_ttl", expireAfterSeconds = 7 * 24 * 3600)
+    private Date changedAt;
+}
@@ -0,0 +1,8 @@
+package com.demo.product.entity;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    PRICE_CHANGED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package com.demo.product.entity;
+
+public enum ReservationStatus {
+    PENDING,
+    RESERVED,
+    COMMITTED,
+    RELEASED,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package com.demo.product.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockItem {
+    private String bookId;
+    private int quantity;
+}
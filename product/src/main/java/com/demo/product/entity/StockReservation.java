@@ -0,0 +1,31 @@
+package com.demo.product.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+// Keyed by the caller's idempotency key, so a retried reservation finds the first attempt.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "stock_reservations")
+@CompoundIndex(name = "status_expiresAt", def = "{'status': 1, 'expiresAt': 1}")
+public class StockReservation {
+
+    @Id
+    private String id;
+
+    private List<StockItem> items;
+    private ReservationStatus status;
+    private String failureReason;
+    // Set once a FAILED or RELEASED reservation's stock is back; until then the sweep retries the give-back.
+    private Boolean stockReturned;
+    private Date createdAt;
+    private Date updatedAt;
+    private Date expiresAt;
+}
@@ -0,0 +1,21 @@
+package com.demo.product.event;
+
+import com.demo.product.entity.Books;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookChangedEvent {
+    private String bookId;
+    private Books book;
+    private boolean deleted;
+
+    public static BookChangedEvent saved(Books book) {
+        return new BookChangedEvent(book.getId(), book, false);
+    }
+
+    public static BookChangedEvent deleted(String bookId) {
+        return new BookChangedEvent(bookId, null, true);
+    }
+}
@@ -0,0 +1,7 @@
+package com.demo.product.exception;
+
+public class StockConflictException extends RuntimeException {
+    public StockConflictException(String message) {
+        super(message);
+    }
+}
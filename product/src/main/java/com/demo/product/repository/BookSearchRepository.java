@@ -1,11 +1,25 @@
 package com.demo.product.repository;
 
+import com.demo.product.DTO.BookCursor;
 import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.BookSortField;
+import com.demo.product.DTO.FacetBucketDTO;
+import com.demo.product.DTO.TextMatch;
 import com.demo.product.entity.Books;
+import com.demo.product.entity.SearchText;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.data.mongodb.core.*;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.query.*;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
@@ -13,24 +27,308 @@ import java.util.*;
 @Repository
 public class BookSearchRepository {
 
+    public static final int PUBLISHER_FACET_LIMIT = 20;
+    private static final int STREAM_BATCH_SIZE = 1000;
+    public static final Object[] PRICE_BUCKETS = {0, 100, 250, 500, 1000, 2500};
+    public static final Object[] RATING_BUCKETS = {0, 1, 2, 3, 4, 5.01};
+
     @Autowired
     MongoTemplate mongoTemplate;
 
+    @Autowired
+    ReplicaReadRouter readRouter;
+
     public Page<Books> filterBooks(BookListFilterDTO filter, Pageable pageable) {
 
+        Query q = buildQuery(filter);
+
+        q.with(pageable);
+
+        MongoTemplate reads = readRouter.forRead(ReadPath.FILTER);
+        List<Books> result = reads.find(q, Books.class);
+        long total = reads.count(Query.of(q).limit(-1).skip(-1), Books.class);
+
+        return new PageImpl<>(result, pageable, total);
+    }
+
+    public List<Books> findBooks(BookListFilterDTO filter, long offset, int limit) {
+        return findBooks(filter, offset, limit, Collections.emptySet());
+    }
+
+    // An empty field set reads whole documents; otherwise only the listed fields leave the server.
+    public List<Books> findBooks(BookListFilterDTO filter, long offset, int limit, Set<String> fields) {
+
+        Query q = buildQuery(filter);
+
+        q.skip(offset).limit(limit);
+        project(q, fields);
+
+        return readRouter.forRead(ReadPath.FILTER).find(q, Books.class);
+    }
+
+    // Sorted on (field, id) so that every order is total and served by the matching compound index.
+    public List<Books> findBooks(BookListFilterDTO filter, long offset, int limit, Set<String> fields,
+                                 BookSortField sortField, Sort.Direction direction) {
+
+        Query q = buildQuery(filter);
+
+        q.with(sortBy(sortField, direction)).skip(offset).limit(limit);
+        project(q, fields);
+
+        return readRouter.forRead(ReadPath.FILTER).find(q, Books.class);
+    }
+
+    // Best books of one format (or of the whole catalog) by a sort field; books without a value are left out.
+    public List<Books> topBooks(String format, BookSortField sortField, Sort.Direction direction, int limit,
+                                Set<String> fields) {
+
+        List<Criteria> conditions = new ArrayList<>();
+        if (format != null)
+            conditions.add(Criteria.where("formatFolded").is(SearchText.fold(format)));
+        conditions.add(Criteria.where(sortField.getProperty()).ne(null));
+
+        Query q = toQuery(conditions).with(sortBy(sortField, direction)).limit(limit);
+        project(q, fields);
+
+        return readRouter.forRead(ReadPath.FILTER).find(q, Books.class);
+    }
+
+    public List<Books> findByIds(Collection<String> ids, Set<String> fields) {
+
+        Query q = new Query(Criteria.where("id").in(ids));
+        project(q, fields);
+
+        return readRouter.forRead(ReadPath.FILTER).find(q, Books.class);
+    }
+
+    public Optional<Books> findBook(String bookId) {
+        return Optional.ofNullable(readRouter.forBook(bookId).findById(bookId, Books.class));
+    }
+
+    // Conditional requests compare against what the client may just have written, so always the primary.
+    public Books findStamp(String bookId) {
+
+        Query q = new Query(Criteria.where("id").is(bookId));
+        q.fields().include("revision").include("lastModified");
+
+        return mongoTemplate.findOne(q, Books.class);
+    }
+
+    // Same precedence as the derived title/author/publisher lookups: title matches first,
+    // then author, then publisher, without repeating a book.
+    public List<Books> searchKeyword(String keyword, Set<String> fields) {
+
+        String pattern = SearchText.escapeRegex(keyword);
+        Map<String, Books> merged = new LinkedHashMap<>();
+        MongoTemplate reads = readRouter.forRead(ReadPath.SEARCH);
+
+        for (String field : new String[]{"title", "author", "publisher"}) {
+            Query q = new Query(Criteria.where(field).regex(pattern, "i"));
+            project(q, fields);
+            for (Books book : reads.find(q, Books.class)) {
+                merged.putIfAbsent(book.getId(), book);
+            }
+        }
+
+        return new ArrayList<>(merged.values());
+    }
+
+    public List<Books> filterBooksAfter(BookListFilterDTO filter, BookSortField sortField,
+                                        Sort.Direction direction, BookCursor after, int limit) {
+        return filterBooksAfter(filter, sortField, direction, after, limit, Collections.emptySet());
+    }
+
+    public List<Books> filterBooksAfter(BookListFilterDTO filter, BookSortField sortField,
+                                        Sort.Direction direction, BookCursor after, int limit, Set<String> fields) {
+
+        List<Criteria> conditions = buildConditions(filter);
+
+        if (after != null)
+            conditions.add(keysetCriteria(sortField, direction, after));
+
+        Query q = toQuery(conditions);
+
+        q.with(sortBy(sortField, direction)).limit(limit);
+
+        // The next cursor is built from the sort value, so it has to come back even if not requested.
+        if (!fields.isEmpty()) {
+            project(q, fields);
+            q.fields().include(sortField.getProperty());
+        }
+
+        return readRouter.forRead(ReadPath.FILTER).find(q, Books.class);
+    }
+
+    // Walks the filtered catalog in _id order with a server-side cursor; the caller must close it.
+    public CloseableIterator<Books> streamBooks(BookListFilterDTO filter, String afterId, Set<String> fields) {
+
+        List<Criteria> conditions = buildConditions(filter);
+
+        if (afterId != null)
+            conditions.add(Criteria.where("id").gt(afterId));
+
+        Query q = toQuery(conditions).with(Sort.by(Sort.Direction.ASC, "id"));
+        q.cursorBatchSize(STREAM_BATCH_SIZE);
+
+        project(q, fields);
+
+        return mongoTemplate.stream(q, Books.class);
+    }
+
+    public long countBooks(BookListFilterDTO filter) {
+        return readRouter.forRead(ReadPath.FILTER).count(buildQuery(filter), Books.class);
+    }
+
+    // Unfiltered listings read the collection metadata; filtered ones stop counting just past
+    // the cap and return null there, since the total is then only known to exceed it.
+    public Long estimateCount(BookListFilterDTO filter, long cap) {
+
+        List<Criteria> conditions = buildConditions(filter);
+        MongoTemplate reads = readRouter.forRead(ReadPath.FILTER);
+
+        if (conditions.isEmpty())
+            return reads.execute(Books.class, MongoCollection::estimatedDocumentCount);
+
+        long counted = reads.count(toQuery(conditions).limit((int) cap + 1), Books.class);
+        return counted > cap ? null : counted;
+    }
+
+    // Page, total and facet counts in a single $facet round trip. Facets are skipped
+    // when the caller already has them cached for this filter.
+    public FacetedBooks facetBooks(BookListFilterDTO filter, long offset, int limit, boolean withFacets) {
+        return facetBooks(filter, offset, limit, withFacets, Collections.emptySet());
+    }
+
+    public FacetedBooks facetBooks(BookListFilterDTO filter, long offset, int limit, boolean withFacets,
+                                   Set<String> fields) {
+
+        List<Criteria> conditions = buildConditions(filter);
+        Criteria match = conditions.isEmpty() ? new Criteria()
+                : new Criteria().andOperator(conditions.toArray(new Criteria[0]));
+
+        List<AggregationOperation> pageStages = new ArrayList<>();
+        pageStages.add(Aggregation.skip(offset));
+        pageStages.add(Aggregation.limit(limit));
+
+        // _id is kept by $project unless excluded, so only the other fields are listed.
+        List<String> projected = new ArrayList<>(fields);
+        projected.remove("id");
+        if (!fields.isEmpty())
+            pageStages.add(projected.isEmpty() ? Aggregation.project().andInclude(Fields.UNDERSCORE_ID)
+                    : Aggregation.project(projected.toArray(new String[0])));
+
+        FacetOperation facet = Aggregation.facet(pageStages.toArray(new AggregationOperation[0])).as("page")
+                .and(Aggregation.count().as("value")).as("total");
+
+        if (withFacets) {
+            facet = facet
+                    .and(Aggregation.sortByCount("formatFolded")).as("format")
+                    .and(Aggregation.sortByCount("publisherFolded"), Aggregation.limit(PUBLISHER_FACET_LIMIT)).as("publisher")
+                    .and(Aggregation.bucket("price").withBoundaries(PRICE_BUCKETS)
+                            .withDefaultBucket("other").andOutputCount().as("count")).as("price")
+                    .and(Aggregation.bucket("rating").withBoundaries(RATING_BUCKETS)
+                            .withDefaultBucket("unrated").andOutputCount().as("count")).as("rating");
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(Books.class, Aggregation.match(match), facet);
+        Document result = readRouter.forRead(ReadPath.FILTER).aggregate(aggregation, Books.class, Document.class).getUniqueMappedResult();
+
+        List<Books> books = new ArrayList<>();
+        long total = 0;
+        Map<String, List<FacetBucketDTO>> facets = null;
+
+        if (result != null) {
+            for (Document doc : result.getList("page", Document.class)) {
+                books.add(mongoTemplate.getConverter().read(Books.class, doc));
+            }
+            List<Document> totalDocs = result.getList("total", Document.class);
+            total = totalDocs.isEmpty() ? 0 : ((Number) totalDocs.get(0).get("value")).longValue();
+
+            if (withFacets) {
+                facets = new LinkedHashMap<>();
+                for (String name : new String[]{"format", "publisher", "price", "rating"}) {
+                    facets.put(name, toBuckets(result.getList(name, Document.class)));
+                }
+            }
+        }
+
+        return new FacetedBooks(books, total, facets);
+    }
+
+    private List<FacetBucketDTO> toBuckets(List<Document> docs) {
+        List<FacetBucketDTO> buckets = new ArrayList<>();
+        for (Document doc : docs) {
+            Object key = doc.get("_id");
+            buckets.add(new FacetBucketDTO(key == null ? "unknown" : String.valueOf(key),
+                    ((Number) doc.get("count")).longValue()));
+        }
+        return buckets;
+    }
+
+    public Document explain(BookListFilterDTO filter, Sort sort) {
+
+        Query q = buildQuery(filter).with(sort);
+        Document mappedFilter = queryMapper().getMappedObject(q.getQueryObject(), persistentEntity());
+        Document mappedSort = queryMapper().getMappedSort(q.getSortObject(), persistentEntity());
+
+        Document find = new Document("find", mongoTemplate.getCollectionName(Books.class))
+                .append("filter", mappedFilter)
+                .append("sort", mappedSort);
+
+        return mongoTemplate.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+    }
+
+    private QueryMapper queryMapper() {
+        return new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    private MongoPersistentEntity<?> persistentEntity() {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Books.class);
+    }
+
+    private Sort sortBy(BookSortField sortField, Sort.Direction direction) {
+
+        Sort sort = Sort.by(direction, sortField.getProperty());
+        if (sortField != BookSortField.ID)
+            sort = sort.and(Sort.by(direction, "id"));
+
+        return sort;
+    }
+
+    void project(Query q, Set<String> fields) {
+        for (String field : fields)
+            q.fields().include(field);
+    }
+
+    Query buildQuery(BookListFilterDTO filter) {
+        return toQuery(buildConditions(filter));
+    }
+
+    private Query toQuery(List<Criteria> conditions) {
+        Query q = new Query();
+
+        if (!conditions.isEmpty())
+            q.addCriteria(new Criteria().andOperator(conditions.toArray(new Criteria[0])));
+
+        return q;
+    }
+
+    private List<Criteria> buildConditions(BookListFilterDTO filter) {
+
         List<Criteria> conditions = new ArrayList<>();
+        TextMatch match = TextMatch.fromParam(filter.getMatch());
 
         if (filter.getTitle() != null)
-            conditions.add(Criteria.where("title").regex(filter.getTitle(), "i"));
+            conditions.add(textCriteria("titleFolded", filter.getTitle(), match));
 
         if (filter.getAuthor() != null)
-            conditions.add(Criteria.where("author").regex(filter.getAuthor(), "i"));
+            conditions.add(textCriteria("authorFolded", filter.getAuthor(), match));
 
         if (filter.getPublisher() != null)
-            conditions.add(Criteria.where("publisher").regex(filter.getPublisher(), "i"));
+            conditions.add(textCriteria("publisherFolded", filter.getPublisher(), match));
 
         if (filter.getFormat() != null)
-            conditions.add(Criteria.where("format").regex(filter.getFormat(), "i"));
+            conditions.add(textCriteria("formatFolded", filter.getFormat(), match));
 
         if (filter.getMinPrice() != null)
             conditions.add(Criteria.where("price").gte(filter.getMinPrice()));
@@ -44,16 +342,61 @@ public class BookSearchRepository {
         if (filter.getMaxRating() != null)
             conditions.add(Criteria.where("rating").lte(filter.getMaxRating()));
 
-        Query q = new Query();
+        if (filter.getMinPageCount() != null)
+            conditions.add(Criteria.where("pageCount").gte(filter.getMinPageCount()));
 
-        if (!conditions.isEmpty())
-            q.addCriteria(new Criteria().andOperator(conditions.toArray(new Criteria[0])));
+        if (filter.getMaxPageCount() != null)
+            conditions.add(Criteria.where("pageCount").lte(filter.getMaxPageCount()));
 
-        q.with(pageable);
+        if (Boolean.TRUE.equals(filter.getInStock()))
+            conditions.add(Criteria.where("stockAvailable").gt(0));
+        else if (Boolean.FALSE.equals(filter.getInStock()))
+            conditions.add(Criteria.where("stockAvailable").not().gt(0));
+
+        return conditions;
+    }
 
-        List<Books> result = mongoTemplate.find(q, Books.class);
-        long total = mongoTemplate.count(Query.of(q).limit(-1).skip(-1), Books.class);
+    // Folded fields are stored lowercase, so no case-insensitive flag is needed: exact
+    // matches are equality lookups, prefixes become tight index ranges and contains
+    // scans index keys instead of whole documents.
+    private Criteria textCriteria(String field, String value, TextMatch match) {
 
-        return new PageImpl<>(result, pageable, total);
+        String folded = SearchText.fold(value);
+
+        switch (match) {
+            case EXACT:
+                return Criteria.where(field).is(folded);
+            case PREFIX:
+                return Criteria.where(field).regex("^" + SearchText.escapeRegex(folded));
+            case CONTAINS:
+            default:
+                return Criteria.where(field).regex(SearchText.escapeRegex(folded));
+        }
+    }
+
+    // Everything strictly after the cursor in (sortField, id) order. Missing values
+    // sort lowest in Mongo, so they come first ascending and last descending.
+    private Criteria keysetCriteria(BookSortField sortField, Sort.Direction direction, BookCursor after) {
+
+        boolean asc = direction.isAscending();
+        Criteria idAfter = asc ? Criteria.where("id").gt(after.getLastId())
+                : Criteria.where("id").lt(after.getLastId());
+
+        if (sortField == BookSortField.ID)
+            return idAfter;
+
+        String field = sortField.getProperty();
+        Object value = after.getLastValue();
+
+        if (value == null) {
+            Criteria sameValue = new Criteria().andOperator(Criteria.where(field).is(null), idAfter);
+            return asc ? new Criteria().orOperator(sameValue, Criteria.where(field).ne(null)) : sameValue;
+        }
+
+        Criteria beyond = asc ? Criteria.where(field).gt(value) : Criteria.where(field).lt(value);
+        Criteria tie = new Criteria().andOperator(Criteria.where(field).is(value), idAfter);
+
+        return asc ? new Criteria().orOperator(beyond, tie)
+                : new Criteria().orOperator(beyond, tie, Criteria.where(field).is(null));
     }
 }
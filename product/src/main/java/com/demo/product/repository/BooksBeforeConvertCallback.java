@@ -0,0 +1,16 @@
+package com.demo.product.repository;
+
+import com.demo.product.entity.Books;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BooksBeforeConvertCallback implements BeforeConvertCallback<Books> {
+
+    @Override
+    public Books onBeforeConvert(Books book, String collection) {
+        book.refreshSearchFields();
+        book.refreshDiscount();
+        return book;
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.product.repository;
+
+import com.demo.product.entity.CatalogChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class CatalogChangeRepository {
+
+    static final String SEQUENCE = "catalogChanges";
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    SequenceRepository sequenceRepository;
+
+    // Reserves versions (last - count, last] in one round trip.
+    public long allocateVersions(int count) {
+        return sequenceRepository.advance(SEQUENCE, count);
+    }
+
+    public void insertAll(List<CatalogChange> changes) {
+        mongoTemplate.insertAll(changes);
+    }
+
+    public List<CatalogChange> findAfter(long since, int limit) {
+        Query query = new Query(Criteria.where("version").gt(since))
+                .with(Sort.by(Sort.Direction.ASC, "version"))
+                .limit(limit);
+        return mongoTemplate.find(query, CatalogChange.class);
+    }
+
+    // Entries after a version, leaving out ones the caller has already applied.
+    public List<CatalogChange> findAfter(long since, Collection<Long> skip, int limit) {
+        Criteria criteria = Criteria.where("version").gt(since);
+        if (!skip.isEmpty()) {
+            criteria = criteria.nin(skip);
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "version"))
+                .limit(limit);
+        return mongoTemplate.find(query, CatalogChange.class);
+    }
+
+    public long latestVersion() {
+        return boundary(Sort.Direction.DESC);
+    }
+
+    public long oldestVersion() {
+        return boundary(Sort.Direction.ASC);
+    }
+
+    private long boundary(Sort.Direction direction) {
+        Query query = new Query().with(Sort.by(direction, "version")).limit(1);
+        query.fields().include("version");
+        CatalogChange change = mongoTemplate.findOne(query, CatalogChange.class);
+        return change == null ? 0 : change.getVersion();
+    }
+}
@@ -0,0 +1,17 @@
+package com.demo.product.repository;
+
+import com.demo.product.DTO.FacetBucketDTO;
+import com.demo.product.entity.Books;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class FacetedBooks {
+    private List<Books> books;
+    private long total;
+    private Map<String, List<FacetBucketDTO>> facets;
+}
@@ -0,0 +1,63 @@
+package com.demo.product.repository;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.SearchText;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Non-blocking counterparts of the {@link BookSearchRepository} reads, with the same
+ * queries. Results are cursors pulled in batches as the subscriber requests them.
+ */
+@Repository
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+public class ReactiveBookSearchRepository {
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    BookSearchRepository searchRepository;
+
+    @Value("${product.reactive.cursor-batch-size:100}")
+    int cursorBatchSize;
+
+    public Mono<Books> findBook(String bookId) {
+        return reactiveMongoTemplate.findById(bookId, Books.class);
+    }
+
+    public Flux<Books> findBooks(BookListFilterDTO filter, long offset, int limit, Set<String> fields) {
+
+        Query q = searchRepository.buildQuery(filter);
+
+        q.skip(offset).limit(limit);
+        q.cursorBatchSize(Math.min(limit, cursorBatchSize));
+        searchRepository.project(q, fields);
+
+        return reactiveMongoTemplate.find(q, Books.class);
+    }
+
+    // Title matches first, then author, then publisher, without repeating a book; each
+    // query only starts once the previous one is drained.
+    public Flux<Books> searchKeyword(String keyword, Set<String> fields) {
+
+        String pattern = SearchText.escapeRegex(keyword);
+
+        return Flux.concat(Flux.just("title", "author", "publisher").map(field -> {
+            Query q = new Query(Criteria.where(field).regex(pattern, "i"));
+            q.cursorBatchSize(cursorBatchSize);
+            searchRepository.project(q, fields);
+            return reactiveMongoTemplate.find(q, Books.class);
+        })).distinct(Books::getId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.demo.product.repository;
+
+/**
+ * Catalog read paths that may be served by a secondary. Anything not listed here
+ * always reads from the primary.
+ */
+public enum ReadPath {
+    BOOK("book"),
+    SEARCH("search"),
+    FILTER("filter");
+
+    private final String param;
+
+    ReadPath(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.product.repository;
+
+import com.demo.product.cache.RecentWrites;
+import com.demo.product.configuration.ReplicaReadConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chooses the template for a catalog read. Paths listed in
+ * {@code product.mongo.replica.secondary-reads} go to secondaries, unless the data
+ * they read was written within the staleness window; those stay on the primary so
+ * a cache is never refilled from a node that has not seen the write yet.
+ */
+@Component
+public class ReplicaReadRouter {
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired(required = false)
+    @Qualifier(ReplicaReadConfig.SECONDARY_TEMPLATE)
+    MongoTemplate secondaryTemplate;
+
+    @Autowired
+    RecentWrites recentWrites;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${product.mongo.replica.secondary-reads:}")
+    Set<String> secondaryReads;
+
+    private final Map<ReadPath, Counter> primaryReads = new EnumMap<>(ReadPath.class);
+    private final Map<ReadPath, Counter> pinnedReads = new EnumMap<>(ReadPath.class);
+    private final Map<ReadPath, Counter> replicaReads = new EnumMap<>(ReadPath.class);
+
+    @PostConstruct
+    void registerMeters() {
+        for (ReadPath path : ReadPath.values()) {
+            primaryReads.put(path, reads(path, "primary"));
+            pinnedReads.put(path, reads(path, "pinned"));
+            replicaReads.put(path, reads(path, "secondary"));
+        }
+    }
+
+    private Counter reads(ReadPath path, String target) {
+        return Counter.builder("product.mongo.reads")
+                .description("Catalog reads by path and serving node; pinned reads stayed on the primary after a recent write")
+                .tag("path", path.getParam())
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    public MongoTemplate forBook(String bookId) {
+        return route(ReadPath.BOOK, bookId);
+    }
+
+    public MongoTemplate forRead(ReadPath path) {
+        return route(path, null);
+    }
+
+    private MongoTemplate route(ReadPath path, String bookId) {
+        if (secondaryTemplate == null || !secondaryReads.contains(path.getParam())) {
+            primaryReads.get(path).increment();
+            return mongoTemplate;
+        }
+        boolean recent = bookId == null ? recentWrites.isCatalogRecent() : recentWrites.isBookRecent(bookId);
+        if (recent) {
+            pinnedReads.get(path).increment();
+            return mongoTemplate;
+        }
+        replicaReads.get(path).increment();
+        return secondaryTemplate;
+    }
+}
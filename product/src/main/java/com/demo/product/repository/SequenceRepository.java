@@ -0,0 +1,32 @@
+package com.demo.product.repository;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SequenceRepository {
+
+    static final String COLLECTION = "counters";
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    // Atomically advances the named sequence and returns its new value, i.e. the last
+    // number of the reserved range (value - count, value].
+    public long advance(String name, long count) {
+        Document counter = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(name)),
+                new Update().inc("seq", count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                COLLECTION);
+
+        return ((Number) counter.get("seq")).longValue();
+    }
+}
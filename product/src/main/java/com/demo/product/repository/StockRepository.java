@@ -0,0 +1,122 @@
+package com.demo.product.repository;
+
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ReservationStatus;
+import com.demo.product.entity.StockReservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public class StockRepository {
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    // Ids of the reservations holding stock on a book, written together with the stock change.
+    static final String RESERVATIONS = "reservations";
+
+    // Single-document conditional decrement that tags the book with the reservation in the
+    // same write, so a take and its record can never come apart. Matches only while enough
+    // stock is left and this reservation holds none yet; null means no stock was taken.
+    public Books decrementIfAvailable(String bookId, int quantity, String reservationId) {
+        Query query = new Query(Criteria.where("id").is(bookId).and("stockAvailable").gte(quantity)
+                .and(RESERVATIONS).ne(reservationId));
+        query.fields().exclude(RESERVATIONS);
+        return mongoTemplate.findAndModify(query,
+                new Update().inc("stockAvailable", -quantity).push(RESERVATIONS, reservationId)
+                        .inc("revision", 1).set("lastModified", new Date()),
+                FindAndModifyOptions.options().returnNew(true),
+                Books.class);
+    }
+
+    // Gives back only while the book still carries the reservation's tag, so repeating it,
+    // or racing another node doing the same, returns the stock exactly once.
+    public Books increment(String bookId, int quantity, String reservationId) {
+        Query query = new Query(Criteria.where("id").is(bookId).and(RESERVATIONS).is(reservationId));
+        query.fields().exclude(RESERVATIONS);
+        return mongoTemplate.findAndModify(query,
+                new Update().inc("stockAvailable", quantity).pull(RESERVATIONS, reservationId)
+                        .inc("revision", 1).set("lastModified", new Date()),
+                FindAndModifyOptions.options().returnNew(true),
+                Books.class);
+    }
+
+    // A committed reservation keeps its stock; only the tags are dropped.
+    public void settle(String reservationId, Collection<String> bookIds) {
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("id").in(bookIds).and(RESERVATIONS).is(reservationId)),
+                new Update().pull(RESERVATIONS, reservationId),
+                Books.class);
+    }
+
+    public void insertReservation(StockReservation reservation) {
+        mongoTemplate.insert(reservation);
+    }
+
+    public StockReservation findReservation(String reservationId) {
+        return mongoTemplate.findById(reservationId, StockReservation.class);
+    }
+
+    // Moves a reservation between states only if it is still in the expected one;
+    // null means another caller got there first.
+    public StockReservation transition(String reservationId, ReservationStatus from, ReservationStatus to) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(reservationId).and("status").is(from)),
+                new Update().set("status", to).set("updatedAt", new Date()),
+                FindAndModifyOptions.options().returnNew(true),
+                StockReservation.class);
+    }
+
+    // Refreshes a reservation that is still being reserved; false once the sweep has failed it.
+    public boolean touchPending(String reservationId) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(reservationId).and("status").is(ReservationStatus.PENDING)),
+                new Update().set("updatedAt", new Date()),
+                StockReservation.class).getModifiedCount() > 0;
+    }
+
+    // False when the reservation already left PENDING, i.e. someone else owns the give-back.
+    public boolean markFailed(String reservationId, String reason) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(reservationId).and("status").is(ReservationStatus.PENDING)),
+                new Update().set("status", ReservationStatus.FAILED).set("failureReason", reason).set("updatedAt", new Date()),
+                StockReservation.class).getModifiedCount() > 0;
+    }
+
+    public List<StockReservation> findExpired(Date now, int limit) {
+        Query query = new Query(Criteria.where("status").is(ReservationStatus.RESERVED).and("expiresAt").lt(now))
+                .with(Sort.by(Sort.Direction.ASC, "expiresAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, StockReservation.class);
+    }
+
+    public void markStockReturned(String reservationId) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(reservationId)),
+                new Update().set("stockReturned", true),
+                StockReservation.class);
+    }
+
+    // Reservations whose request died part-way, and failed or released ones whose give-back
+    // never finished.
+    public List<StockReservation> findAbandoned(Date updatedBefore, int limit) {
+        Query query = new Query(new Criteria().orOperator(
+                        Criteria.where("status").is(ReservationStatus.PENDING),
+                        Criteria.where("status").in(ReservationStatus.FAILED, ReservationStatus.RELEASED)
+                                .and("stockReturned").ne(true))
+                .and("updatedAt").lt(updatedBefore))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, StockReservation.class);
+    }
+}
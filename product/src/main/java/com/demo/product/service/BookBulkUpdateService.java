@@ -0,0 +1,10 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookPatchDTO;
+import com.demo.product.DTO.BulkUpdateReportDTO;
+
+import java.util.List;
+
+public interface BookBulkUpdateService {
+    BulkUpdateReportDTO updateBooks(List<BookPatchDTO> patches);
+}
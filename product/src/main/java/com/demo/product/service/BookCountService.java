@@ -0,0 +1,10 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookListFilterDTO;
+
+public interface BookCountService {
+    long count(BookListFilterDTO filter);
+    long cachedCount(BookListFilterDTO filter);
+    // Null when the matches run past the estimate cap.
+    Long estimatedCount(BookListFilterDTO filter);
+}
@@ -0,0 +1,6 @@
+package com.demo.product.service;
+
+public interface BookIdAllocator {
+    String nextId();
+    boolean isGenerated(String id);
+}
@@ -1,14 +1,32 @@
 package com.demo.product.service;
 
+import com.demo.product.DTO.BookFacetPageDTO;
 import com.demo.product.DTO.BookListFilterDTO;
 import com.demo.product.DTO.BookRequestDTO;
 import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.BookSortField;
+import com.demo.product.DTO.BookStamp;
+import com.demo.product.DTO.CountMode;
+import com.demo.product.DTO.CursorPageDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
 
 public interface BookService {
     Page<BookResponseDTO> getBooks(BookListFilterDTO filter, int page, int size);
+    Slice<BookResponseDTO> getBooks(BookListFilterDTO filter, int page, int size, CountMode countMode, Set<String> fields);
+    Slice<BookResponseDTO> getBooks(BookListFilterDTO filter, int page, int size, CountMode countMode, Set<String> fields,
+                                    BookSortField sortField, Sort.Direction direction);
+    BookFacetPageDTO getBooksWithFacets(BookListFilterDTO filter, int page, int size, Set<String> fields);
+    CursorPageDTO<BookResponseDTO> getBooksByCursor(BookListFilterDTO filter, String cursor, BookSortField sortField,
+                                                    Sort.Direction direction, int size, boolean withTotal,
+                                                    Set<String> fields);
     Page<BookResponseDTO> search(String keyword, int page, int size);
+    Page<BookResponseDTO> search(String keyword, int page, int size, Set<String> fields);
     BookResponseDTO getBook(String bookId);
+    BookStamp getBookStamp(String bookId);
     BookResponseDTO createBook(BookRequestDTO request);
     BookResponseDTO updateBook(String bookId, BookRequestDTO request);
     void deleteBook(String bookId);
@@ -0,0 +1,17 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.CatalogChangesDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public interface CatalogChangeService {
+    <T> T inTransaction(Supplier<T> work);
+    void record(ChangeType type, String bookId, Books book);
+    void recordAll(ChangeType type, List<Books> books);
+    CatalogChangesDTO changesSince(long since, int limit);
+    CompletableFuture<CatalogChangesDTO> awaitChanges(long since, int limit, long waitMs);
+}
@@ -0,0 +1,11 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookListFilterDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+public interface CatalogExportService {
+    long exportBooks(BookListFilterDTO filter, Set<String> fields, String afterId, OutputStream out) throws IOException;
+}
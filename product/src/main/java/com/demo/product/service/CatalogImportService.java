@@ -0,0 +1,11 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.ImportFormat;
+import com.demo.product.DTO.ImportReportDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CatalogImportService {
+    ImportReportDTO importBooks(InputStream input, ImportFormat format) throws IOException;
+}
@@ -0,0 +1,14 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.BookResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+public interface ReactiveBookService {
+    Mono<BookResponseDTO> getBook(String bookId);
+    Flux<BookResponseDTO> search(String keyword, long offset, int limit, Set<String> fields);
+    Flux<BookResponseDTO> filterBooks(BookListFilterDTO filter, long offset, int limit, Set<String> fields);
+}
@@ -0,0 +1,7 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.RelatedBooksDTO;
+
+public interface RelatedBooksService {
+    RelatedBooksDTO getRelatedBooks(String bookId, int limit);
+}
@@ -0,0 +1,12 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.SearchAnalyticsDTO;
+
+import java.util.List;
+
+public interface SearchAnalyticsService {
+    void record(String keyword, long results);
+    void recordExecution(String keyword, long elapsedNanos);
+    SearchAnalyticsDTO getReport(int limit);
+    List<String> precacheCandidates(int limit);
+}
@@ -0,0 +1,11 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.StockReservationDTO;
+import com.demo.product.DTO.StockReservationRequestDTO;
+
+public interface StockReservationService {
+    StockReservationDTO reserve(StockReservationRequestDTO request);
+    StockReservationDTO release(String reservationId);
+    StockReservationDTO commit(String reservationId);
+    int releaseExpired();
+}
@@ -0,0 +1,10 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.TopList;
+
+import java.util.List;
+
+public interface TopBooksService {
+    List<BookResponseDTO> getTopBooks(TopList list, String format, int limit);
+}
@@ -0,0 +1,259 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookPatchDTO;
+import com.demo.product.DTO.BulkUpdateReportDTO;
+import com.demo.product.DTO.BulkUpdateResultDTO;
+import com.demo.product.DTO.BulkUpdateStatus;
+import com.demo.product.cache.BookCacheInvalidator;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.event.BookChangedEvent;
+import com.demo.product.service.BookBulkUpdateService;
+import com.demo.product.service.CatalogChangeService;
+import com.mongodb.BulkWriteError;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Applies price and stock patches with field-level {@code $set} in unordered bulk
+ * writes, skipping the read-validate-replace cycle of the single book update.
+ * Caches are invalidated once for the whole request.
+ */
+@Slf4j
+@Service
+public class BookBulkUpdateServiceImpl implements BookBulkUpdateService {
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    CatalogChangeService changeFeed;
+
+    @Autowired
+    BookCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Value("${product.bulk-update.batch-size:1000}")
+    int batchSize;
+
+    @Value("${product.bulk-update.max-items:20000}")
+    int maxItems;
+
+    // Above this many updated books the whole books region is cleared instead of one DEL per book.
+    @Value("${product.bulk-update.evict-limit:500}")
+    int evictLimit;
+
+    @Override
+    public BulkUpdateReportDTO updateBooks(List<BookPatchDTO> patches) {
+
+        if (patches == null || patches.isEmpty()) {
+            throw new IllegalArgumentException("At least one update is required");
+        }
+        if (patches.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " updates are allowed per request");
+        }
+
+        long start = System.currentTimeMillis();
+        BulkUpdateResultDTO[] results = new BulkUpdateResultDTO[patches.size()];
+        Set<String> seen = new HashSet<>();
+        List<String> updatedIds = new ArrayList<>();
+        Set<String> sentIds = new LinkedHashSet<>();
+        List<PendingPatch> batch = new ArrayList<>(Math.min(batchSize, patches.size()));
+
+        boolean completed = false;
+        try {
+            for (int i = 0; i < patches.size(); i++) {
+                BookPatchDTO patch = patches.get(i);
+                String error = validate(patch);
+                if (error == null && !seen.add(patch.getBookId().trim())) {
+                    error = "Duplicate bookId in request";
+                }
+                if (error != null) {
+                    results[i] = new BulkUpdateResultDTO(patch == null ? null : patch.getBookId(),
+                            BulkUpdateStatus.INVALID, error);
+                    continue;
+                }
+
+                batch.add(new PendingPatch(i, patch.getBookId().trim(), patch));
+                if (batch.size() >= batchSize) {
+                    flush(batch, results, sentIds, updatedIds);
+                }
+            }
+            if (!batch.isEmpty()) {
+                flush(batch, results, sentIds, updatedIds);
+            }
+            completed = true;
+        } finally {
+            // A failure part-way leaves the earlier batches applied, so everything sent is evicted.
+            invalidate(completed ? updatedIds : new ArrayList<>(sentIds));
+        }
+
+        BulkUpdateReportDTO report = new BulkUpdateReportDTO();
+        for (BulkUpdateResultDTO result : results) {
+            report.getResults().add(result);
+            switch (result.getStatus()) {
+                case UPDATED:
+                    report.setUpdated(report.getUpdated() + 1);
+                    break;
+                case NOT_FOUND:
+                    report.setNotFound(report.getNotFound() + 1);
+                    break;
+                default:
+                    report.setFailed(report.getFailed() + 1);
+            }
+        }
+        report.setProcessed(patches.size());
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("Bulk update finished - processed: {}, updated: {}, notFound: {}, failed: {}, elapsed: {} ms",
+                report.getProcessed(), report.getUpdated(), report.getNotFound(), report.getFailed(), report.getElapsedMs());
+        return report;
+    }
+
+    private void invalidate(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (ids.size() > evictLimit) {
+            cacheInvalidator.clearBooks();
+        } else {
+            cacheInvalidator.evictBooks(ids);
+        }
+        cacheInvalidator.invalidatePages();
+    }
+
+    private static String validate(BookPatchDTO patch) {
+        if (patch == null || patch.getBookId() == null || patch.getBookId().trim().isEmpty()) {
+            return "bookId is required";
+        }
+        if (patch.getPrice() == null && patch.getMrpPrice() == null && patch.getStockAvailable() == null) {
+            return "Nothing to update";
+        }
+        if (patch.getPrice() != null && patch.getPrice() < 0) {
+            return "Price must be non-negative";
+        }
+        if (patch.getMrpPrice() != null && patch.getMrpPrice() < 0) {
+            return "MRP price must be non-negative";
+        }
+        if (patch.getPrice() != null && patch.getMrpPrice() != null && patch.getPrice() > patch.getMrpPrice()) {
+            return "Price cannot exceed MRP price";
+        }
+        if (patch.getStockAvailable() != null && patch.getStockAvailable() < 0) {
+            return "Stock must be non-negative";
+        }
+        return null;
+    }
+
+    private void flush(List<PendingPatch> batch, BulkUpdateResultDTO[] results, Set<String> sentIds, List<String> updatedIds) {
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class);
+        for (PendingPatch pending : batch) {
+            bulk.updateOne(new Query(Criteria.where("id").is(pending.bookId)), toUpdate(pending.patch));
+            sentIds.add(pending.bookId);
+        }
+
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failedIndexes.add(error.getIndex());
+                PendingPatch pending = batch.get(error.getIndex());
+                results[pending.index] = new BulkUpdateResultDTO(pending.bookId, BulkUpdateStatus.FAILED, error.getMessage());
+            }
+        }
+
+        // The bulk result only carries a total match count, so one read of the batch tells
+        // which ids exist and supplies the post-update documents for the outbox and read models.
+        List<String> ids = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                ids.add(batch.get(i).bookId);
+            }
+        }
+        Map<String, Books> current = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Books book : mongoTemplate.find(new Query(Criteria.where("id").in(ids)), Books.class)) {
+                current.put(book.getId(), book);
+            }
+        }
+
+        List<Books> priceChanged = new ArrayList<>();
+        List<Books> stockChanged = new ArrayList<>();
+        List<Books> discountChanged = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (failedIndexes.contains(i)) {
+                continue;
+            }
+            PendingPatch pending = batch.get(i);
+            Books book = current.get(pending.bookId);
+            if (book == null) {
+                results[pending.index] = new BulkUpdateResultDTO(pending.bookId, BulkUpdateStatus.NOT_FOUND, "Book not found");
+                continue;
+            }
+            results[pending.index] = new BulkUpdateResultDTO(pending.bookId, BulkUpdateStatus.UPDATED, null);
+            updatedIds.add(pending.bookId);
+            if (pending.patch.getPrice() != null || pending.patch.getMrpPrice() != null) {
+                Double stored = book.getDiscount();
+                book.refreshDiscount();
+                if (!Objects.equals(stored, book.getDiscount())) {
+                    discountChanged.add(book);
+                }
+                priceChanged.add(book);
+            } else {
+                stockChanged.add(book);
+            }
+            eventPublisher.publishEvent(BookChangedEvent.saved(book));
+        }
+
+        // A patch may carry only one of price and MRP, so the stored discount is fixed up from the re-read.
+        if (!discountChanged.isEmpty()) {
+            BulkOperations discounts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class);
+            for (Books book : discountChanged) {
+                discounts.updateOne(new Query(Criteria.where("id").is(book.getId())),
+                        new Update().set("discount", book.getDiscount()));
+            }
+            discounts.execute();
+        }
+
+        // Bulk writes are not transactional, so the batch's outbox entries follow it.
+        changeFeed.recordAll(ChangeType.PRICE_CHANGED, priceChanged);
+        changeFeed.recordAll(ChangeType.UPDATED, stockChanged);
+
+        batch.clear();
+    }
+
+    private static Update toUpdate(BookPatchDTO patch) {
+        Update update = new Update().inc("revision", 1).set("lastModified", new Date());
+        if (patch.getPrice() != null) {
+            update.set("price", patch.getPrice());
+        }
+        if (patch.getMrpPrice() != null) {
+            update.set("mrpPrice", patch.getMrpPrice());
+        }
+        if (patch.getStockAvailable() != null) {
+            update.set("stockAvailable", patch.getStockAvailable());
+        }
+        return update;
+    }
+
+    @AllArgsConstructor
+    private static class PendingPatch {
+        final int index;
+        final String bookId;
+        final BookPatchDTO patch;
+    }
+}
@@ -0,0 +1,35 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.repository.BookSearchRepository;
+import com.demo.product.service.BookCountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BookCountServiceImpl implements BookCountService {
+
+    @Autowired
+    BookSearchRepository searchRepository;
+
+    @Value("${product.count.estimate-cap:10000}")
+    long estimateCap;
+
+    @Override
+    public long count(BookListFilterDTO filter) {
+        return searchRepository.countBooks(filter);
+    }
+
+    @Override
+    @Cacheable(value = "bookCounts", key = "@cacheKeys.count(#filter)", sync = true)
+    public long cachedCount(BookListFilterDTO filter) {
+        return searchRepository.countBooks(filter);
+    }
+
+    @Override
+    public Long estimatedCount(BookListFilterDTO filter) {
+        return searchRepository.estimateCount(filter, estimateCap);
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.repository.SequenceRepository;
+import com.demo.product.service.BookIdAllocator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands out book ids from blocks leased off a shared Mongo sequence, so a create needs
+ * no existence check and at most one round trip per block. Legacy random ids are all
+ * six digits, so sequence ids start above them at BOOK-1000001.
+ */
+@Service
+public class BookIdAllocatorImpl implements BookIdAllocator {
+
+    static final String SEQUENCE = "books";
+    static final long ID_BASE = 1_000_000L;
+
+    @Autowired
+    SequenceRepository sequenceRepository;
+
+    @Value("${product.id.block-size:100}")
+    long blockSize;
+
+    private long next = 1;
+    private long blockEnd = 0;
+
+    @Override
+    public synchronized String nextId() {
+        if (next > blockEnd) {
+            blockEnd = sequenceRepository.advance(SEQUENCE, blockSize);
+            next = blockEnd - blockSize + 1;
+        }
+        return "BOOK-" + (ID_BASE + next++);
+    }
+
+    // Whether an id falls in the sequence's range, whatever block it belongs to.
+    @Override
+    public boolean isGenerated(String id) {
+        if (id == null || !id.startsWith("BOOK-")) {
+            return false;
+        }
+        try {
+            return Long.parseLong(id.substring(5)) > ID_BASE;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
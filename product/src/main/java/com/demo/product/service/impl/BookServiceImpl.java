@@ -1,23 +1,57 @@
 package com.demo.product.service.impl;
 
+import com.demo.product.DTO.BookCursor;
+import com.demo.product.DTO.BookFacetPageDTO;
+import com.demo.product.DTO.BookFieldSet;
 import com.demo.product.DTO.BookListFilterDTO;
 import com.demo.product.DTO.BookRequestDTO;
 import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.BookSortField;
+import com.demo.product.DTO.BookStamp;
+import com.demo.product.DTO.CountMode;
+import com.demo.product.DTO.CursorPageDTO;
+import com.demo.product.DTO.FacetBucketDTO;
+import com.demo.product.cache.CacheKeys;
+import com.demo.product.cache.CatalogGeneration;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.cache.MissingBookCache;
+import com.demo.product.cache.RecentWrites;
+import com.demo.product.catalog.ColumnarCatalog;
+import com.demo.product.catalog.ColumnarResult;
+import com.demo.product.catalog.FuzzyTitleIndex;
 import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.event.BookChangedEvent;
 import com.demo.product.exception.ResourceNotFoundException;
 import com.demo.product.repository.BookSearchRepository;
 import com.demo.product.repository.BookServiceRepository;
+import com.demo.product.repository.FacetedBooks;
+import com.demo.product.service.BookCountService;
+import com.demo.product.service.BookIdAllocator;
 import com.demo.product.service.BookService;
+import com.demo.product.service.CatalogChangeService;
+import com.demo.product.service.SearchAnalyticsService;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,9 +63,60 @@ public class BookServiceImpl implements BookService {
     @Autowired
     BookSearchRepository searchRepository;
 
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    CatalogGeneration catalogGeneration;
+
+    @Autowired
+    RecentWrites recentWrites;
+
+    @Autowired
+    BookCountService countService;
+
+    @Autowired
+    BookIdAllocator idAllocator;
+
+    @Autowired
+    CacheKeys cacheKeys;
+
+    @Autowired
+    MissingBookCache missingBooks;
+
+    @Autowired
+    CatalogChangeService changeFeed;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    ColumnarCatalog columnarCatalog;
+
+    @Autowired(required = false)
+    FuzzyTitleIndex fuzzyIndex;
+
+    @Autowired
+    HotKeyTracker hotKeys;
+
+    @Autowired
+    SearchAnalyticsService searchAnalytics;
+
+    // Typo-tolerant matches are looked up only when the exact search finds fewer books than this.
+    @Value("${product.search.fuzzy.min-results:5}")
+    int fuzzyMinResults;
+
+    @Value("${product.search.fuzzy.max-results:50}")
+    int fuzzyMaxResults;
+
     @Override
+    @Cacheable(value = "bookPages", key = "@cacheKeys.filter(#filter, #page, #size)", sync = true)
     public Page<BookResponseDTO> getBooks(BookListFilterDTO filter, int page, int size) {
 
+        normalizeFilter(filter);
         Pageable pageable = PageRequest.of(page, size);
 
         Page<Books> books = searchRepository.filterBooks(filter, pageable);
@@ -40,67 +125,255 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    @Cacheable(value = "books", key = "'search:' + #keyword + ':page:' + #page + ':size:' + #size")
+    @Cacheable(value = "bookPages", key = "@cacheKeys.filter(#filter, #page, #size, #fields) + ':count:' + #countMode", sync = true)
+    public Slice<BookResponseDTO> getBooks(BookListFilterDTO filter, int page, int size, CountMode countMode,
+                                           Set<String> fields) {
+        return getBooks(filter, page, size, countMode, fields, null, null);
+    }
+
+    // A null sort field keeps the natural order, which the columnar read model can also serve.
+    @Override
+    @Cacheable(value = "bookPages", key = "@cacheKeys.filter(#filter, #page, #size, #fields) + ':count:' + #countMode"
+            + " + @cacheKeys.sort(#sortField, #direction)", sync = true)
+    public Slice<BookResponseDTO> getBooks(BookListFilterDTO filter, int page, int size, CountMode countMode,
+                                           Set<String> fields, BookSortField sortField, Sort.Direction direction) {
+
+        normalizeFilter(filter);
+        Pageable pageable = PageRequest.of(page, size);
+
+        if (sortField == null && columnarCatalog != null && columnarCatalog.canAnswer(filter)) {
+            ColumnarResult result = columnarCatalog.query(filter, pageable.getOffset(), size, false);
+            return new PageImpl<>(findAllInOrder(result.getIds(), fields), pageable, result.getTotal()).map(this::convertToDto);
+        }
+
+        if (countMode == CountMode.NONE || countMode == CountMode.ESTIMATED) {
+            List<Books> rows = findBooks(filter, pageable.getOffset(), size + 1, fields, sortField, direction);
+            boolean hasNext = rows.size() > size;
+            List<Books> content = hasNext ? rows.subList(0, size) : rows;
+            if (countMode == CountMode.NONE) {
+                return new SliceImpl<>(content, pageable, hasNext).map(this::convertToDto);
+            }
+            return estimatedPage(filter, pageable, content, hasNext).map(this::convertToDto);
+        }
+
+        List<Books> content = findBooks(filter, pageable.getOffset(), size, fields, sortField, direction);
+
+        Page<Books> books = PageableExecutionUtils.getPage(content, pageable, () ->
+                countMode == CountMode.CACHED ? countService.cachedCount(filter) : countService.count(filter));
+
+        return books.map(this::convertToDto);
+    }
+
+    @Override
+    @Cacheable(value = "bookPages", key = "@cacheKeys.filter(#filter, #page, #size, #fields) + ':facets'", sync = true)
+    @SuppressWarnings("unchecked")
+    public BookFacetPageDTO getBooksWithFacets(BookListFilterDTO filter, int page, int size, Set<String> fields) {
+
+        normalizeFilter(filter);
+
+        if (columnarCatalog != null && columnarCatalog.canAnswer(filter)) {
+            ColumnarResult result = columnarCatalog.query(filter, (long) page * size, size, true);
+            List<BookResponseDTO> content = findAllInOrder(result.getIds(), fields).stream()
+                    .map(this::convertToDto).collect(Collectors.toList());
+            int totalPages = (int) ((result.getTotal() + size - 1) / size);
+            return new BookFacetPageDTO(content, page, size, result.getTotal(), totalPages, result.getFacets());
+        }
+
+        Cache facetCache = cacheManager.getCache("bookFacets");
+        String facetKey = cacheKeys.facets(filter);
+        Cache.ValueWrapper cached = facetCache == null ? null : facetCache.get(facetKey);
+
+        FacetedBooks result = searchRepository.facetBooks(filter, (long) page * size, size, cached == null, fields);
+
+        Map<String, List<FacetBucketDTO>> facets;
+        if (cached == null) {
+            facets = result.getFacets();
+            if (facetCache != null) {
+                facetCache.put(facetKey, facets);
+            }
+        } else {
+            facets = (Map<String, List<FacetBucketDTO>>) cached.get();
+        }
+
+        List<BookResponseDTO> content = result.getBooks().stream().map(this::convertToDto).collect(Collectors.toList());
+        int totalPages = (int) ((result.getTotal() + size - 1) / size);
+        return new BookFacetPageDTO(content, page, size, result.getTotal(), totalPages, facets);
+    }
+
+    @Override
+    public CursorPageDTO<BookResponseDTO> getBooksByCursor(BookListFilterDTO filter, String cursor, BookSortField sortField,
+                                                           Sort.Direction direction, int size, boolean withTotal,
+                                                           Set<String> fields) {
+
+        normalizeFilter(filter);
+
+        BookCursor after = null;
+        if (cursor != null && !cursor.trim().isEmpty()) {
+            after = BookCursor.decode(cursor.trim());
+            if (after.getSortField() != sortField || after.getDirection() != direction) {
+                throw new IllegalArgumentException("Invalid cursor: it was issued for a different sort order");
+            }
+        }
+
+        List<Books> rows = searchRepository.filterBooksAfter(filter, sortField, direction, after, size + 1, fields);
+
+        boolean hasNext = rows.size() > size;
+        List<Books> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Books last = content.get(content.size() - 1);
+            nextCursor = new BookCursor(sortField, direction, sortField.valueOf(last), last.getId()).encode();
+        }
+
+        Long total = withTotal ? countService.cachedCount(filter) : null;
+
+        List<BookResponseDTO> dtos = content.stream().map(book -> convertToDto(book, fields)).collect(Collectors.toList());
+        return new CursorPageDTO<>(dtos, size, hasNext, nextCursor, total);
+    }
+
+    @Override
+    @Cacheable(value = "bookPages", key = "@cacheKeys.search(#keyword, #page, #size)", sync = true)
     public Page<BookResponseDTO> search(String keyword, int page, int size) {
 
+        long start = System.nanoTime();
+        String term = keyword.trim();
         List<Books> merged = new ArrayList<>();
 
-        merged.addAll(bookRepository.findByTitleContainingIgnoreCase(keyword));
-        merged.addAll(bookRepository.findByAuthorContainingIgnoreCase(keyword));
-        merged.addAll(bookRepository.findByPublisherContainingIgnoreCase(keyword));
+        merged.addAll(bookRepository.findByTitleContainingIgnoreCase(term));
+        merged.addAll(bookRepository.findByAuthorContainingIgnoreCase(term));
+        merged.addAll(bookRepository.findByPublisherContainingIgnoreCase(term));
 
         List<Books> distinct = merged.stream()
                 .distinct()
                 .collect(Collectors.toList());
 
+        Page<BookResponseDTO> result = toPage(withFuzzyMatches(term, distinct, Collections.emptySet()), page, size);
+        searchAnalytics.recordExecution(keyword, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    @Cacheable(value = "bookPages", key = "@cacheKeys.search(#keyword, #page, #size, #fields)", sync = true)
+    public Page<BookResponseDTO> search(String keyword, int page, int size, Set<String> fields) {
+
+        if (fields.isEmpty()) {
+            return search(keyword, page, size);
+        }
+
+        long start = System.nanoTime();
+        String term = keyword.trim();
+        Page<BookResponseDTO> result = toPage(withFuzzyMatches(term, searchRepository.searchKeyword(term, fields), fields), page, size);
+        searchAnalytics.recordExecution(keyword, System.nanoTime() - start);
+        return result;
+    }
+
+    // Fuzzy matches rank after every exact match, most similar (then most viewed) first.
+    private List<Books> withFuzzyMatches(String term, List<Books> exact, Set<String> fields) {
+        if (fuzzyIndex == null || !fuzzyIndex.isReady() || exact.size() >= fuzzyMinResults) {
+            return exact;
+        }
+        Set<String> seen = exact.stream().map(Books::getId).collect(Collectors.toSet());
+        List<String> ids = fuzzyIndex.search(term, fuzzyMaxResults + seen.size(), hotKeys::bookViews).stream()
+                .filter(id -> !seen.contains(id))
+                .limit(fuzzyMaxResults)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return exact;
+        }
+        List<Books> merged = new ArrayList<>(exact);
+        merged.addAll(findAllInOrder(ids, fields));
+        return merged;
+    }
+
+    private Page<BookResponseDTO> toPage(List<Books> matches, int page, int size) {
+
         Pageable pageable = PageRequest.of(page, size);
 
-        int start = Math.min((int) pageable.getOffset(), distinct.size());
-        int end = Math.min(start + pageable.getPageSize(), distinct.size());
+        int start = Math.min((int) pageable.getOffset(), matches.size());
+        int end = Math.min(start + pageable.getPageSize(), matches.size());
 
-        Page<Books> pageObj = new PageImpl<>(distinct.subList(start, end), pageable, distinct.size());
+        Page<Books> pageObj = new PageImpl<>(matches.subList(start, end), pageable, matches.size());
 
         return pageObj.map(this::convertToDto);
     }
 
     @Override
-    @Cacheable(value = "books", key = "#bookId")
+    @Cacheable(value = "books", key = "#bookId", sync = true)
     public BookResponseDTO getBook(String bookId) {
-        Books book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + bookId));
-        return convertToDto(book);
+        if (missingBooks.isMissing(bookId)) {
+            throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+        }
+        Optional<Books> book = searchRepository.findBook(bookId);
+        if (!book.isPresent()) {
+            missingBooks.markMissing(bookId);
+            throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+        }
+        return convertToDto(book.get());
+    }
+
+    // Answers conditional requests from the cached book when there is one, otherwise
+    // from a projected read, so a 304 never loads or converts the whole document.
+    @Override
+    public BookStamp getBookStamp(String bookId) {
+        Cache books = cacheManager.getCache("books");
+        BookResponseDTO cached = books == null ? null : books.get(bookId, BookResponseDTO.class);
+        if (cached != null) {
+            return BookStamp.of(cached);
+        }
+        if (missingBooks.isMissing(bookId)) {
+            throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+        }
+        Books stamp = searchRepository.findStamp(bookId);
+        if (stamp == null) {
+            missingBooks.markMissing(bookId);
+            throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+        }
+        return new BookStamp(stamp.getId(), stamp.getRevision(), stamp.getLastModified());
     }
 
     @Override
     @CachePut(value = "books", key = "#result.id")
     public BookResponseDTO createBook(BookRequestDTO request) {
-        validateBookRequest(request);
+        BookValidator.validate(request);
         
         Books book = convertToEntity(request);
-        
-        String bookId = generateBookId();
-        while (bookRepository.findById(bookId).isPresent()) {
-            bookId = generateBookId();
-        }
-        
-        book.setId(bookId);
-        Books saved = bookRepository.save(book);
+        book.setId(idAllocator.nextId());
+        book.touch();
+
+        Books saved = changeFeed.inTransaction(() -> {
+            Books inserted = bookRepository.insert(book);
+            changeFeed.record(ChangeType.CREATED, inserted.getId(), inserted);
+            return inserted;
+        });
+        missingBooks.forget(saved.getId());
+        recentWrites.markBooks(Collections.singleton(saved.getId()));
+        catalogGeneration.bump();
+        eventPublisher.publishEvent(BookChangedEvent.saved(saved));
         return convertToDto(saved);
     }
     
-    private String generateBookId() {
-        int randomNumber = new Random().nextInt(900000) + 100000;
-        return "BOOK-" + randomNumber;
-    }
-
     @Override
     @CachePut(value = "books", key = "#bookId")
     public BookResponseDTO updateBook(String bookId, BookRequestDTO request) {
         Books existingBook = bookRepository.findById(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + bookId));
-        validateBookRequest(request);
-        updateEntityFromRequest(existingBook, request);
-        Books updated = bookRepository.save(existingBook);
+        BookValidator.validate(request);
+        Double previousPrice = existingBook.getPrice();
+        Update update = applyRequest(existingBook, request);
+        ChangeType type = Objects.equals(previousPrice, existingBook.getPrice()) ? ChangeType.UPDATED : ChangeType.PRICE_CHANGED;
+        Books updated = changeFeed.inTransaction(() -> {
+            Books saved = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(bookId)), update,
+                    FindAndModifyOptions.options().returnNew(true), Books.class);
+            if (saved == null) {
+                throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+            }
+            changeFeed.record(type, bookId, saved);
+            return saved;
+        });
+        recentWrites.markBooks(Collections.singleton(bookId));
+        catalogGeneration.bump();
+        eventPublisher.publishEvent(BookChangedEvent.saved(updated));
         return convertToDto(updated);
     }
 
@@ -109,7 +382,63 @@ public class BookServiceImpl implements BookService {
     public void deleteBook(String bookId) {
         Books book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + bookId));
-        bookRepository.delete(book);
+        changeFeed.inTransaction(() -> {
+            bookRepository.delete(book);
+            changeFeed.record(ChangeType.DELETED, bookId, null);
+            return null;
+        });
+        recentWrites.markBooks(Collections.singleton(bookId));
+        catalogGeneration.bump();
+        eventPublisher.publishEvent(BookChangedEvent.deleted(bookId));
+    }
+
+    // Past the estimate cap the total is unknown, so the result falls back to a slice that
+    // only says whether a next page exists rather than reporting the cap as the total.
+    private Slice<Books> estimatedPage(BookListFilterDTO filter, Pageable pageable, List<Books> content, boolean hasNext) {
+        long seen = pageable.getOffset() + content.size();
+        if (!hasNext && !content.isEmpty()) {
+            return new PageImpl<>(content, pageable, seen);
+        }
+        Long estimate = countService.estimatedCount(filter);
+        if (estimate == null) {
+            return new SliceImpl<>(content, pageable, hasNext);
+        }
+        return new PageImpl<>(content, pageable, Math.max(estimate, hasNext ? seen + 1 : seen));
+    }
+
+    private List<Books> findBooks(BookListFilterDTO filter, long offset, int limit, Set<String> fields,
+                                  BookSortField sortField, Sort.Direction direction) {
+        if (sortField == null) {
+            return searchRepository.findBooks(filter, offset, limit, fields);
+        }
+        return searchRepository.findBooks(filter, offset, limit, fields, sortField, direction);
+    }
+
+    private List<Books> findAllInOrder(List<String> ids, Set<String> fields) {
+        Map<String, Books> byId = new HashMap<>();
+        Iterable<Books> found = fields.isEmpty() ? bookRepository.findAllById(ids) : searchRepository.findByIds(ids, fields);
+        for (Books book : found) {
+            byId.put(book.getId(), book);
+        }
+        List<Books> ordered = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Books book = byId.get(id);
+            if (book != null) ordered.add(book);
+        }
+        return ordered;
+    }
+
+    private void normalizeFilter(BookListFilterDTO filter) {
+        filter.setTitle(trimToNull(filter.getTitle()));
+        filter.setAuthor(trimToNull(filter.getAuthor()));
+        filter.setPublisher(trimToNull(filter.getPublisher()));
+        filter.setFormat(trimToNull(filter.getFormat()));
+    }
+
+    private String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
     }
 
     private BookResponseDTO convertToDto(Books book) {
@@ -118,47 +447,61 @@ public class BookServiceImpl implements BookService {
         return dto;
     }
 
+    // The sort field is read back for the next cursor even when it was not requested; drop it again.
+    private BookResponseDTO convertToDto(Books book, Set<String> fields) {
+        BookResponseDTO dto = convertToDto(book);
+        if (!fields.isEmpty()) {
+            BeanWrapper wrapper = new BeanWrapperImpl(dto);
+            for (String field : BookFieldSet.ALL_FIELDS) {
+                if (!fields.contains(field)) wrapper.setPropertyValue(field, null);
+            }
+        }
+        return dto;
+    }
+
     private Books convertToEntity(BookRequestDTO dto) {
         Books book = new Books();
         BeanUtils.copyProperties(dto, book);
         return book;
     }
 
-    private void validateBookRequest(BookRequestDTO request) {
-        if (request == null) {
-            throw new IllegalArgumentException("Request body is required");
-        }
-        if (request.getTitle() == null || request.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("Title is required and cannot be empty");
-        }
-        if (request.getAuthor() == null || request.getAuthor().trim().isEmpty()) {
-            throw new IllegalArgumentException("Author is required and cannot be empty");
-        }
-        if (request.getPrice() == null || request.getPrice() < 0) {
-            throw new IllegalArgumentException("Price is required and must be non-negative");
-        }
-        if (request.getPublisher() == null || request.getPublisher().trim().isEmpty()) {
-            throw new IllegalArgumentException("Publisher is required and cannot be empty");
-        }
-    }
+    // Only the fields the request carries are written, so stock moves and patches that land
+    // between the read and this write are not overwritten with what was read.
+    private Update applyRequest(Books book, BookRequestDTO request) {
+        Update update = new Update();
+        BeanWrapper target = new BeanWrapperImpl(book);
 
-    private void updateEntityFromRequest(Books book, BookRequestDTO request) {
-
-        book.setTitle(request.getTitle());
-        book.setAuthor(request.getAuthor());
-        book.setPrice(request.getPrice());
-        book.setPublisher(request.getPublisher());
+        set(update, target, "title", request.getTitle());
+        set(update, target, "author", request.getAuthor());
+        set(update, target, "price", request.getPrice());
+        set(update, target, "publisher", request.getPublisher());
         //Optional Parameters
-        if (request.getSubtitle() != null) book.setSubtitle(request.getSubtitle());
-        if (request.getCoAuthors() != null) book.setCoAuthors(request.getCoAuthors());
-        if (request.getDescription() != null) book.setDescription(request.getDescription());
-        if (request.getPublishedDate() != null) book.setPublishedDate(request.getPublishedDate());
-        if (request.getEdition() != null) book.setEdition(request.getEdition());
-        if (request.getPageCount() != null) book.setPageCount(request.getPageCount());
-        if (request.getFormat() != null) book.setFormat(request.getFormat());
-        if (request.getMrpPrice() != null) book.setMrpPrice(request.getMrpPrice());
-        if (request.getStockAvailable() != null) book.setStockAvailable(request.getStockAvailable());
-        if (request.getRating() != null) book.setRating(request.getRating());
+        if (request.getSubtitle() != null) set(update, target, "subtitle", request.getSubtitle());
+        if (request.getCoAuthors() != null) set(update, target, "coAuthors", request.getCoAuthors());
+        if (request.getDescription() != null) set(update, target, "description", request.getDescription());
+        if (request.getPublishedDate() != null) set(update, target, "publishedDate", request.getPublishedDate());
+        if (request.getEdition() != null) set(update, target, "edition", request.getEdition());
+        if (request.getPageCount() != null) set(update, target, "pageCount", request.getPageCount());
+        if (request.getFormat() != null) set(update, target, "format", request.getFormat());
+        if (request.getMrpPrice() != null) set(update, target, "mrpPrice", request.getMrpPrice());
+        if (request.getStockAvailable() != null) set(update, target, "stockAvailable", request.getStockAvailable());
+        if (request.getRating() != null) set(update, target, "rating", request.getRating());
+
+        book.refreshSearchFields();
+        book.refreshDiscount();
+        book.touch();
+        update.set("titleFolded", book.getTitleFolded())
+                .set("authorFolded", book.getAuthorFolded())
+                .set("publisherFolded", book.getPublisherFolded())
+                .set("discount", book.getDiscount())
+                .inc("revision", 1)
+                .set("lastModified", book.getLastModified());
+        if (request.getFormat() != null) update.set("formatFolded", book.getFormatFolded());
+        return update;
     }
-}
 
+    private static void set(Update update, BeanWrapper book, String field, Object value) {
+        book.setPropertyValue(field, value);
+        update.set(field, value);
+    }
+}
@@ -0,0 +1,27 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookRequestDTO;
+
+final class BookValidator {
+
+    private BookValidator() {
+    }
+
+    static void validate(BookRequestDTO request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request body is required");
+        }
+        if (request.getTitle() == null || request.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Title is required and cannot be empty");
+        }
+        if (request.getAuthor() == null || request.getAuthor().trim().isEmpty()) {
+            throw new IllegalArgumentException("Author is required and cannot be empty");
+        }
+        if (request.getPrice() == null || request.getPrice() < 0) {
+            throw new IllegalArgumentException("Price is required and must be non-negative");
+        }
+        if (request.getPublisher() == null || request.getPublisher().trim().isEmpty()) {
+            throw new IllegalArgumentException("Publisher is required and cannot be empty");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.CatalogChangeDTO;
+import com.demo.product.DTO.CatalogChangesDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.CatalogChange;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.repository.CatalogChangeRepository;
+import com.demo.product.service.CatalogChangeService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Outbox of catalog writes plus the delta feed served from it. With a Mongo
+ * transaction manager configured the book write and its outbox entry commit
+ * together (the version is allocated outside the transaction); without one the
+ * entry is written right after the book.
+ */
+@Slf4j
+@Service
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+    @Autowired
+    CatalogChangeRepository changeRepository;
+
+    @Autowired(required = false)
+    MongoTransactionManager transactionManager;
+
+    @Value("${product.changes.settle-ms:2000}")
+    long settleMs;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public <T> T inTransaction(Supplier<T> work) {
+        if (transactionManager == null) {
+            return work.get();
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    @Override
+    public void record(ChangeType type, String bookId, Books book) {
+        long version = allocateVersions(1);
+        changeRepository.insertAll(Collections.singletonList(change(version, type, bookId, book)));
+    }
+
+    @Override
+    public void recordAll(ChangeType type, List<Books> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        long version = allocateVersions(books.size()) - books.size();
+        List<CatalogChange> changes = new ArrayList<>(books.size());
+        for (Books book : books) {
+            changes.add(change(++version, type, book.getId(), book));
+        }
+        changeRepository.insertAll(changes);
+    }
+
+    // The counter is a single hot document: incremented inside the caller's transaction it
+    // would write-conflict every concurrent catalog write. Taken outside it, an aborted write
+    // only leaves a gap in the sequence, which the settle window below already skips.
+    private long allocateVersions(int count) {
+        if (transactionManager == null) {
+            return changeRepository.allocateVersions(count);
+        }
+        TransactionTemplate outside = new TransactionTemplate(transactionManager);
+        outside.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        Long version = outside.execute(status -> changeRepository.allocateVersions(count));
+        return version == null ? 0L : version;
+    }
+
+    // Versions are allocated before their entries commit, so a hole in the sequence may
+    // be a write still in flight. Entries after a recent hole are held back until it
+    // fills or the settle window passes (the write failed and the version is skipped).
+    @Override
+    public CatalogChangesDTO changesSince(long since, int limit) {
+        List<CatalogChange> rows = changeRepository.findAfter(since, limit);
+        long now = System.currentTimeMillis();
+
+        List<CatalogChangeDTO> served = new ArrayList<>(rows.size());
+        long expected = since + 1;
+        for (CatalogChange row : rows) {
+            if (row.getVersion() != expected && now - row.getChangedAt().getTime() < settleMs) {
+                break;
+            }
+            served.add(toDto(row));
+            expected = row.getVersion() + 1;
+        }
+
+        boolean resync = since > 0 && !rows.isEmpty() && rows.get(0).getVersion() > since + 1
+                && changeRepository.oldestVersion() > since + 1;
+        long nextSince = served.isEmpty() ? since : served.get(served.size() - 1).getVersion();
+        boolean hasMore = served.size() < rows.size() || rows.size() == limit;
+
+        return new CatalogChangesDTO(served, nextSince, hasMore, resync,
+                resync ? changeRepository.latestVersion() : null);
+    }
+
+    @Override
+    public CompletableFuture<CatalogChangesDTO> awaitChanges(long since, int limit, long waitMs) {
+        CatalogChangesDTO current = changesSince(since, limit);
+        if (!current.getChanges().isEmpty() || current.isResyncRequired() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(current);
+        }
+        Waiter waiter = new Waiter(since, limit, System.currentTimeMillis() + waitMs, new CompletableFuture<>());
+        waiters.add(waiter);
+        return waiter.result;
+    }
+
+    // Writes from every node land in the same collection, so one cheap "latest version"
+    // read per tick decides whether any parked long-poll needs to look further.
+    @Scheduled(fixedDelayString = "${product.changes.poll-ms:500}")
+    public void wakeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        long latest = changeRepository.latestVersion();
+        long now = System.currentTimeMillis();
+
+        for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+            Waiter waiter = it.next();
+            if (waiter.result.isDone()) {
+                it.remove();
+                continue;
+            }
+            try {
+                if (latest > waiter.since || now >= waiter.deadline) {
+                    CatalogChangesDTO changes = changesSince(waiter.since, waiter.limit);
+                    if (!changes.getChanges().isEmpty() || now >= waiter.deadline) {
+                        waiter.result.complete(changes);
+                        it.remove();
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Cannot read catalog changes for a waiting consumer", e);
+                waiter.result.completeExceptionally(e);
+                it.remove();
+            }
+        }
+    }
+
+    private CatalogChange change(long version, ChangeType type, String bookId, Books book) {
+        return CatalogChange.builder()
+                .version(version)
+                .bookId(bookId)
+                .type(type)
+                .book(book)
+                .changedAt(new Date())
+                .build();
+    }
+
+    private CatalogChangeDTO toDto(CatalogChange change) {
+        BookResponseDTO book = null;
+        if (change.getBook() != null) {
+            book = new BookResponseDTO();
+            BeanUtils.copyProperties(change.getBook(), book);
+        }
+        return new CatalogChangeDTO(change.getVersion(), change.getBookId(), change.getType().name(),
+                change.getChangedAt(), book);
+    }
+
+    @AllArgsConstructor
+    private static class Waiter {
+        final long since;
+        final int limit;
+        final long deadline;
+        final CompletableFuture<CatalogChangesDTO> result;
+    }
+}
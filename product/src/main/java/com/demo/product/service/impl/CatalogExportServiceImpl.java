@@ -0,0 +1,64 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.repository.BookSearchRepository;
+import com.demo.product.service.CatalogExportService;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+@Service
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    @Autowired
+    BookSearchRepository searchRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    // One document in memory at a time: cursor row -> DTO -> NDJSON line on the response stream.
+    @Override
+    public long exportBooks(BookListFilterDTO filter, Set<String> fields, String afterId, OutputStream out) throws IOException {
+
+        ObjectWriter writer = objectMapper.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writerFor(BookResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long written = 0;
+        JsonGenerator generator = writer.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        try (CloseableIterator<Books> books = searchRepository.streamBooks(filter, afterId, fields)) {
+            while (books.hasNext()) {
+                BookResponseDTO dto = new BookResponseDTO();
+                BeanUtils.copyProperties(books.next(), dto);
+
+                writer.writeValue(generator, dto);
+                generator.writeRaw('\n');
+
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        } finally {
+            generator.close();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,348 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookImportRowDTO;
+import com.demo.product.DTO.ImportErrorDTO;
+import com.demo.product.DTO.ImportFormat;
+import com.demo.product.DTO.ImportReportDTO;
+import com.demo.product.cache.BookCacheInvalidator;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.event.BookChangedEvent;
+import com.demo.product.service.BookIdAllocator;
+import com.demo.product.service.CatalogChangeService;
+import com.demo.product.service.CatalogImportService;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mongodb.BulkWriteError;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams NDJSON or CSV rows into the catalog in fixed-size unordered bulk writes.
+ * Rows are pulled from the input only after the previous batch is written, so a
+ * slow database throttles the reader instead of buffering the whole upload.
+ */
+@Slf4j
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    MongoTemplate mongoTemplate;
+
+    @Autowired
+    BookIdAllocator idAllocator;
+
+    @Autowired
+    CatalogChangeService changeFeed;
+
+    @Autowired
+    BookCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${product.import.batch-size:1000}")
+    int batchSize;
+
+    @Override
+    public ImportReportDTO importBooks(InputStream input, ImportFormat format) throws IOException {
+
+        long start = System.currentTimeMillis();
+        ImportReportDTO report = new ImportReportDTO();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        Written written = new Written();
+
+        try (RowSource rows = format == ImportFormat.CSV ? new CsvRows(input) : new NdjsonRows(input)) {
+            ParsedRow parsed;
+            while ((parsed = rows.next()) != null) {
+                report.setProcessed(report.getProcessed() + 1);
+
+                if (parsed.error != null) {
+                    recordError(report, parsed.line, null, parsed.error);
+                    continue;
+                }
+
+                try {
+                    BookValidator.validate(parsed.row);
+                } catch (IllegalArgumentException e) {
+                    recordError(report, parsed.line, parsed.row.getId(), e.getMessage());
+                    continue;
+                }
+
+                batch.add(toPendingRow(parsed));
+                if (batch.size() >= batchSize) {
+                    flush(batch, report, written);
+                    logProgress(report, start);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch, report, written);
+            }
+        } finally {
+            // One invalidation for the whole import instead of one per row; it also runs when
+            // the upload or a write breaks off, since what was sent so far may be in Mongo.
+            invalidate(written);
+        }
+
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        report.setRowsPerSecond(report.getProcessed() * 1000 / Math.max(1, report.getElapsedMs()));
+        log.info("Catalog import finished - processed: {}, inserted: {}, upserted: {}, failed: {}, elapsed: {} ms",
+                report.getProcessed(), report.getInserted(), report.getUpserted(), report.getFailed(), report.getElapsedMs());
+        return report;
+    }
+
+    private void invalidate(Written written) {
+        if (written.any) {
+            cacheInvalidator.invalidatePages();
+            cacheInvalidator.clearMisses();
+        }
+        if (written.replaced) {
+            cacheInvalidator.clearBooks();
+        }
+    }
+
+    private PendingRow toPendingRow(ParsedRow parsed) {
+        Books book = new Books();
+        BeanUtils.copyProperties(parsed.row, book);
+
+        boolean upsert = book.getId() != null && !book.getId().trim().isEmpty();
+        book.setId(upsert ? book.getId().trim() : idAllocator.nextId());
+        book.refreshSearchFields();
+        book.refreshDiscount();
+        // Replacing drops the stored revision; the new lastModified still changes the ETag.
+        book.touch();
+
+        return new PendingRow(parsed.line, book, upsert);
+    }
+
+    private void flush(List<PendingRow> batch, ImportReportDTO report, Written written) {
+
+        rejectUnissuedIds(batch, report);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class);
+        for (PendingRow row : batch) {
+            if (row.upsert) {
+                // Also drops stock-reservation tags: the imported stock level supersedes open holds.
+                bulk.replaceOne(new Query(Criteria.where("id").is(row.book.getId())), row.book,
+                        FindAndReplaceOptions.options().upsert());
+            } else {
+                bulk.insert(row.book);
+            }
+        }
+
+        written.any = true;
+        written.replaced |= batch.stream().anyMatch(row -> row.upsert);
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failedIndexes.add(error.getIndex());
+                PendingRow row = batch.get(error.getIndex());
+                recordError(report, row.line, row.book.getId(), error.getMessage());
+            }
+        }
+
+        List<Books> created = new ArrayList<>();
+        List<Books> upserted = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (failedIndexes.contains(i)) {
+                continue;
+            }
+            PendingRow row = batch.get(i);
+            if (row.upsert) {
+                report.setUpserted(report.getUpserted() + 1);
+                upserted.add(row.book);
+            } else {
+                report.setInserted(report.getInserted() + 1);
+                created.add(row.book);
+            }
+            eventPublisher.publishEvent(BookChangedEvent.saved(row.book));
+        }
+
+        // Bulk writes are not transactional, so the batch's outbox entries follow it.
+        changeFeed.recordAll(ChangeType.CREATED, created);
+        changeFeed.recordAll(ChangeType.UPDATED, upserted);
+
+        batch.clear();
+    }
+
+    // An id from the allocator's range may only replace a book that already has it: a new one
+    // could sit in a block some instance has leased and will hand out to createBook later.
+    private void rejectUnissuedIds(List<PendingRow> batch, ImportReportDTO report) {
+        Set<String> generated = new HashSet<>();
+        for (PendingRow row : batch) {
+            if (row.upsert && idAllocator.isGenerated(row.book.getId())) {
+                generated.add(row.book.getId());
+            }
+        }
+        if (generated.isEmpty()) {
+            return;
+        }
+
+        Query query = new Query(Criteria.where("id").in(generated));
+        query.fields().include("id");
+        Set<String> existing = new HashSet<>();
+        for (Books book : mongoTemplate.find(query, Books.class)) {
+            existing.add(book.getId());
+        }
+
+        for (Iterator<PendingRow> it = batch.iterator(); it.hasNext(); ) {
+            PendingRow row = it.next();
+            if (generated.contains(row.book.getId()) && !existing.contains(row.book.getId())) {
+                recordError(report, row.line, row.book.getId(),
+                        "Id is reserved for generated ids; leave it empty to create a new book");
+                it.remove();
+            }
+        }
+    }
+
+    private void recordError(ImportReportDTO report, long line, String bookId, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportErrorDTO(line, bookId, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private void logProgress(ImportReportDTO report, long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        log.info("Catalog import progress - processed: {}, written: {}, failed: {}, rows/s: {}",
+                report.getProcessed(), report.getInserted() + report.getUpserted(), report.getFailed(),
+                report.getProcessed() * 1000 / elapsed);
+    }
+
+    // Whether any batch went to Mongo, and whether any of it replaced existing books.
+    private static class Written {
+        boolean any;
+        boolean replaced;
+    }
+
+    @AllArgsConstructor
+    private static class PendingRow {
+        final long line;
+        final Books book;
+        final boolean upsert;
+    }
+
+    @AllArgsConstructor
+    private static class ParsedRow {
+        final long line;
+        final BookImportRowDTO row;
+        final String error;
+    }
+
+    private interface RowSource extends Closeable {
+        ParsedRow next() throws IOException;
+    }
+
+    private class NdjsonRows implements RowSource {
+
+        private final BufferedReader reader;
+        private final ObjectReader rowReader = objectMapper.readerFor(BookImportRowDTO.class);
+        private long line;
+
+        NdjsonRows(InputStream input) {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(line, rowReader.readValue(text), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(line, null, "Malformed row: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class CsvRows implements RowSource {
+
+        private final MappingIterator<BookImportRowDTO> iterator;
+        private boolean broken;
+
+        CsvRows(InputStream input) throws IOException {
+            CsvMapper mapper = new CsvMapper();
+            mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            CsvSchema schema = CsvSchema.emptySchema().withHeader().withArrayElementSeparator(";");
+            this.iterator = mapper.readerFor(BookImportRowDTO.class).with(schema)
+                    .readValues(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            if (broken) {
+                return null;
+            }
+            try {
+                if (!iterator.hasNextValue()) {
+                    return null;
+                }
+                long line = iterator.getCurrentLocation().getLineNr();
+                return new ParsedRow(line, iterator.nextValue(), null);
+            } catch (JsonParseException e) {
+                // The CSV structure itself is broken; nothing after this point can be trusted.
+                broken = true;
+                return new ParsedRow(e.getLocation() == null ? 0 : e.getLocation().getLineNr(), null,
+                        "Malformed CSV, import stopped: " + e.getOriginalMessage());
+            } catch (JsonMappingException e) {
+                return new ParsedRow(e.getLocation() == null ? 0 : e.getLocation().getLineNr(), null,
+                        "Invalid row: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.cache.CacheEnvelope;
+import com.demo.product.configuration.ReactiveReadConfig;
+import com.demo.product.entity.Books;
+import com.demo.product.exception.ResourceNotFoundException;
+import com.demo.product.repository.ReactiveBookSearchRepository;
+import com.demo.product.service.ReactiveBookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Non-blocking reads for the book endpoints. Single books go through the same Redis
+ * entries as {@link BookServiceImpl#getBook}: one MGET checks the cached book and the
+ * not-found marker, and a Mongo load fills them in. Listings are streamed straight
+ * from Mongo cursors and are not cached, so nothing holds a full page in memory.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    static final String BOOKS = "books::";
+    static final String MISSES = "bookMisses::";
+
+    @Autowired
+    ReactiveBookSearchRepository searchRepository;
+
+    @Autowired
+    @Qualifier(ReactiveReadConfig.CACHE_TEMPLATE)
+    ReactiveRedisTemplate<String, Object> cacheTemplate;
+
+    @Value("${product.cache.books.ttl-ms:600000}")
+    long booksTtlMs;
+
+    @Value("${product.cache.misses.ttl-ms:60000}")
+    long missesTtlMs;
+
+    @Override
+    public Mono<BookResponseDTO> getBook(String bookId) {
+        return cacheTemplate.opsForValue().multiGet(Arrays.asList(BOOKS + bookId, MISSES + bookId))
+                .onErrorResume(e -> {
+                    log.warn("Cannot read cache for bookId: {}, loading from Mongo", bookId, e);
+                    return Mono.just(Arrays.asList(null, null));
+                })
+                .flatMap(cached -> {
+                    BookResponseDTO hit = unwrap(cached.get(0));
+                    if (hit != null) {
+                        return Mono.just(hit);
+                    }
+                    if (cached.get(1) != null) {
+                        return Mono.error(notFound(bookId));
+                    }
+                    return load(bookId);
+                });
+    }
+
+    @Override
+    public Flux<BookResponseDTO> search(String keyword, long offset, int limit, Set<String> fields) {
+        return searchRepository.searchKeyword(keyword.trim(), fields)
+                .skip(offset)
+                .take(limit)
+                .map(this::convertToDto);
+    }
+
+    @Override
+    public Flux<BookResponseDTO> filterBooks(BookListFilterDTO filter, long offset, int limit, Set<String> fields) {
+        filter.setTitle(trimToNull(filter.getTitle()));
+        filter.setAuthor(trimToNull(filter.getAuthor()));
+        filter.setPublisher(trimToNull(filter.getPublisher()));
+        filter.setFormat(trimToNull(filter.getFormat()));
+        return searchRepository.findBooks(filter, offset, limit, fields).map(this::convertToDto);
+    }
+
+    private Mono<BookResponseDTO> load(String bookId) {
+        return Mono.defer(() -> {
+            long start = System.currentTimeMillis();
+            return searchRepository.findBook(bookId)
+                    .map(this::convertToDto)
+                    .flatMap(book -> fill(bookId, book, System.currentTimeMillis() - start))
+                    .switchIfEmpty(Mono.defer(() -> markMissing(bookId)));
+        });
+    }
+
+    // Written as the stampede-protected region stores it, so both paths share the entry.
+    private Mono<BookResponseDTO> fill(String bookId, BookResponseDTO book, long computeMs) {
+        CacheEnvelope envelope = new CacheEnvelope(book, Math.max(1, computeMs), System.currentTimeMillis() + booksTtlMs);
+        return cacheTemplate.opsForValue().set(BOOKS + bookId, envelope, Duration.ofMillis(booksTtlMs))
+                .onErrorResume(e -> {
+                    log.warn("Cannot cache bookId: {}", bookId, e);
+                    return Mono.just(false);
+                })
+                .thenReturn(book);
+    }
+
+    private Mono<BookResponseDTO> markMissing(String bookId) {
+        return cacheTemplate.opsForValue().set(MISSES + bookId, Boolean.TRUE, Duration.ofMillis(missesTtlMs))
+                .onErrorResume(e -> Mono.just(false))
+                .then(Mono.error(notFound(bookId)));
+    }
+
+    private static BookResponseDTO unwrap(Object cached) {
+        Object value = cached instanceof CacheEnvelope ? ((CacheEnvelope) cached).getValue() : cached;
+        return value instanceof BookResponseDTO ? (BookResponseDTO) value : null;
+    }
+
+    private static ResourceNotFoundException notFound(String bookId) {
+        return new ResourceNotFoundException("Book not found with ID: " + bookId);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private BookResponseDTO convertToDto(Books book) {
+        BookResponseDTO dto = new BookResponseDTO();
+        BeanUtils.copyProperties(book, dto);
+        return dto;
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.RelatedBooksDTO;
+import com.demo.product.catalog.RelatedBooksIndex;
+import com.demo.product.exception.ResourceNotFoundException;
+import com.demo.product.service.BookService;
+import com.demo.product.service.RelatedBooksService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class RelatedBooksServiceImpl implements RelatedBooksService {
+
+    @Autowired(required = false)
+    RelatedBooksIndex relatedIndex;
+
+    @Autowired
+    BookService bookService;
+
+    @Override
+    public RelatedBooksDTO getRelatedBooks(String bookId, int limit) {
+        if (relatedIndex != null && relatedIndex.isReady()) {
+            RelatedBooksDTO related = relatedIndex.related(bookId, limit);
+            if (related == null) {
+                throw new ResourceNotFoundException("Book not found with ID: " + bookId);
+            }
+            return related;
+        }
+
+        // Until the index is loaded the page still renders, just without rails.
+        log.debug("Related books index unavailable, returning empty rails for bookId: {}", bookId);
+        bookService.getBook(bookId);
+        RelatedBooksDTO empty = new RelatedBooksDTO();
+        empty.setBookId(bookId);
+        return empty;
+    }
+}
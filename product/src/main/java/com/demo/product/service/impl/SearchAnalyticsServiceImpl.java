@@ -0,0 +1,146 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.QueryLatencyDTO;
+import com.demo.product.DTO.QueryStatDTO;
+import com.demo.product.DTO.SearchAnalyticsDTO;
+import com.demo.product.cache.CacheKeys;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.service.SearchAnalyticsService;
+import com.demo.product.sketch.HeavyHitters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * In-process search analytics in bounded memory. Query popularity comes from the
+ * {@link HotKeyTracker} that already counts every search; two heavy-hitter sketches
+ * add zero-result queries and milliseconds spent per executed query, and latency
+ * percentiles per query class come from Micrometer timers over executions only.
+ * {@code CacheWarmer} re-caches the costliest queries after catalog changes.
+ */
+@Service
+public class SearchAnalyticsServiceImpl implements SearchAnalyticsService {
+
+    static final String[] QUERY_CLASSES = {"short", "word", "phrase"};
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    HotKeyTracker hotKeys;
+
+    @Value("${product.search.analytics.capacity:200}")
+    int capacity;
+
+    private HeavyHitters zeroResults;
+    private HeavyHitters timeSpent;
+    private final Map<String, Timer> latency = new HashMap<>();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder zeroResultSearches = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        int width = Math.max(1024, capacity * 16);
+        zeroResults = new HeavyHitters(capacity, 4, width);
+        timeSpent = new HeavyHitters(capacity, 4, width);
+        for (String queryClass : QUERY_CLASSES) {
+            latency.put(queryClass, Timer.builder("product.search.latency")
+                    .description("Keyword search latency by query shape")
+                    .tag("class", queryClass)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    static String classify(String query) {
+        if (query.length() < 3) {
+            return "short";
+        }
+        return query.indexOf(' ') < 0 ? "word" : "phrase";
+    }
+
+    @Override
+    public void record(String keyword, long results) {
+        String query = CacheKeys.normalize(keyword);
+        if (query.isEmpty()) {
+            return;
+        }
+        searches.increment();
+        if (results == 0) {
+            zeroResultSearches.increment();
+            zeroResults.record(query);
+        }
+    }
+
+    // Called where the search actually runs, so cache hits do not dilute latency or cost.
+    @Override
+    public void recordExecution(String keyword, long elapsedNanos) {
+        String query = CacheKeys.normalize(keyword);
+        if (query.isEmpty()) {
+            return;
+        }
+        timeSpent.record(query, Math.max(1, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+        latency.get(classify(query)).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public SearchAnalyticsDTO getReport(int limit) {
+        SearchAnalyticsDTO report = new SearchAnalyticsDTO();
+        report.setSearches(searches.sum());
+        report.setZeroResultSearches(zeroResultSearches.sum());
+        report.setTopQueries(toStats(hotKeys.topSearches(limit)));
+        report.setZeroResultQueries(toStats(zeroResults.top(limit)));
+        report.setCostliestQueries(toStats(timeSpent.top(limit)));
+        for (String queryClass : QUERY_CLASSES) {
+            report.getLatencyByClass().add(toLatency(queryClass, latency.get(queryClass).takeSnapshot()));
+        }
+        return report;
+    }
+
+    @Override
+    public List<String> precacheCandidates(int limit) {
+        return timeSpent.top(limit).stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    // Halving keeps the rankings on recent traffic instead of all-time totals.
+    @Scheduled(fixedDelayString = "${product.search.analytics.decay-interval-ms:600000}",
+            initialDelayString = "${product.search.analytics.decay-interval-ms:600000}")
+    public void decay() {
+        zeroResults.decay();
+        timeSpent.decay();
+    }
+
+    private static List<QueryStatDTO> toStats(List<Map.Entry<String, Long>> entries) {
+        return entries.stream().map(e -> new QueryStatDTO(e.getKey(), e.getValue())).collect(Collectors.toList());
+    }
+
+    private static QueryLatencyDTO toLatency(String queryClass, HistogramSnapshot snapshot) {
+        QueryLatencyDTO dto = new QueryLatencyDTO();
+        dto.setQueryClass(queryClass);
+        dto.setCount(snapshot.count());
+        dto.setMeanMs(snapshot.mean(TimeUnit.MILLISECONDS));
+        dto.setMaxMs(snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            double ms = value.value(TimeUnit.MILLISECONDS);
+            if (value.percentile() == 0.5) {
+                dto.setP50Ms(ms);
+            } else if (value.percentile() == 0.95) {
+                dto.setP95Ms(ms);
+            } else if (value.percentile() == 0.99) {
+                dto.setP99Ms(ms);
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,295 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.StockItemDTO;
+import com.demo.product.DTO.StockReservationDTO;
+import com.demo.product.DTO.StockReservationRequestDTO;
+import com.demo.product.cache.BookCacheInvalidator;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.entity.ReservationStatus;
+import com.demo.product.entity.StockItem;
+import com.demo.product.entity.StockReservation;
+import com.demo.product.event.BookChangedEvent;
+import com.demo.product.exception.ResourceNotFoundException;
+import com.demo.product.exception.StockConflictException;
+import com.demo.product.repository.BookServiceRepository;
+import com.demo.product.repository.StockRepository;
+import com.demo.product.service.CatalogChangeService;
+import com.demo.product.service.StockReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reservations decrement stock item by item with conditional updates and undo
+ * the items already taken if a later one is short, so no locks or transactions
+ * are needed. The reservation document is written first and keyed by the
+ * caller's idempotency key, which makes retries return the original outcome.
+ * Every decrement tags the book with the reservation id in the same write and
+ * every give-back removes the tag in the same write, so unwinding is idempotent
+ * and the expiry sweep can finish the job for a request that died part-way.
+ */
+@Slf4j
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    static final int MAX_ITEMS = 100;
+    private static final int EXPIRY_BATCH = 100;
+
+    @Autowired
+    StockRepository stockRepository;
+
+    @Autowired
+    BookServiceRepository bookRepository;
+
+    @Autowired
+    BookCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    CatalogChangeService changeFeed;
+
+    @Value("${product.stock.reservation-ttl-ms:900000}")
+    long reservationTtlMs;
+
+    // A reserve call that has not finished within this long is assumed dead.
+    @Value("${product.stock.pending-timeout-ms:60000}")
+    long pendingTimeoutMs;
+
+    @Override
+    public StockReservationDTO reserve(StockReservationRequestDTO request) {
+        List<StockItem> items = validate(request);
+        String reservationId = request.getReservationId().trim();
+
+        Date now = new Date();
+        StockReservation reservation = StockReservation.builder()
+                .id(reservationId)
+                .items(items)
+                .status(ReservationStatus.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .expiresAt(new Date(now.getTime() + reservationTtlMs))
+                .build();
+
+        try {
+            stockRepository.insertReservation(reservation);
+        } catch (DuplicateKeyException e) {
+            return replay(reservationId, items);
+        }
+
+        List<Books> changed = new ArrayList<>();
+        String failure = null;
+        try {
+            for (StockItem item : items) {
+                if (!stockRepository.touchPending(reservationId)) {
+                    failure = abandonedMessage(reservationId);
+                    break;
+                }
+                Books updated = stockRepository.decrementIfAvailable(item.getBookId(), item.getQuantity(), reservationId);
+                if (updated == null) {
+                    failure = bookRepository.existsById(item.getBookId())
+                            ? "Insufficient stock for book " + item.getBookId()
+                            : "Book not found with ID: " + item.getBookId();
+                    break;
+                }
+                changed.add(updated);
+            }
+        } catch (RuntimeException e) {
+            log.error("Reservation {} failed after taking {} items, giving them back", reservationId, changed.size(), e);
+            try {
+                abandon(reservationId, "Stock update failed: " + e.getMessage(), items, changed);
+            } catch (RuntimeException cleanup) {
+                log.error("Could not unwind reservation {}, left for the abandoned-reservation sweep", reservationId, cleanup);
+            }
+            throw e;
+        }
+
+        if (failure == null) {
+            StockReservation reserved = stockRepository.transition(reservationId, ReservationStatus.PENDING, ReservationStatus.RESERVED);
+            if (reserved != null) {
+                afterStockChange(changed);
+                log.info("Reserved stock for reservation {} - {} items", reservationId, items.size());
+                return toDto(reserved);
+            }
+            // The sweep failed this attempt while it ran; what it took since then is still ours to give back.
+            failure = abandonedMessage(reservationId);
+        }
+        abandon(reservationId, failure, items, changed);
+        throw new StockConflictException(failure);
+    }
+
+    @Override
+    public StockReservationDTO release(String reservationId) {
+        StockReservation released = stockRepository.transition(reservationId, ReservationStatus.RESERVED, ReservationStatus.RELEASED);
+        if (released == null) {
+            StockReservation existing = existing(reservationId);
+            if (existing.getStatus() == ReservationStatus.RELEASED || existing.getStatus() == ReservationStatus.FAILED) {
+                return toDto(existing);
+            }
+            throw new StockConflictException("Reservation " + reservationId + " cannot be released in status " + existing.getStatus());
+        }
+
+        afterStockChange(giveBack(reservationId, released.getItems()));
+        stockRepository.markStockReturned(reservationId);
+        log.info("Released stock for reservation {}", reservationId);
+        return toDto(released);
+    }
+
+    @Override
+    public StockReservationDTO commit(String reservationId) {
+        StockReservation committed = stockRepository.transition(reservationId, ReservationStatus.RESERVED, ReservationStatus.COMMITTED);
+        if (committed == null) {
+            StockReservation existing = existing(reservationId);
+            if (existing.getStatus() == ReservationStatus.COMMITTED) {
+                return toDto(existing);
+            }
+            throw new StockConflictException("Reservation " + reservationId + " cannot be committed in status " + existing.getStatus());
+        }
+        try {
+            stockRepository.settle(reservationId, committed.getItems().stream().map(StockItem::getBookId).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            log.warn("Could not clear stock tags of committed reservation {}", reservationId, e);
+        }
+        log.info("Committed reservation {}", reservationId);
+        return toDto(committed);
+    }
+
+    // Holds that were never committed go back to stock. The state transition makes
+    // this safe to run on every node at once.
+    @Override
+    @Scheduled(fixedDelayString = "${product.stock.expiry-check-ms:60000}")
+    public int releaseExpired() {
+        int released = 0;
+        for (StockReservation reservation : stockRepository.findExpired(new Date(), EXPIRY_BATCH)) {
+            try {
+                release(reservation.getId());
+                released++;
+            } catch (StockConflictException e) {
+                log.debug("Expired reservation {} was settled concurrently", reservation.getId());
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+
+        // Attempts that died part-way, and give-backs that never finished, are completed here.
+        int abandoned = 0;
+        for (StockReservation reservation : stockRepository.findAbandoned(
+                new Date(System.currentTimeMillis() - pendingTimeoutMs), EXPIRY_BATCH)) {
+            if (reservation.getStatus() == ReservationStatus.PENDING
+                    && !stockRepository.markFailed(reservation.getId(), "Reservation was abandoned while in progress")) {
+                continue;
+            }
+            afterStockChange(giveBack(reservation.getId(), reservation.getItems()));
+            stockRepository.markStockReturned(reservation.getId());
+            abandoned++;
+        }
+        if (abandoned > 0) {
+            log.info("Returned stock of {} abandoned stock reservations", abandoned);
+        }
+        return released + abandoned;
+    }
+
+    // Failing the reservation first keeps it from reaching RESERVED; the give-back only
+    // matches books still tagged with it, so racing the sweep cannot return stock twice.
+    private void abandon(String reservationId, String reason, List<StockItem> items, List<Books> changed) {
+        stockRepository.markFailed(reservationId, reason);
+        changed.addAll(giveBack(reservationId, items));
+        stockRepository.markStockReturned(reservationId);
+        afterStockChange(changed);
+    }
+
+    private static String abandonedMessage(String reservationId) {
+        return "Reservation " + reservationId + " was abandoned before it completed";
+    }
+
+    private StockReservationDTO replay(String reservationId, List<StockItem> items) {
+        StockReservation existing = existing(reservationId);
+        if (!existing.getItems().equals(items)) {
+            throw new StockConflictException("Reservation " + reservationId + " already exists with different items");
+        }
+        switch (existing.getStatus()) {
+            case PENDING:
+                throw new StockConflictException("Reservation " + reservationId + " is still being processed");
+            case FAILED:
+                throw new StockConflictException(existing.getFailureReason());
+            default:
+                return toDto(existing);
+        }
+    }
+
+    private List<Books> giveBack(String reservationId, List<StockItem> items) {
+        List<Books> changed = new ArrayList<>();
+        for (StockItem item : items) {
+            Books updated = stockRepository.increment(item.getBookId(), item.getQuantity(), reservationId);
+            if (updated != null) {
+                changed.add(updated);
+            }
+        }
+        return changed;
+    }
+
+    // Single-book cache entries are evicted; result pages keep their snapshot until the generation moves.
+    private void afterStockChange(List<Books> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        cacheInvalidator.evictBooks(changed.stream().map(Books::getId).collect(Collectors.toSet()));
+        // Recorded so feed consumers and snapshot catch-up see stock moves too.
+        changeFeed.recordAll(ChangeType.UPDATED, changed);
+        changed.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.saved(book)));
+    }
+
+    private StockReservation existing(String reservationId) {
+        StockReservation existing = stockRepository.findReservation(reservationId);
+        if (existing == null) {
+            throw new ResourceNotFoundException("Reservation not found with ID: " + reservationId);
+        }
+        return existing;
+    }
+
+    // Duplicate book ids are merged and items sorted, so retries compare equal regardless of order.
+    private List<StockItem> validate(StockReservationRequestDTO request) {
+        if (request.getReservationId() == null || request.getReservationId().trim().isEmpty()) {
+            throw new IllegalArgumentException("Reservation ID is required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        if (request.getItems().size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("A reservation can hold at most " + MAX_ITEMS + " items");
+        }
+
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (StockItemDTO item : request.getItems()) {
+            if (item == null || item.getBookId() == null || item.getBookId().trim().isEmpty()) {
+                throw new IllegalArgumentException("Book ID is required for every item");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for book " + item.getBookId() + ": must be positive");
+            }
+            quantities.merge(item.getBookId().trim(), item.getQuantity(), Integer::sum);
+        }
+
+        return quantities.entrySet().stream()
+                .map(e -> new StockItem(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private StockReservationDTO toDto(StockReservation reservation) {
+        List<StockItemDTO> items = reservation.getItems().stream()
+                .map(item -> new StockItemDTO(item.getBookId(), item.getQuantity()))
+                .collect(Collectors.toList());
+        return new StockReservationDTO(reservation.getId(), reservation.getStatus().name(), items,
+                reservation.getFailureReason(), reservation.getExpiresAt());
+    }
+}
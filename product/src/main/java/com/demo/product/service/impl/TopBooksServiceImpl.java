@@ -0,0 +1,53 @@
+package com.demo.product.service.impl;
+
+import com.demo.product.DTO.BookFieldSet;
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.TopList;
+import com.demo.product.catalog.TopBooksIndex;
+import com.demo.product.entity.Books;
+import com.demo.product.repository.BookSearchRepository;
+import com.demo.product.service.TopBooksService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class TopBooksServiceImpl implements TopBooksService {
+
+    private static final Set<String> TOP_FIELDS = new LinkedHashSet<>(BookFieldSet.SUMMARY_FIELDS);
+
+    static {
+        TOP_FIELDS.add("publishedDate");
+        TOP_FIELDS.add("discount");
+    }
+
+    @Autowired(required = false)
+    TopBooksIndex topIndex;
+
+    @Autowired
+    BookSearchRepository searchRepository;
+
+    @Override
+    public List<BookResponseDTO> getTopBooks(TopList list, String format, int limit) {
+        if (topIndex != null && topIndex.isReady()) {
+            return topIndex.top(list, format, limit);
+        }
+
+        // Same order from the compound indexes until the read model is loaded.
+        log.debug("Top books index unavailable, querying Mongo for list: {}, format: {}", list, format);
+        List<BookResponseDTO> top = new ArrayList<>(limit);
+        for (Books book : searchRepository.topBooks(format, list.getSortField(), list.getDirection(), limit, TOP_FIELDS)) {
+            BookResponseDTO dto = new BookResponseDTO();
+            BeanUtils.copyProperties(book, dto);
+            top.add(dto);
+        }
+        return top;
+    }
+}
@@ -0,0 +1,68 @@
+package com.demo.product.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size frequency sketch: estimates never undercount and overcount by at
+ * most about total/width with high probability, whatever the number of keys.
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL};
+
+    private final AtomicLongArray[] rows;
+    private final int width;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Sketch depth must be between 1 and " + SEEDS.length);
+        }
+        if (width < 1) {
+            throw new IllegalArgumentException("Sketch width must be positive");
+        }
+        this.width = width;
+        this.rows = new AtomicLongArray[depth];
+        for (int i = 0; i < depth; i++) {
+            rows[i] = new AtomicLongArray(width);
+        }
+    }
+
+    // Adds to every row and returns the new estimate for the key.
+    public long add(String key, long count) {
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < rows.length; i++) {
+            estimate = Math.min(estimate, rows[i].addAndGet(index(key, i), count));
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < rows.length; i++) {
+            estimate = Math.min(estimate, rows[i].get(index(key, i)));
+        }
+        return estimate;
+    }
+
+    // Ages every counter so old popularity fades instead of accumulating forever.
+    public void halve() {
+        for (AtomicLongArray row : rows) {
+            for (int j = 0; j < width; j++) {
+                long value;
+                do {
+                    value = row.get(j);
+                } while (!row.compareAndSet(j, value, value >>> 1));
+            }
+        }
+    }
+
+    private int index(String key, int row) {
+        long h = key.hashCode() * SEEDS[row];
+        h ^= h >>> 29;
+        h *= SEEDS[(row + 1) % SEEDS.length];
+        h ^= h >>> 32;
+        return (int) ((h & Long.MAX_VALUE) % width);
+    }
+}
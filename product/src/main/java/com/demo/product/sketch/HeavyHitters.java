@@ -0,0 +1,68 @@
+package com.demo.product.sketch;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the most frequent keys in bounded memory: a count-min sketch counts
+ * everything, and only keys whose estimate beats the current floor are kept
+ * as candidates. Candidates are trimmed back to the capacity when they reach
+ * twice that size.
+ */
+public class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private volatile long floor;
+
+    public HeavyHitters(int capacity, int depth, int width) {
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(depth, width);
+    }
+
+    public void record(String key) {
+        record(key, 1);
+    }
+
+    public void record(String key, long count) {
+        long estimate = sketch.add(key, count);
+        if (estimate > floor || candidates.containsKey(key) || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            if (candidates.size() >= capacity * 2) {
+                trim();
+            }
+        }
+    }
+
+    public long estimate(String key) {
+        return sketch.estimate(key);
+    }
+
+    // Hottest first.
+    public List<Map.Entry<String, Long>> top(int limit) {
+        return candidates.entrySet().stream()
+                .map(e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public synchronized void decay() {
+        sketch.halve();
+        candidates.replaceAll((key, count) -> count >>> 1);
+        candidates.values().removeIf(count -> count == 0);
+        floor >>>= 1;
+    }
+
+    private synchronized void trim() {
+        if (candidates.size() < capacity * 2) {
+            return;
+        }
+        List<Map.Entry<String, Long>> kept = top(capacity);
+        Set<String> keep = kept.stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+        candidates.keySet().retainAll(keep);
+        floor = kept.isEmpty() ? 0 : kept.get(kept.size() - 1).getValue();
+    }
+}
@@ -0,0 +1,117 @@
+package com.demo.product.cache;
+
+import com.demo.product.DTO.BookFacetPageDTO;
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.FacetBucketDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.domain.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCacheValueSerializerTest {
+
+    private final BinaryCacheValueSerializer serializer = new BinaryCacheValueSerializer(1024);
+
+    static BookResponseDTO book(int i) {
+        BookResponseDTO book = new BookResponseDTO();
+        book.setId("BOOK-" + (1000000 + i));
+        book.setTitle("The Lord of the Rings, volume " + i);
+        book.setAuthor("J. R. R. Tolkien");
+        book.setCoAuthors(Arrays.asList("Christopher Tolkien"));
+        book.setDescription("An epic high-fantasy novel about the quest to destroy the One Ring.");
+        book.setPublisher("Allen & Unwin");
+        book.setPublishedDate(new Date(-482457600000L));
+        book.setPageCount(1178);
+        book.setFormat("Hardcover");
+        book.setPrice(899.0 + i);
+        book.setMrpPrice(999.0);
+        book.setStockAvailable(i % 7);
+        book.setRating(4.8);
+        return book;
+    }
+
+    static Page<BookResponseDTO> page(int size) {
+        List<BookResponseDTO> content = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            content.add(book(i));
+        }
+        return new PageImpl<>(content, PageRequest.of(2, size), 5000);
+    }
+
+    @Test
+    void testEnvelopedPageRoundTrip() {
+        CacheEnvelope envelope = new CacheEnvelope(page(10), 12, 1700000000000L);
+
+        CacheEnvelope read = (CacheEnvelope) serializer.deserialize(serializer.serialize(envelope));
+
+        assertEquals(envelope, read);
+        assertEquals(5000, ((Page<?>) read.getValue()).getTotalElements());
+    }
+
+    @Test
+    void testSliceFacetPageAndNullValueRoundTrip() {
+        Slice<BookResponseDTO> slice = new SliceImpl<>(Arrays.asList(book(1)), PageRequest.of(0, 1), true);
+        Map<String, List<FacetBucketDTO>> facets = new LinkedHashMap<>();
+        facets.put("format", Arrays.asList(new FacetBucketDTO("paperback", 3)));
+        BookFacetPageDTO facetPage = new BookFacetPageDTO(Arrays.asList(book(2)), 0, 10, 1, 1, facets);
+
+        Slice<?> readSlice = (Slice<?>) serializer.deserialize(serializer.serialize(slice));
+        assertEquals(slice.getContent(), readSlice.getContent());
+        assertTrue(readSlice.hasNext());
+        assertEquals(facetPage, serializer.deserialize(serializer.serialize(facetPage)));
+        assertSame(NullValue.INSTANCE, serializer.deserialize(serializer.serialize(NullValue.INSTANCE)));
+        assertEquals(42L, serializer.deserialize(serializer.serialize(42L)));
+    }
+
+    @Test
+    void testLargeValuesAreDeflatedAndSmallerThanJdk() {
+        Page<BookResponseDTO> page = page(50);
+
+        byte[] binary = serializer.serialize(page);
+        byte[] jdk = RedisSerializer.java().serialize(page);
+
+        assertEquals(BinaryCacheValueSerializer.FLAG_DEFLATED, binary[1]);
+        assertTrue(binary.length * 4 < jdk.length, binary.length + " vs " + jdk.length);
+        assertEquals(page.getContent(), ((Page<?>) serializer.deserialize(binary)).getContent());
+    }
+
+    @Test
+    void testReadsEntriesWrittenByJdkSerializer() {
+        byte[] legacy = RedisSerializer.java().serialize(book(1));
+
+        assertEquals(book(1), serializer.deserialize(legacy));
+    }
+
+    @Test
+    void testUndecodableJdkEntryIsAMiss() {
+        byte[] legacy = RedisSerializer.java().serialize(book(1));
+
+        assertNull(serializer.deserialize(Arrays.copyOf(legacy, legacy.length / 2)));
+    }
+
+    @Test
+    void testUnknownBookFieldsAreSkipped() {
+        byte[] id = "BOOK-1".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[]{BinaryCacheValueSerializer.MAGIC, 0, 12,
+                (byte) 0xC6, 0x01, 3, 0x0A,          // field 99: long 5
+                2, 2, (byte) (id.length * 2), 0, 0, 0, 0, 0, 0, // field 1: string
+                0};
+        System.arraycopy(id, 0, bytes, 10, id.length);
+
+        BookResponseDTO read = (BookResponseDTO) serializer.deserialize(bytes);
+
+        assertEquals("BOOK-1", read.getId());
+        assertNull(read.getTitle());
+    }
+
+    @Test
+    void testUndecodableValueIsAMiss() {
+        assertNull(serializer.deserialize(new byte[]{BinaryCacheValueSerializer.MAGIC, 0, 99}));
+        assertNull(serializer.deserialize(new byte[]{1, 2, 3}));
+    }
+}
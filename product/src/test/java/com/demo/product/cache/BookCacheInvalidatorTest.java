@@ -0,0 +1,70 @@
+package com.demo.product.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookCacheInvalidatorTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RecentWrites recentWrites;
+
+    @Mock
+    private Cursor<byte[]> cursor;
+
+    @InjectMocks
+    private BookCacheInvalidator invalidator;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testClearBooksUnlinksScannedKeysInBatches() {
+        invalidator.scanBatch = 2;
+        when(redisTemplate.executeWithStickyConnection(any())).thenReturn((Cursor) cursor);
+        when(cursor.hasNext()).thenReturn(true, true, true, false);
+        when(cursor.next()).thenReturn(bytes("books::BOOK-1"), bytes("books::BOOK-2"), bytes("books::BOOK-3"));
+        when(redisTemplate.unlink(anyCollection())).thenAnswer(inv -> (long) ((List<?>) inv.getArgument(0)).size());
+
+        assertEquals(3L, invalidator.clearBooks());
+
+        verify(redisTemplate).unlink(Arrays.asList("books::BOOK-1", "books::BOOK-2"));
+        verify(redisTemplate).unlink(Arrays.asList("books::BOOK-3"));
+        verify(redisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEvictBooksPipelinesOneDeleteWithThePins() {
+        RedisOperations<String, String> operations = mock(RedisOperations.class);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(inv ->
+                Arrays.asList(((SessionCallback<Object>) inv.getArgument(0)).execute(operations)));
+        List<String> ids = Arrays.asList("BOOK-1", "BOOK-2");
+
+        invalidator.evictBooks(ids);
+
+        verify(operations).delete(Arrays.asList("books::BOOK-1", "books::BOOK-2"));
+        verify(recentWrites).markBooks(operations, ids);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
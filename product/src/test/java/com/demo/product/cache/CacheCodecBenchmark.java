@@ -0,0 +1,59 @@
+package com.demo.product.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares the cache value codecs on a single book and on result pages.
+ * Run manually: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.demo.product.cache.CacheCodecBenchmark}.
+ */
+public class CacheCodecBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    public static void main(String[] args) {
+        Map<String, RedisSerializer<Object>> codecs = new LinkedHashMap<>();
+        codecs.put("jdk", RedisSerializer.java());
+        codecs.put("binary", new BinaryCacheValueSerializer(1024));
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("book", new CacheEnvelope(BinaryCacheValueSerializerTest.book(1), 5, System.currentTimeMillis()));
+        values.put("page-10", new CacheEnvelope(BinaryCacheValueSerializerTest.page(10), 20, System.currentTimeMillis()));
+        values.put("page-100", new CacheEnvelope(BinaryCacheValueSerializerTest.page(100), 80, System.currentTimeMillis()));
+
+        System.out.printf("%-10s %-8s %10s %12s %12s%n", "value", "codec", "bytes", "encode ns", "decode ns");
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            for (Map.Entry<String, RedisSerializer<Object>> codec : codecs.entrySet()) {
+                run(value.getKey(), codec.getKey(), codec.getValue(), value.getValue());
+            }
+        }
+    }
+
+    private static void run(String valueName, String codecName, RedisSerializer<Object> codec, Object value) {
+        byte[] bytes = codec.serialize(value);
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += codec.serialize(value).length;
+            sink += codec.deserialize(bytes) == null ? 0 : 1;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += codec.serialize(value).length;
+        }
+        long encodeNs = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += codec.deserialize(bytes) == null ? 0 : 1;
+        }
+        long decodeNs = (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("%-10s %-8s %10d %12d %12d%s%n", valueName, codecName, bytes.length, encodeNs, decodeNs,
+                sink == 42 ? " " : "");
+    }
+}
@@ -0,0 +1,61 @@
+package com.demo.product.cache;
+
+import com.demo.product.DTO.BookFieldSet;
+import com.demo.product.DTO.BookListFilterDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheKeysTest {
+
+    @Mock
+    private CatalogGeneration catalogGeneration;
+
+    @InjectMocks
+    private CacheKeys cacheKeys;
+
+    @Test
+    void testSearchKey_NormalisesKeyword() {
+        when(catalogGeneration.current()).thenReturn(3L);
+
+        assertEquals(cacheKeys.search("Harry Potter", 0, 10), cacheKeys.search("  harry potter ", 0, 10));
+        assertTrue(cacheKeys.search("x", 0, 10).startsWith("search:g3:"));
+    }
+
+    @Test
+    void testSearchKey_ChangesWithGeneration() {
+        when(catalogGeneration.current()).thenReturn(1L, 2L);
+
+        assertNotEquals(cacheKeys.search("tolkien", 0, 10), cacheKeys.search("tolkien", 0, 10));
+    }
+
+    @Test
+    void testSearchKey_SeparatesFieldSets() {
+        when(catalogGeneration.current()).thenReturn(0L);
+
+        assertEquals(cacheKeys.search("x", 0, 10, BookFieldSet.parseListing("price,title")),
+                cacheKeys.search("x", 0, 10, BookFieldSet.parseListing("title, price")));
+        assertNotEquals(cacheKeys.search("x", 0, 10, BookFieldSet.parseListing(null)),
+                cacheKeys.search("x", 0, 10, BookFieldSet.parseListing("all")));
+    }
+
+    @Test
+    void testFilterKey_IgnoresCaseAndEmptyFields() {
+        when(catalogGeneration.current()).thenReturn(0L);
+        BookListFilterDTO first = new BookListFilterDTO();
+        first.setAuthor("Tolkien ");
+        first.setTitle("");
+        first.setMinPrice(10.0);
+        BookListFilterDTO second = new BookListFilterDTO();
+        second.setAuthor("tolkien");
+        second.setMinPrice(10.0);
+
+        assertEquals(cacheKeys.filter(first, 1, 20), cacheKeys.filter(second, 1, 20));
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo.product.cache;
+
+import com.demo.product.DTO.BookFieldSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    @TempDir
+    Path dir;
+
+    private HotKeyTracker tracker() {
+        HotKeyTracker tracker = new HotKeyTracker();
+        tracker.maxKeys = 10;
+        tracker.file = dir.resolve("hot-keys.tsv").toString();
+        tracker.init();
+        return tracker;
+    }
+
+    @Test
+    void testPersistedKeysAreRestoredHottestFirst() {
+        HotKeyTracker tracker = tracker();
+        for (int i = 0; i < 3; i++) {
+            tracker.recordBook("BOOK-1000001");
+        }
+        tracker.recordSearch(" Tolkien ", 0, 10, BookFieldSet.parseListing(null));
+        tracker.persist();
+
+        List<Map.Entry<String, Long>> restored = tracker().restore();
+
+        assertEquals(2, restored.size());
+        assertEquals("b|BOOK-1000001", restored.get(0).getKey());
+        assertEquals("s|0|10|author,id,price,rating,title|tolkien", restored.get(1).getKey());
+    }
+
+    @Test
+    void testRestoreWithoutFileIsEmpty() {
+        assertTrue(tracker().restore().isEmpty());
+    }
+}
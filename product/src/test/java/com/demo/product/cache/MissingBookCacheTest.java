@@ -0,0 +1,41 @@
+package com.demo.product.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissingBookCacheTest {
+
+    private MissingBookCache missingBooks;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        missingBooks = new MissingBookCache();
+        missingBooks.cacheManager = new ConcurrentMapCacheManager(MissingBookCache.REGION);
+        missingBooks.meterRegistry = meterRegistry;
+        missingBooks.registerMeters();
+    }
+
+    @Test
+    void testMarkedIdIsReportedAndCounted() {
+        missingBooks.markMissing("BOOK-999999");
+
+        assertTrue(missingBooks.isMissing("BOOK-999999"));
+        assertTrue(missingBooks.isMissing("BOOK-999999"));
+        assertFalse(missingBooks.isMissing("BOOK-123456"));
+        assertEquals(2.0, meterRegistry.counter("product.cache.negative.hits").count());
+    }
+
+    @Test
+    void testForgetRemovesMarker() {
+        missingBooks.markMissing("BOOK-999999");
+        missingBooks.forget("BOOK-999999");
+
+        assertFalse(missingBooks.isMissing("BOOK-999999"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.demo.product.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecentWritesTest {
+
+    private RecentWrites recentWrites;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        recentWrites = new RecentWrites();
+        recentWrites.redisTemplate = redisTemplate;
+        recentWrites.enabled = true;
+        recentWrites.pinMs = 100_000;
+    }
+
+    @Test
+    void testBookReadsIgnoreTheCatalogPin() {
+        when(redisTemplate.countExistingKeys(Arrays.asList(RecentWrites.ALL_BOOKS_KEY, RecentWrites.BOOK_PREFIX + "BOOK-1")))
+                .thenReturn(0L);
+        when(redisTemplate.countExistingKeys(Collections.singletonList(RecentWrites.CATALOG_KEY))).thenReturn(1L);
+
+        assertFalse(recentWrites.isBookRecent("BOOK-1"));
+        assertTrue(recentWrites.isCatalogRecent());
+    }
+
+    @Test
+    void testUnknownMeansRecent() {
+        when(redisTemplate.countExistingKeys(anyCollection())).thenReturn(null);
+
+        assertTrue(recentWrites.isBookRecent("BOOK-1"));
+    }
+}
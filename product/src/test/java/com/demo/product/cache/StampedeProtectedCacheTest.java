@@ -0,0 +1,110 @@
+package com.demo.product.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StampedeProtectedCacheTest {
+
+    @Mock
+    private CacheLease lease;
+
+    private ConcurrentMapCache delegate;
+    private StampedeProtectedCache cache;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapCache("books");
+        cache = new StampedeProtectedCache(delegate, Duration.ofMinutes(10), lease,
+                Duration.ofSeconds(5), Duration.ofMillis(200), 1.0);
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        when(lease.tryAcquire(eq("lease:books::BOOK-1"), any())).thenReturn("token");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "book";
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> cache.get("BOOK-1", loader)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<String> result : results) {
+            assertEquals("book", result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(1, loads.get());
+        assertEquals("book", cache.get("BOOK-1").get());
+        verify(lease).release("lease:books::BOOK-1", "token");
+    }
+
+    @Test
+    void testWaitsForLeaseHolderThenFallsBackToLoading() {
+        when(lease.tryAcquire(anyString(), any())).thenReturn(null);
+
+        String value = cache.get("BOOK-1", () -> "local");
+
+        assertEquals("local", value);
+        verify(lease, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void testLoaderFailureIsWrapped() {
+        when(lease.tryAcquire(anyString(), any())).thenReturn("token");
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("BOOK-1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertNull(cache.get("BOOK-1"));
+    }
+
+    @Test
+    void testEntryNearExpiryIsRefreshedEarly() {
+        when(lease.tryAcquire(anyString(), any())).thenReturn("token");
+        delegate.put("BOOK-1", new CacheEnvelope("old", 60_000, System.currentTimeMillis() + 1));
+
+        assertEquals("new", cache.get("BOOK-1", () -> "new"));
+        assertEquals("new", cache.get("BOOK-1").get());
+    }
+
+    @Test
+    void testFreshEntryIsServedWithoutLoading() {
+        cache.put("BOOK-1", "cached");
+
+        assertEquals("cached", cache.get("BOOK-1", () -> fail("should not load")));
+        verifyNoInteractions(lease);
+    }
+
+    @Test
+    void testEarlyRefreshProbabilityGrowsTowardsExpiry() {
+        CacheEnvelope envelope = new CacheEnvelope("v", 100, 10_000);
+
+        assertFalse(envelope.shouldRefreshEarly(5_000, 1.0, 0.5));
+        assertTrue(envelope.shouldRefreshEarly(9_950, 1.0, 0.5));
+        assertTrue(envelope.shouldRefreshEarly(10_000, 1.0, 0.99));
+    }
+}
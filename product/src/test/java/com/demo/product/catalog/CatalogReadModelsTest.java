@@ -0,0 +1,78 @@
+package com.demo.product.catalog;
+
+import com.demo.product.entity.Books;
+import com.demo.product.entity.CatalogChange;
+import com.demo.product.repository.CatalogChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogReadModelsTest {
+
+    @Mock
+    private CatalogReadModel model;
+
+    @Mock
+    private CatalogSnapshotStore snapshots;
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    @InjectMocks
+    private CatalogReadModels readModels;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(readModels, "models", Collections.singletonList(model));
+        ReflectionTestUtils.setField(readModels, "tailMargin", 10L);
+    }
+
+    private static CatalogChange change(long version, String bookId, boolean deleted) {
+        return CatalogChange.builder().version(version).bookId(bookId)
+                .book(deleted ? null : Books.builder().id(bookId).build()).build();
+    }
+
+    @Test
+    void testTail_AppliesOtherNodesChangesOnceEach() {
+        when(changeRepository.latestVersion()).thenReturn(100L);
+        when(snapshots.restore(any(), any())).thenReturn(true);
+        readModels.run(new DefaultApplicationArguments());
+
+        when(changeRepository.findAfter(eq(90L), anyCollection(), anyInt()))
+                .thenReturn(Arrays.asList(change(101, "BOOK-1", false), change(102, "BOOK-2", true)));
+        when(changeRepository.findAfter(eq(102L), anyCollection(), anyInt())).thenReturn(Collections.emptyList());
+        readModels.tail();
+
+        verify(model).upsert(argThat(book -> "BOOK-1".equals(book.getId())));
+        verify(model).remove("BOOK-2");
+
+        // A version that committed late, behind ones already applied, is still picked up.
+        when(changeRepository.findAfter(eq(92L), eq(new TreeSet<>(Arrays.asList(101L, 102L))), anyInt()))
+                .thenReturn(Collections.singletonList(change(99, "BOOK-3", false)));
+        when(changeRepository.findAfter(eq(99L), anyCollection(), anyInt())).thenReturn(Collections.emptyList());
+        readModels.tail();
+
+        verify(model).upsert(argThat(book -> "BOOK-3".equals(book.getId())));
+        verify(model, times(2)).upsert(any());
+    }
+
+    @Test
+    void testTail_WaitsForTheInitialLoad() {
+        readModels.tail();
+
+        verifyNoInteractions(changeRepository, model);
+    }
+}
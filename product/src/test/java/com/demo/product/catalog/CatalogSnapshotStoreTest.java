@@ -0,0 +1,148 @@
+package com.demo.product.catalog;
+
+import com.demo.product.entity.Books;
+import com.demo.product.entity.CatalogChange;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.repository.CatalogChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private CatalogSnapshotStore store;
+    private CatalogChangeRepository changeRepository;
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final Map<String, Books> restored = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        changeRepository = mock(CatalogChangeRepository.class);
+        when(changeRepository.findAfter(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+
+        store = new CatalogSnapshotStore();
+        store.changeRepository = changeRepository;
+        store.path = dir.resolve("catalog.snapshot").toString();
+        store.maxAgeMs = 60_000;
+        store.replayMargin = 0;
+        store.rescanAfterMs = 60_000;
+        store.mongoTemplate = mongoTemplate;
+    }
+
+    private static Books book(String id, String title, int stock) {
+        return Books.builder().id(id).title(title).author("Author").stockAvailable(stock)
+                .description("long text").build();
+    }
+
+    private static CatalogChange change(long version, String bookId, Books book) {
+        return CatalogChange.builder().version(version).bookId(bookId)
+                .type(book == null ? ChangeType.DELETED : ChangeType.UPDATED).book(book).changedAt(new Date()).build();
+    }
+
+    private void write(long version, Books... books) throws IOException {
+        try (CatalogSnapshotStore.Writer writer = store.writer(version)) {
+            for (Books book : books) {
+                writer.append(book);
+            }
+            writer.commit();
+        }
+    }
+
+    private boolean restore() {
+        restored.clear();
+        return store.restore(book -> restored.put(book.getId(), book), restored::remove);
+    }
+
+    @Test
+    void testRestoreLoadsSnapshotThenReplaysLaterChanges() throws IOException {
+        write(10, book("BOOK-1", "Dune", 5), book("BOOK-2", "Emma", 1), book("BOOK-3", "Ulysses", 2));
+        when(changeRepository.latestVersion()).thenReturn(12L);
+        when(changeRepository.oldestVersion()).thenReturn(3L);
+        when(changeRepository.findAfter(10L, 1000)).thenReturn(Arrays.asList(
+                change(11, "BOOK-2", book("BOOK-2", "Emma", 0)), change(12, "BOOK-3", null)));
+
+        assertTrue(restore());
+
+        assertEquals(Arrays.asList("BOOK-1", "BOOK-2"), new ArrayList<>(restored.keySet()));
+        assertEquals("Dune", restored.get("BOOK-1").getTitle());
+        assertNull(restored.get("BOOK-1").getDescription());
+        assertEquals(0, restored.get("BOOK-2").getStockAvailable());
+    }
+
+    @Test
+    void testCorruptOrUncoveredSnapshotIsIgnored() throws IOException {
+        write(10, book("BOOK-1", "Dune", 5));
+        when(changeRepository.latestVersion()).thenReturn(20L);
+        when(changeRepository.oldestVersion()).thenReturn(15L);
+
+        assertFalse(restore());
+
+        when(changeRepository.oldestVersion()).thenReturn(1L);
+        try (RandomAccessFile file = new RandomAccessFile(store.path, "rw")) {
+            file.seek(CatalogSnapshotStore.HEADER_BYTES + 6);
+            file.write(file.read() ^ 0xFF);
+        }
+
+        assertFalse(restore());
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    void testRefreshMergesOutboxIntoSnapshot() throws IOException {
+        write(10, book("BOOK-1", "Dune", 5), book("BOOK-2", "Emma", 1));
+        when(changeRepository.latestVersion()).thenReturn(10L);
+        assertTrue(restore());
+
+        when(changeRepository.latestVersion()).thenReturn(12L);
+        when(changeRepository.findAfter(10L, 1000)).thenReturn(Arrays.asList(
+                change(11, "BOOK-1", null), change(12, "BOOK-4", book("BOOK-4", "Beloved", 3))));
+        store.refresh();
+
+        reset(changeRepository);
+        when(changeRepository.latestVersion()).thenReturn(12L);
+        when(changeRepository.findAfter(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+
+        assertTrue(restore());
+        assertEquals(new HashSet<>(Arrays.asList("BOOK-2", "BOOK-4")), restored.keySet());
+        verify(changeRepository).findAfter(12L, 1000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshRescansMongoOnceLineageIsTooOld() throws IOException {
+        write(10, book("BOOK-1", "Dune", 5), book("BOOK-2", "Emma", 1));
+        when(changeRepository.latestVersion()).thenReturn(10L);
+        assertTrue(restore());
+
+        store.rescanAfterMs = -1;
+        assertFalse(restore());
+
+        // The outbox never saw BOOK-2's delete or BOOK-3's insert; only a scan finds them.
+        CloseableIterator<Books> scan = mock(CloseableIterator.class);
+        when(scan.hasNext()).thenReturn(true, true, false);
+        when(scan.next()).thenReturn(book("BOOK-1", "Dune", 4), book("BOOK-3", "Beloved", 2));
+        when(mongoTemplate.stream(any(Query.class), eq(Books.class))).thenReturn(scan);
+        when(changeRepository.latestVersion()).thenReturn(11L);
+        store.refresh();
+
+        store.rescanAfterMs = 60_000;
+        assertTrue(restore());
+        assertEquals(new HashSet<>(Arrays.asList("BOOK-1", "BOOK-3")), restored.keySet());
+        assertEquals(4, restored.get("BOOK-1").getStockAvailable());
+    }
+}
@@ -0,0 +1,109 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.DTO.FacetBucketDTO;
+import com.demo.product.entity.Books;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarCatalogTest {
+
+    private ColumnarCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ColumnarCatalog();
+        catalog.upsert(book("BOOK-1", "Paperback", "Penguin", 90.0, 4.5, 300, 5));
+        catalog.upsert(book("BOOK-2", "Hardcover", "Penguin", 450.0, 3.9, 800, 0));
+        catalog.upsert(book("BOOK-3", "paperback ", "Harper Collins", 120.0, null, null, 2));
+        catalog.markReady();
+    }
+
+    private Books book(String id, String format, String publisher, Double price, Double rating,
+                       Integer pageCount, Integer stock) {
+        return Books.builder().id(id).title(id).author("Author").format(format).publisher(publisher)
+                .price(price).rating(rating).pageCount(pageCount).stockAvailable(stock).build();
+    }
+
+    private List<String> ids(BookListFilterDTO filter) {
+        return catalog.query(filter, 0, 10, false).getIds();
+    }
+
+    @Test
+    void testCategoricalFilter_FoldsValues() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setFormat("PAPERBACK");
+        filter.setMatch("exact");
+
+        assertEquals(new HashSet<>(Arrays.asList("BOOK-1", "BOOK-3")), new HashSet<>(ids(filter)));
+    }
+
+    @Test
+    void testRangeFilters_ExcludeMissingValues() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setMinRating(3.0);
+        filter.setMaxPrice(500.0);
+
+        assertEquals(new HashSet<>(Arrays.asList("BOOK-1", "BOOK-2")), new HashSet<>(ids(filter)));
+    }
+
+    @Test
+    void testInStockAndPageCount() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setInStock(true);
+        filter.setMinPageCount(200);
+
+        assertEquals(Arrays.asList("BOOK-1"), ids(filter));
+    }
+
+    @Test
+    void testUpsertMovesBookBetweenBitmaps() {
+        catalog.upsert(book("BOOK-2", "Paperback", "Penguin", 450.0, 3.9, 800, 3));
+
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setFormat("hardcover");
+        assertTrue(ids(filter).isEmpty());
+
+        filter.setFormat("paper");
+        filter.setInStock(true);
+        assertEquals(3, catalog.query(filter, 0, 10, false).getTotal());
+    }
+
+    @Test
+    void testRemoveAndRowReuse() {
+        catalog.remove("BOOK-1");
+        catalog.upsert(book("BOOK-4", "Ebook", "Penguin", 10.0, 5.0, 100, 1));
+
+        assertEquals(3, catalog.size());
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setPublisher("penguin");
+        assertEquals(new HashSet<>(Arrays.asList("BOOK-2", "BOOK-4")), new HashSet<>(ids(filter)));
+    }
+
+    @Test
+    void testPagingAndFacets() {
+        ColumnarResult result = catalog.query(new BookListFilterDTO(), 1, 1, true);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getIds().size());
+        List<FacetBucketDTO> formats = result.getFacets().get("format");
+        assertEquals(new FacetBucketDTO("paperback", 2), formats.get(0));
+        assertTrue(result.getFacets().get("price").contains(new FacetBucketDTO("100", 1)));
+        assertTrue(result.getFacets().get("rating").contains(new FacetBucketDTO("unrated", 1)));
+    }
+
+    @Test
+    void testFreeTextFiltersNotAnswered() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setTitle("potter");
+
+        assertFalse(catalog.canAnswer(filter));
+        assertTrue(catalog.canAnswer(new BookListFilterDTO()));
+    }
+}
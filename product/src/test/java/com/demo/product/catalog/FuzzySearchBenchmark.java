@@ -0,0 +1,98 @@
+package com.demo.product.catalog;
+
+import com.demo.product.entity.Books;
+
+import java.util.*;
+
+/**
+ * Measures recall@10 and latency of {@link FuzzyTitleIndex} on a synthetic catalog,
+ * querying three title words with one typo in each word of four or more letters.
+ * Run manually: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.demo.product.catalog.FuzzySearchBenchmark [-Dexec.args=books]}.
+ */
+public class FuzzySearchBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ren", "tor", "vel", "sha", "dun", "bri", "el",
+            "gan", "thi", "mor", "quel", "ast", "ri", "pen", "wyn", "ul", "dra", "fen", "os", "cal", "ny"};
+    private static final int VOCABULARY = 30_000;
+    private static final int QUERIES = 2_000;
+
+    public static void main(String[] args) {
+        int books = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = new Random(42);
+
+        List<String> vocabulary = new ArrayList<>(VOCABULARY);
+        Set<String> seen = new HashSet<>();
+        while (vocabulary.size() < VOCABULARY) {
+            StringBuilder word = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            if (seen.add(word.toString())) {
+                vocabulary.add(word.toString());
+            }
+        }
+
+        FuzzyTitleIndex index = new FuzzyTitleIndex();
+        String[] titles = new String[books];
+        long start = System.nanoTime();
+        for (int i = 0; i < books; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 3 + random.nextInt(4); w > 0; w--) {
+                title.append(title.length() == 0 ? "" : " ").append(zipf(vocabulary, random));
+            }
+            titles[i] = title.toString();
+            index.upsert(Books.builder().id("BOOK-" + i).title(titles[i])
+                    .author(zipf(vocabulary, random) + " " + zipf(vocabulary, random)).build());
+        }
+        index.markReady();
+        System.out.printf("indexed %d books in %d ms%n", books, (System.nanoTime() - start) / 1_000_000);
+
+        for (int i = 0; i < 500; i++) {
+            index.search(typoQuery(titles[random.nextInt(books)], random), 10, id -> 0L);
+        }
+
+        long[] latencies = new long[QUERIES];
+        int found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            int target = random.nextInt(books);
+            String query = typoQuery(titles[target], random);
+            long t0 = System.nanoTime();
+            List<String> ids = index.search(query, 10, id -> 0L);
+            latencies[q] = System.nanoTime() - t0;
+            if (ids.contains("BOOK-" + target)) {
+                found++;
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("queries %d, recall@10 %.3f, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", QUERIES,
+                (double) found / QUERIES, latencies[QUERIES / 2] / 1e6, latencies[QUERIES * 99 / 100] / 1e6,
+                latencies[QUERIES - 1] / 1e6);
+    }
+
+    // Skewed word choice so that some words are very common, like real titles.
+    private static String zipf(List<String> vocabulary, Random random) {
+        double u = random.nextDouble();
+        return vocabulary.get((int) (Math.pow(u, 3) * vocabulary.size()));
+    }
+
+    private static String typoQuery(String title, Random random) {
+        String[] words = title.split(" ");
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < 3 && i < words.length; i++) {
+            query.append(i == 0 ? "" : " ").append(words[i].length() >= 4 ? typo(words[i], random) : words[i]);
+        }
+        return query.toString();
+    }
+
+    private static String typo(String word, Random random) {
+        int at = 1 + random.nextInt(word.length() - 2);
+        char c = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(4)) {
+            case 0: return word.substring(0, at) + word.substring(at + 1);
+            case 1: return word.substring(0, at) + c + word.substring(at);
+            case 2: return word.substring(0, at) + c + word.substring(at + 1);
+            default: return word.substring(0, at) + word.charAt(at + 1) + word.charAt(at) + word.substring(at + 2);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.demo.product.catalog;
+
+import com.demo.product.entity.Books;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyTitleIndexTest {
+
+    private FuzzyTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyTitleIndex();
+        index.upsert(book("BOOK-1", "Harry Potter and the Philosopher's Stone", "J. K. Rowling"));
+        index.upsert(book("BOOK-2", "Harry Potter and the Chamber of Secrets", "J. K. Rowling"));
+        index.upsert(book("BOOK-3", "The Hobbit", "J. R. R. Tolkien"));
+        index.upsert(book("BOOK-4", "Pottery for Beginners", "Harriet Potts"));
+        index.markReady();
+    }
+
+    private Books book(String id, String title, String author) {
+        return Books.builder().id(id).title(title).author(author).build();
+    }
+
+    private List<String> search(String query) {
+        return index.search(query, 10, id -> 0L);
+    }
+
+    @Test
+    void testMisspelledWordsStillMatch() {
+        List<String> ids = search("hary poter");
+
+        assertEquals(Arrays.asList("BOOK-1", "BOOK-2"), ids.subList(0, 2));
+        assertEquals(Collections.singletonList("BOOK-3"), search("tolkein hobit"));
+    }
+
+    @Test
+    void testSwappedLettersInShortWordsStillMatch() {
+        // "hrary" shares a single padded trigram with "harry".
+        assertEquals(Arrays.asList("BOOK-1", "BOOK-2"), search("hrary").subList(0, 2));
+        assertEquals(Collections.singletonList("BOOK-3"), search("hobbti"));
+    }
+
+    @Test
+    void testPopularityBreaksTiesBetweenEqualMatches() {
+        List<String> ids = index.search("hary poter", 10, id -> "BOOK-2".equals(id) ? 5000L : 0L);
+
+        assertEquals("BOOK-2", ids.get(0));
+    }
+
+    @Test
+    void testUpsertAndRemoveKeepIndexCurrent() {
+        index.upsert(book("BOOK-3", "The Silmarillion", "J. R. R. Tolkien"));
+        assertTrue(search("hobit").isEmpty());
+        assertEquals(Collections.singletonList("BOOK-3"), search("silmarilion"));
+
+        index.remove("BOOK-3");
+        assertTrue(search("silmarilion").isEmpty());
+    }
+
+    @Test
+    void testEditDistanceCountsTranspositionOnceAndStopsAtLimit() {
+        assertEquals(1, FuzzyTitleIndex.editDistance("hobbit", "hobbti", 2));
+        assertEquals(3, FuzzyTitleIndex.editDistance("potter", "pxxxer", 2));
+        assertEquals(0, FuzzyTitleIndex.maxEdits(2));
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.RelatedBooksDTO;
+import com.demo.product.entity.Books;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelatedBooksIndexTest {
+
+    private RelatedBooksIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RelatedBooksIndex();
+        index.upsert(book("BOOK-1", "The Fellowship of the Ring", "J. R. R. Tolkien", 4.8));
+        index.upsert(book("BOOK-2", "The Two Towers", "J. R. R. Tolkien", 4.6));
+        index.upsert(book("BOOK-3", "The Hobbit", "J.R.R. Tolkien", 4.9));
+        index.upsert(book("BOOK-4", "The Ring of Fire", "Someone Else", 3.1));
+        index.upsert(book("BOOK-5", "Cooking Basics", "Chef Person", 4.2));
+        index.markReady();
+    }
+
+    private Books book(String id, String title, String author, double rating) {
+        return Books.builder().id(id).title(title).author(author).publisher("Allen & Unwin")
+                .format("Hardcover").rating(rating).build();
+    }
+
+    private static List<String> ids(List<BookResponseDTO> books) {
+        return books.stream().map(BookResponseDTO::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testMoreByAuthorIsBestRatedFirstAndExcludesTheBook() {
+        RelatedBooksDTO related = index.related("BOOK-1", 10);
+
+        assertEquals(Collections.singletonList("BOOK-2"), ids(related.getMoreByAuthor()));
+        assertEquals("The Two Towers", related.getMoreByAuthor().get(0).getTitle());
+        assertNull(related.getMoreByAuthor().get(0).getDescription());
+    }
+
+    @Test
+    void testSimilarSkipsAuthorRailAndPrefersTitleOverlap() {
+        RelatedBooksDTO related = index.related("BOOK-1", 10);
+
+        // BOOK-4 shares "ring" with the title, so it beats the better-rated books.
+        assertEquals(Arrays.asList("BOOK-4", "BOOK-3", "BOOK-5"), ids(related.getSimilar()));
+        assertEquals(Collections.singletonList("BOOK-4"), ids(index.related("BOOK-1", 1).getSimilar()));
+    }
+
+    @Test
+    void testCoAuthorsAndUpdatesAreReflected() {
+        index.upsert(Books.builder().id("BOOK-6").title("Letters").author("Christopher Tolkien")
+                .coAuthors(Collections.singletonList("J. R. R. Tolkien")).rating(5.0).build());
+        index.upsert(book("BOOK-2", "The Two Towers", "Someone Else", 4.6));
+
+        assertEquals(Collections.singletonList("BOOK-6"), ids(index.related("BOOK-1", 10).getMoreByAuthor()));
+        assertEquals(Collections.singletonList("BOOK-4"), ids(index.related("BOOK-2", 10).getMoreByAuthor()));
+
+        index.remove("BOOK-6");
+        assertTrue(index.related("BOOK-1", 10).getMoreByAuthor().isEmpty());
+        assertNull(index.related("BOOK-6", 10));
+    }
+}
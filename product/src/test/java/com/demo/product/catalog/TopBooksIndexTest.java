@@ -0,0 +1,75 @@
+package com.demo.product.catalog;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.TopList;
+import com.demo.product.entity.Books;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopBooksIndexTest {
+
+    private TopBooksIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TopBooksIndex();
+        index.upsert(book("BOOK-1", "Hardcover", 4.8, 30.0, 40.0, 2001));
+        index.upsert(book("BOOK-2", "Paperback", 4.6, 10.0, 25.0, 2015));
+        index.upsert(book("BOOK-3", "Hardcover", 4.9, 50.0, 50.0, 1999));
+        index.upsert(book("BOOK-4", "Paperback", null, 12.0, null, 2020));
+        index.markReady();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Books book(String id, String format, Double rating, Double price, Double mrp, int year) {
+        return Books.builder().id(id).title("Title " + id).author("Author").format(format)
+                .rating(rating).price(price).mrpPrice(mrp).publishedDate(new Date(year - 1900, 0, 1)).build();
+    }
+
+    private static List<String> ids(List<BookResponseDTO> books) {
+        return books.stream().map(BookResponseDTO::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testListsAreOrderedAndSkipBooksWithoutTheField() {
+        assertEquals(Arrays.asList("BOOK-3", "BOOK-1", "BOOK-2"), ids(index.top(TopList.TOP_RATED, null, 10)));
+        assertEquals(Arrays.asList("BOOK-4", "BOOK-2"), ids(index.top(TopList.NEWEST, null, 2)));
+        assertEquals(Arrays.asList("BOOK-2", "BOOK-1", "BOOK-3"), ids(index.top(TopList.BEST_DISCOUNT, null, 10)));
+        assertEquals(Arrays.asList("BOOK-2", "BOOK-4", "BOOK-1", "BOOK-3"), ids(index.top(TopList.CHEAPEST, null, 10)));
+        assertEquals(15.0, index.top(TopList.BEST_DISCOUNT, null, 1).get(0).getDiscount());
+    }
+
+    @Test
+    void testFormatListsMatchFoldedFormat() {
+        assertEquals(Arrays.asList("BOOK-3", "BOOK-1"), ids(index.top(TopList.TOP_RATED, "hardcover", 10)));
+        assertEquals(Arrays.asList("BOOK-2", "BOOK-4"), ids(index.top(TopList.CHEAPEST, "PAPERBACK", 10)));
+        assertTrue(index.top(TopList.TOP_RATED, "Audiobook", 10).isEmpty());
+    }
+
+    @Test
+    void testUpdatesAndRemovalsReorderLists() {
+        index.upsert(book("BOOK-2", "Hardcover", 5.0, 10.0, 25.0, 2015));
+        index.remove("BOOK-3");
+
+        assertEquals(Arrays.asList("BOOK-2", "BOOK-1"), ids(index.top(TopList.TOP_RATED, null, 10)));
+        assertEquals(Arrays.asList("BOOK-2", "BOOK-1"), ids(index.top(TopList.TOP_RATED, "Hardcover", 10)));
+        assertTrue(index.top(TopList.TOP_RATED, "Paperback", 10).isEmpty());
+    }
+
+    @Test
+    void testTiesFollowTheListDirectionLikeMongo() {
+        index.upsert(book("BOOK-5", "Paperback", 4.9, 12.0, null, 2020));
+        index.upsert(book("BOOK-0", "Paperback", 4.9, 12.0, null, 2020));
+
+        // Mongo sorts (rating desc, id desc) and (price asc, id asc) for these lists.
+        assertEquals(Arrays.asList("BOOK-5", "BOOK-3", "BOOK-0"), ids(index.top(TopList.TOP_RATED, null, 3)));
+        assertEquals(Arrays.asList("BOOK-2", "BOOK-0", "BOOK-4", "BOOK-5"), ids(index.top(TopList.CHEAPEST, null, 4)));
+    }
+}
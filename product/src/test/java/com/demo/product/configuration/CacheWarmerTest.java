@@ -0,0 +1,80 @@
+package com.demo.product.configuration;
+
+import com.demo.product.cache.CatalogGeneration;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.service.BookService;
+import com.demo.product.service.SearchAnalyticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private SearchAnalyticsService searchAnalytics;
+
+    @Mock
+    private CatalogGeneration catalogGeneration;
+
+    @InjectMocks
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cacheWarmer, "enabled", true);
+        ReflectionTestUtils.setField(cacheWarmer, "ratePerSecond", 1000);
+        ReflectionTestUtils.setField(cacheWarmer, "maxDurationMs", 60000L);
+        ReflectionTestUtils.setField(cacheWarmer, "costlySearches", 1);
+        ReflectionTestUtils.setField(cacheWarmer, "costlyPageSize", 10);
+    }
+
+    @Test
+    void testRun_ReplaysPersistedHotKeys() {
+        when(hotKeys.restore()).thenReturn(Arrays.asList(
+                new AbstractMap.SimpleImmutableEntry<>("b|BOOK-1000001", 3L),
+                new AbstractMap.SimpleImmutableEntry<>("s|1|20|all|tolkien", 2L)));
+
+        cacheWarmer.run(new DefaultApplicationArguments());
+
+        verify(bookService).getBook("BOOK-1000001");
+        verify(bookService).search(eq("tolkien"), eq(1), eq(20), eq(Collections.emptySet()));
+        assertEquals("UP", cacheWarmer.health().getStatus().getCode());
+    }
+
+    @Test
+    void testRewarm_RunsCostliestSearchesOncePerGenerationAfterStartup() {
+        when(hotKeys.restore()).thenReturn(Collections.emptyList());
+        when(searchAnalytics.precacheCandidates(1)).thenReturn(Collections.singletonList("tolkien"));
+        when(catalogGeneration.current()).thenReturn(7L, 7L, 8L);
+
+        cacheWarmer.rewarm();
+        verifyNoInteractions(searchAnalytics);
+
+        cacheWarmer.run(new DefaultApplicationArguments());
+        cacheWarmer.rewarm();
+        cacheWarmer.rewarm();
+        cacheWarmer.rewarm();
+
+        verify(bookService, times(2)).search(eq("tolkien"), eq(0), eq(10), anySet());
+    }
+}
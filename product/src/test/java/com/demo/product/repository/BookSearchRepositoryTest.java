@@ -0,0 +1,89 @@
+package com.demo.product.repository;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.entity.Books;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchRepositoryTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ReplicaReadRouter readRouter;
+
+    @InjectMocks
+    private BookSearchRepository searchRepository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(readRouter.forRead(any(ReadPath.class))).thenReturn(mongoTemplate);
+        lenient().when(readRouter.forBook(anyString())).thenReturn(mongoTemplate);
+    }
+
+    private Document capturedFilter(BookListFilterDTO filter) {
+        when(mongoTemplate.find(any(Query.class), eq(Books.class))).thenReturn(new ArrayList<>());
+        searchRepository.findBooks(filter, 0, 10);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Books.class));
+        List<?> and = (List<?>) captor.getValue().getQueryObject().get("$and");
+        return (Document) and.get(0);
+    }
+
+    @Test
+    void testExactMatch_UsesFoldedEquality() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setAuthor("  Émile ZOLA ");
+        filter.setMatch("exact");
+
+        assertEquals("emile zola", capturedFilter(filter).get("authorFolded"));
+    }
+
+    @Test
+    void testPrefixMatch_UsesAnchoredCaseSensitiveRegex() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setTitle("Harry P.");
+        filter.setMatch("prefix");
+
+        Pattern pattern = (Pattern) capturedFilter(filter).get("titleFolded");
+        assertEquals("^harry p\\.", pattern.pattern());
+        assertEquals(0, pattern.flags() & Pattern.CASE_INSENSITIVE);
+    }
+
+    @Test
+    void testDefaultMatch_IsEscapedContains() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setFormat("(Paperback)");
+
+        Pattern pattern = (Pattern) capturedFilter(filter).get("formatFolded");
+        assertEquals("\\(paperback\\)", pattern.pattern());
+    }
+
+    @Test
+    void testInvalidMatchMode_Rejected() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setTitle("x");
+        filter.setMatch("fuzzy");
+
+        assertThrows(IllegalArgumentException.class, () -> searchRepository.findBooks(filter, 0, 10));
+    }
+}
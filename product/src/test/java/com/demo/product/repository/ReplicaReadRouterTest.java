@@ -0,0 +1,75 @@
+package com.demo.product.repository;
+
+import com.demo.product.cache.RecentWrites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaReadRouterTest {
+
+    private ReplicaReadRouter router;
+    private SimpleMeterRegistry meterRegistry;
+    private MongoTemplate primary;
+    private MongoTemplate secondary;
+    private RecentWrites recentWrites;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = mock(MongoTemplate.class);
+        secondary = mock(MongoTemplate.class);
+        recentWrites = mock(RecentWrites.class);
+
+        router = new ReplicaReadRouter();
+        router.mongoTemplate = primary;
+        router.secondaryTemplate = secondary;
+        router.recentWrites = recentWrites;
+        router.meterRegistry = meterRegistry;
+        router.secondaryReads = new HashSet<>(Arrays.asList("book", "search"));
+        router.registerMeters();
+    }
+
+    private double reads(String path, String target) {
+        return meterRegistry.counter("product.mongo.reads", "path", path, "target", target).count();
+    }
+
+    @Test
+    void testConfiguredPathsGoToSecondary() {
+        assertSame(secondary, router.forRead(ReadPath.SEARCH));
+        assertSame(secondary, router.forBook("BOOK-123456"));
+        assertSame(primary, router.forRead(ReadPath.FILTER));
+
+        assertEquals(1.0, reads("search", "secondary"));
+        assertEquals(1.0, reads("book", "secondary"));
+        assertEquals(1.0, reads("filter", "primary"));
+    }
+
+    @Test
+    void testRecentWritesPinReadsToPrimary() {
+        when(recentWrites.isBookRecent("BOOK-123456")).thenReturn(true);
+        when(recentWrites.isCatalogRecent()).thenReturn(true);
+
+        assertSame(primary, router.forBook("BOOK-123456"));
+        assertSame(primary, router.forRead(ReadPath.SEARCH));
+
+        assertEquals(1.0, reads("book", "pinned"));
+        assertEquals(1.0, reads("search", "pinned"));
+    }
+
+    @Test
+    void testWithoutReplicaSetEverythingReadsPrimary() {
+        router.secondaryTemplate = null;
+
+        assertSame(primary, router.forBook("BOOK-123456"));
+        verifyNoInteractions(recentWrites);
+        assertEquals(1.0, reads("book", "primary"));
+        assertEquals(0.0, reads("book", "secondary"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookPatchDTO;
+import com.demo.product.DTO.BulkUpdateReportDTO;
+import com.demo.product.DTO.BulkUpdateStatus;
+import com.demo.product.cache.BookCacheInvalidator;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.event.BookChangedEvent;
+import com.demo.product.service.impl.BookBulkUpdateServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookBulkUpdateServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private CatalogChangeService changeFeed;
+
+    @Mock
+    private BookCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BookBulkUpdateServiceImpl bulkUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkUpdateService, "batchSize", 1000);
+        ReflectionTestUtils.setField(bulkUpdateService, "maxItems", 100);
+        ReflectionTestUtils.setField(bulkUpdateService, "evictLimit", 500);
+    }
+
+    private Books book(String id, double price, int stock) {
+        return Books.builder().id(id).title("T").price(price).stockAvailable(stock).build();
+    }
+
+    @Test
+    void testUpdateBooks_ReportsPerItemAndInvalidatesOnce() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.find(any(Query.class), eq(Books.class)))
+                .thenReturn(Arrays.asList(book("BOOK-1", 9.0, 5), book("BOOK-2", 20.0, 7)));
+
+        BulkUpdateReportDTO report = bulkUpdateService.updateBooks(Arrays.asList(
+                new BookPatchDTO("BOOK-1", 9.0, null, null),
+                new BookPatchDTO("BOOK-2", null, null, 7),
+                new BookPatchDTO("BOOK-3", 5.0, null, null),
+                new BookPatchDTO("BOOK-4", -1.0, null, null),
+                new BookPatchDTO("BOOK-1", null, null, 3)));
+
+        assertEquals(5, report.getProcessed());
+        assertEquals(2, report.getUpdated());
+        assertEquals(1, report.getNotFound());
+        assertEquals(2, report.getFailed());
+        assertEquals(BulkUpdateStatus.UPDATED, report.getResults().get(0).getStatus());
+        assertEquals(BulkUpdateStatus.NOT_FOUND, report.getResults().get(2).getStatus());
+        assertEquals(BulkUpdateStatus.INVALID, report.getResults().get(3).getStatus());
+        assertEquals(BulkUpdateStatus.INVALID, report.getResults().get(4).getStatus());
+
+        verify(bulkOperations, times(3)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(changeFeed).recordAll(eq(ChangeType.PRICE_CHANGED), argThat(books -> books.size() == 1
+                && "BOOK-1".equals(books.get(0).getId())));
+        verify(changeFeed).recordAll(eq(ChangeType.UPDATED), argThat(books -> books.size() == 1
+                && "BOOK-2".equals(books.get(0).getId())));
+        verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+        verify(cacheInvalidator).evictBooks(Arrays.asList("BOOK-1", "BOOK-2"));
+        verify(cacheInvalidator, times(1)).invalidatePages();
+        verify(cacheInvalidator, never()).clearBooks();
+    }
+
+    @Test
+    void testUpdateBooks_PriceAboveMrpIsRejectedWithoutWriting() {
+        BulkUpdateReportDTO report = bulkUpdateService.updateBooks(Collections.singletonList(
+                new BookPatchDTO("BOOK-1", 12.0, 10.0, null)));
+
+        assertEquals(1, report.getFailed());
+        assertEquals("Price cannot exceed MRP price", report.getResults().get(0).getMessage());
+        verifyNoInteractions(mongoTemplate, cacheInvalidator, changeFeed);
+    }
+
+    @Test
+    void testUpdateBooks_TooManyItems() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkUpdateService.updateBooks(Collections.nCopies(101, new BookPatchDTO("BOOK-1", 1.0, null, null))));
+    }
+
+    @Test
+    void testUpdateBooks_FailureAfterAWrittenBatchStillInvalidates() {
+        ReflectionTestUtils.setField(bulkUpdateService, "batchSize", 1);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class)).thenReturn(bulkOperations);
+        when(mongoTemplate.find(any(Query.class), eq(Books.class)))
+                .thenReturn(Collections.singletonList(book("BOOK-1", 9.0, 5)))
+                .thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> bulkUpdateService.updateBooks(Arrays.asList(
+                new BookPatchDTO("BOOK-1", null, null, 4),
+                new BookPatchDTO("BOOK-2", null, null, 6))));
+
+        verify(cacheInvalidator).evictBooks(Arrays.asList("BOOK-1", "BOOK-2"));
+        verify(cacheInvalidator).invalidatePages();
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.product.service;
+
+import com.demo.product.repository.SequenceRepository;
+import com.demo.product.service.impl.BookIdAllocatorImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookIdAllocatorTest {
+
+    @Mock
+    private SequenceRepository sequenceRepository;
+
+    @InjectMocks
+    private BookIdAllocatorImpl idAllocator;
+
+    @Test
+    void testNextId_LeasesOneBlockPerBlockSizeIds() {
+        ReflectionTestUtils.setField(idAllocator, "blockSize", 3L);
+        when(sequenceRepository.advance("books", 3L)).thenReturn(3L, 9L);
+
+        assertEquals("BOOK-1000001", idAllocator.nextId());
+        assertEquals("BOOK-1000002", idAllocator.nextId());
+        assertEquals("BOOK-1000003", idAllocator.nextId());
+        assertEquals("BOOK-1000007", idAllocator.nextId());
+
+        verify(sequenceRepository, times(2)).advance("books", 3L);
+    }
+
+    @Test
+    void testIsGenerated_OnlyForIdsAboveTheLegacyRange() {
+        assertTrue(idAllocator.isGenerated("BOOK-1000001"));
+        assertFalse(idAllocator.isGenerated("BOOK-123456"));
+        assertFalse(idAllocator.isGenerated("BOOK-1000000"));
+        assertFalse(idAllocator.isGenerated("ISBN-1000001"));
+        assertFalse(idAllocator.isGenerated("BOOK-x"));
+    }
+}
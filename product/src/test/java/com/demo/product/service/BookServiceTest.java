@@ -1,22 +1,51 @@
 package com.demo.product.service;
 
+import com.demo.product.DTO.BookCursor;
+import com.demo.product.DTO.BookFacetPageDTO;
+import com.demo.product.DTO.BookFieldSet;
 import com.demo.product.DTO.BookListFilterDTO;
 import com.demo.product.DTO.BookRequestDTO;
 import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.DTO.BookSortField;
+import com.demo.product.DTO.BookStamp;
+import com.demo.product.DTO.CountMode;
+import com.demo.product.DTO.CursorPageDTO;
+import com.demo.product.DTO.FacetBucketDTO;
+import com.demo.product.cache.CacheKeys;
+import com.demo.product.cache.CatalogGeneration;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.cache.MissingBookCache;
+import com.demo.product.cache.RecentWrites;
+import com.demo.product.catalog.FuzzyTitleIndex;
 import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.event.BookChangedEvent;
 import com.demo.product.exception.ResourceNotFoundException;
 import com.demo.product.repository.BookSearchRepository;
 import com.demo.product.repository.BookServiceRepository;
+import com.demo.product.repository.FacetedBooks;
 import com.demo.product.service.impl.BookServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.bson.Document;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,15 +60,61 @@ class BookServiceTest {
     @Mock
     private BookSearchRepository searchRepository;
 
+    @Mock
+    private CatalogGeneration catalogGeneration;
+
+    @Mock
+    private BookCountService countService;
+
+    @Mock
+    private CacheKeys cacheKeys;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache facetCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BookIdAllocator idAllocator;
+
+    @Mock
+    private MissingBookCache missingBooks;
+
+    @Mock
+    private CatalogChangeService changeFeed;
+
+    @Mock
+    private FuzzyTitleIndex fuzzyIndex;
+
+    @Mock
+    private HotKeyTracker hotKeys;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RecentWrites recentWrites;
+
+    @Mock
+    private SearchAnalyticsService searchAnalytics;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
+    private static final Set<String> ALL_FIELDS = Collections.emptySet();
+
     private BookRequestDTO bookRequest;
     private Books savedBook;
     private BookResponseDTO expectedResponse;
 
     @BeforeEach
     void setUp() {
+        lenient().when(changeFeed.inTransaction(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+
         bookRequest = new BookRequestDTO();
         bookRequest.setTitle("Test Book");
         bookRequest.setAuthor("Test Author");
@@ -68,7 +143,7 @@ class BookServiceTest {
     @Test
     void testGetBook_Success() {
         String bookId = "BOOK-123456";
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(savedBook));
+        when(searchRepository.findBook(bookId)).thenReturn(Optional.of(savedBook));
 
         BookResponseDTO result = bookService.getBook(bookId);
 
@@ -78,19 +153,30 @@ class BookServiceTest {
         assertEquals("Test Author", result.getAuthor());
         assertEquals(99.99, result.getPrice());
 
-        verify(bookRepository, times(1)).findById(bookId);
+        verify(searchRepository, times(1)).findBook(bookId);
     }
 
     @Test
     void testGetBook_NotFound() {
         String bookId = "BOOK-999999";
-        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+        when(searchRepository.findBook(bookId)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             bookService.getBook(bookId);
         });
 
-        verify(bookRepository, times(1)).findById(bookId);
+        verify(searchRepository, times(1)).findBook(bookId);
+        verify(missingBooks, times(1)).markMissing(bookId);
+    }
+
+    @Test
+    void testGetBook_KnownMissingSkipsRepository() {
+        String bookId = "BOOK-999999";
+        when(missingBooks.isMissing(bookId)).thenReturn(true);
+
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBook(bookId));
+
+        verifyNoInteractions(bookRepository, searchRepository);
     }
 
     @Test
@@ -117,6 +203,7 @@ class BookServiceTest {
         verify(bookRepository, times(1)).findByTitleContainingIgnoreCase(keyword);
         verify(bookRepository, times(1)).findByAuthorContainingIgnoreCase(keyword);
         verify(bookRepository, times(1)).findByPublisherContainingIgnoreCase(keyword);
+        verify(searchAnalytics).recordExecution(eq(keyword), anyLong());
     }
 
 
@@ -160,5 +247,386 @@ class BookServiceTest {
         assertEquals(0, result.getTotalElements());
         assertTrue(result.getContent().isEmpty());
     }
-}
 
+    @Test
+    void testCreateBook_BumpsCatalogGeneration() {
+        when(idAllocator.nextId()).thenReturn("BOOK-123456");
+        when(bookRepository.insert(any(Books.class))).thenReturn(savedBook);
+
+        BookResponseDTO result = bookService.createBook(bookRequest);
+
+        assertEquals("BOOK-123456", result.getId());
+        verify(bookRepository, never()).findById(anyString());
+        verify(missingBooks, times(1)).forget("BOOK-123456");
+        verify(catalogGeneration, times(1)).bump();
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.saved(savedBook));
+    }
+
+    @Test
+    void testUpdateBook_BumpsCatalogGeneration() {
+        when(bookRepository.findById("BOOK-123456")).thenReturn(Optional.of(savedBook));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Books.class)))
+                .thenReturn(savedBook);
+
+        bookService.updateBook("BOOK-123456", bookRequest);
+
+        verify(catalogGeneration, times(1)).bump();
+        verify(recentWrites).markBooks(Collections.singleton("BOOK-123456"));
+    }
+
+    @Test
+    void testDeleteBook_BumpsCatalogGeneration() {
+        when(bookRepository.findById("BOOK-123456")).thenReturn(Optional.of(savedBook));
+
+        bookService.deleteBook("BOOK-123456");
+
+        verify(bookRepository, times(1)).delete(savedBook);
+        verify(catalogGeneration, times(1)).bump();
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.deleted("BOOK-123456"));
+    }
+
+    @Test
+    void testSearch_TrimsKeyword() {
+        when(bookRepository.findByTitleContainingIgnoreCase("test")).thenReturn(Arrays.asList(savedBook));
+        when(bookRepository.findByAuthorContainingIgnoreCase("test")).thenReturn(new ArrayList<>());
+        when(bookRepository.findByPublisherContainingIgnoreCase("test")).thenReturn(new ArrayList<>());
+
+        Page<BookResponseDTO> result = bookService.search("  test ", 0, 10);
+
+        assertEquals(1, result.getTotalElements());
+    }
+
+    @Test
+    void testGetBooksByCursor_FirstPageHasNext() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        Books second = Books.builder().id("BOOK-223456").title("Second").price(120.0).build();
+
+        when(searchRepository.filterBooksAfter(filter, BookSortField.PRICE, Sort.Direction.ASC, null, 2, ALL_FIELDS))
+                .thenReturn(Arrays.asList(savedBook, second));
+
+        CursorPageDTO<BookResponseDTO> result = bookService.getBooksByCursor(
+                filter, "", BookSortField.PRICE, Sort.Direction.ASC, 1, false, ALL_FIELDS);
+
+        assertTrue(result.isHasNext());
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getTotalElements());
+        BookCursor next = BookCursor.decode(result.getNextCursor());
+        assertEquals(99.99, next.getLastValue());
+        assertEquals("BOOK-123456", next.getLastId());
+        verify(countService, never()).cachedCount(any());
+    }
+
+    @Test
+    void testGetBooksByCursor_LastPageWithTotal() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        String cursor = new BookCursor(BookSortField.PRICE, Sort.Direction.ASC, 50.0, "BOOK-100000").encode();
+
+        when(searchRepository.filterBooksAfter(eq(filter), eq(BookSortField.PRICE), eq(Sort.Direction.ASC),
+                any(BookCursor.class), eq(11), eq(ALL_FIELDS))).thenReturn(Arrays.asList(savedBook));
+        when(countService.cachedCount(filter)).thenReturn(7L);
+
+        CursorPageDTO<BookResponseDTO> result = bookService.getBooksByCursor(
+                filter, cursor, BookSortField.PRICE, Sort.Direction.ASC, 10, true, ALL_FIELDS);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(7L, result.getTotalElements());
+    }
+
+    @Test
+    void testGetBooksByCursor_RejectsCursorForOtherSort() {
+        String cursor = new BookCursor(BookSortField.RATING, Sort.Direction.DESC, 4.5, "BOOK-100000").encode();
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksByCursor(
+                new BookListFilterDTO(), cursor, BookSortField.PRICE, Sort.Direction.ASC, 10, false, ALL_FIELDS));
+    }
+
+    @Test
+    void testGetBooksByCursor_RejectsGarbageCursor() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksByCursor(
+                new BookListFilterDTO(), "not-a-cursor", BookSortField.ID, Sort.Direction.ASC, 10, false, ALL_FIELDS));
+    }
+
+    @Test
+    void testGetBooksWithCountMode_NoneFetchesOneExtraRow() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        Books second = Books.builder().id("BOOK-223456").title("Second").price(120.0).build();
+
+        when(searchRepository.findBooks(filter, 10L, 2, ALL_FIELDS)).thenReturn(Arrays.asList(savedBook, second));
+
+        Slice<BookResponseDTO> result = bookService.getBooks(filter, 10, 1, CountMode.NONE, ALL_FIELDS);
+
+        assertFalse(result instanceof Page);
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getNumberOfElements());
+        verifyNoInteractions(countService);
+    }
+
+    @Test
+    void testGetBooksSortedByDiscount_PassesSortToRepository() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+
+        when(searchRepository.findBooks(filter, 0L, 11, ALL_FIELDS, BookSortField.DISCOUNT, Sort.Direction.DESC))
+                .thenReturn(Arrays.asList(savedBook));
+
+        Slice<BookResponseDTO> result = bookService.getBooks(filter, 0, 10, CountMode.NONE, ALL_FIELDS,
+                BookSortField.DISCOUNT, Sort.Direction.DESC);
+
+        assertEquals(1, result.getNumberOfElements());
+        assertFalse(result.hasNext());
+        verify(searchRepository, never()).findBooks(any(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testGetBooksWithCountMode_CachedUsesCountCache() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        List<Books> fullPage = Collections.nCopies(10, savedBook);
+
+        when(searchRepository.findBooks(filter, 0L, 10, ALL_FIELDS)).thenReturn(fullPage);
+        when(countService.cachedCount(filter)).thenReturn(42L);
+
+        Slice<BookResponseDTO> result = bookService.getBooks(filter, 0, 10, CountMode.CACHED, ALL_FIELDS);
+
+        assertEquals(42L, ((Page<BookResponseDTO>) result).getTotalElements());
+        verify(searchRepository, never()).countBooks(any());
+    }
+
+    @Test
+    void testGetBooksWithCountMode_ShortFirstPageSkipsCount() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+
+        when(searchRepository.findBooks(filter, 0L, 10, ALL_FIELDS)).thenReturn(Arrays.asList(savedBook));
+
+        Slice<BookResponseDTO> result = bookService.getBooks(filter, 0, 10, CountMode.EXACT, ALL_FIELDS);
+
+        assertEquals(1L, ((Page<BookResponseDTO>) result).getTotalElements());
+        verifyNoInteractions(countService);
+    }
+
+    @Test
+    void testGetBooksWithCountMode_EstimatedDelegatesToCountService() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setFormat("Paperback");
+        List<Books> moreThanAPage = Collections.nCopies(11, savedBook);
+
+        when(searchRepository.findBooks(filter, 0L, 11, ALL_FIELDS)).thenReturn(moreThanAPage);
+        when(countService.estimatedCount(filter)).thenReturn(250L);
+
+        Slice<BookResponseDTO> result = bookService.getBooks(filter, 0, 10, CountMode.ESTIMATED, ALL_FIELDS);
+
+        assertEquals(250L, ((Page<BookResponseDTO>) result).getTotalElements());
+        assertEquals(10, result.getNumberOfElements());
+    }
+
+    @Test
+    void testGetBooksWithCountMode_EstimatePastTheCapIsASliceWithoutTotal() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        filter.setFormat("Paperback");
+
+        when(searchRepository.findBooks(filter, 0L, 11, ALL_FIELDS)).thenReturn(Collections.nCopies(11, savedBook));
+        when(countService.estimatedCount(filter)).thenReturn(null);
+
+        Slice<BookResponseDTO> result = bookService.getBooks(filter, 0, 10, CountMode.ESTIMATED, ALL_FIELDS);
+
+        assertFalse(result instanceof Page);
+        assertTrue(result.hasNext());
+        assertEquals(10, result.getNumberOfElements());
+    }
+
+    @Test
+    void testGetBooksWithFacets_ComputesAndCachesFacetsOnMiss() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        Map<String, List<FacetBucketDTO>> facets = new LinkedHashMap<>();
+        facets.put("format", Arrays.asList(new FacetBucketDTO("paperback", 3)));
+
+        when(cacheManager.getCache("bookFacets")).thenReturn(facetCache);
+        when(cacheKeys.facets(filter)).thenReturn("facets:g1:");
+        when(facetCache.get("facets:g1:")).thenReturn(null);
+        when(searchRepository.facetBooks(filter, 10L, 10, true, ALL_FIELDS))
+                .thenReturn(new FacetedBooks(Arrays.asList(savedBook), 11, facets));
+
+        BookFacetPageDTO result = bookService.getBooksWithFacets(filter, 1, 10, ALL_FIELDS);
+
+        assertEquals(11, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(facets, result.getFacets());
+        verify(facetCache).put("facets:g1:", facets);
+    }
+
+    @Test
+    void testGetBooksWithFacets_SkipsFacetStagesWhenCached() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        Map<String, List<FacetBucketDTO>> facets = new LinkedHashMap<>();
+
+        when(cacheManager.getCache("bookFacets")).thenReturn(facetCache);
+        when(cacheKeys.facets(filter)).thenReturn("facets:g1:");
+        when(facetCache.get("facets:g1:")).thenReturn(new SimpleValueWrapper(facets));
+        when(searchRepository.facetBooks(filter, 0L, 10, false, ALL_FIELDS))
+                .thenReturn(new FacetedBooks(Arrays.asList(savedBook), 1, null));
+
+        BookFacetPageDTO result = bookService.getBooksWithFacets(filter, 0, 10, ALL_FIELDS);
+
+        assertSame(facets, result.getFacets());
+        verify(facetCache, never()).put(any(), any());
+    }
+
+    @Test
+    void testSearch_SummaryFieldsUseProjectedQuery() {
+        Set<String> summary = BookFieldSet.parseListing(null);
+        Books projected = Books.builder().id("BOOK-123456").title("Test Book").author("Test Author").price(99.99).build();
+
+        when(searchRepository.searchKeyword("test", summary)).thenReturn(Arrays.asList(projected));
+
+        Page<BookResponseDTO> result = bookService.search(" test ", 0, 10, summary);
+
+        assertEquals(1, result.getTotalElements());
+        assertNull(result.getContent().get(0).getDescription());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testSearch_AllFieldsKeepsFullLookup() {
+        when(bookRepository.findByTitleContainingIgnoreCase("test")).thenReturn(Arrays.asList(savedBook));
+        when(bookRepository.findByAuthorContainingIgnoreCase("test")).thenReturn(new ArrayList<>());
+        when(bookRepository.findByPublisherContainingIgnoreCase("test")).thenReturn(new ArrayList<>());
+
+        Page<BookResponseDTO> result = bookService.search("test", 0, 10, ALL_FIELDS);
+
+        assertEquals(1, result.getTotalElements());
+        verifyNoInteractions(searchRepository);
+    }
+
+    @Test
+    void testGetBooksByCursor_DropsSortFieldNotRequested() {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        Set<String> fields = BookFieldSet.parseListing("title");
+        Books second = Books.builder().id("BOOK-223456").title("Second").price(120.0).build();
+
+        when(searchRepository.filterBooksAfter(filter, BookSortField.PRICE, Sort.Direction.ASC, null, 2, fields))
+                .thenReturn(Arrays.asList(savedBook, second));
+
+        CursorPageDTO<BookResponseDTO> result = bookService.getBooksByCursor(
+                filter, null, BookSortField.PRICE, Sort.Direction.ASC, 1, false, fields);
+
+        assertEquals(99.99, BookCursor.decode(result.getNextCursor()).getLastValue());
+        assertNull(result.getContent().get(0).getPrice());
+        assertEquals("Test Book", result.getContent().get(0).getTitle());
+    }
+
+    @Test
+    void testUpdateBook_RecordsPriceChange() {
+        when(bookRepository.findById("BOOK-123456")).thenReturn(Optional.of(savedBook));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Books.class)))
+                .thenReturn(savedBook);
+        bookRequest.setPrice(79.99);
+
+        bookService.updateBook("BOOK-123456", bookRequest);
+
+        verify(changeFeed).record(eq(ChangeType.PRICE_CHANGED), eq("BOOK-123456"), any(Books.class));
+    }
+
+    @Test
+    void testDeleteBook_RecordsDeletion() {
+        when(bookRepository.findById("BOOK-123456")).thenReturn(Optional.of(savedBook));
+
+        bookService.deleteBook("BOOK-123456");
+
+        verify(changeFeed).record(ChangeType.DELETED, "BOOK-123456", null);
+    }
+
+    @Test
+    void testUpdateBook_BumpsRevision() {
+        savedBook.setRevision(3L);
+        when(bookRepository.findById("BOOK-123456")).thenReturn(Optional.of(savedBook));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Books.class)))
+                .thenReturn(savedBook);
+
+        BookResponseDTO result = bookService.updateBook("BOOK-123456", bookRequest);
+
+        assertEquals(4L, result.getRevision());
+        assertNotNull(result.getLastModified());
+    }
+
+    @Test
+    void testUpdateBook_WritesOnlyRequestedFieldsAndLeavesStockAlone() {
+        savedBook.setStockAvailable(10);
+        when(bookRepository.findById("BOOK-123456")).thenReturn(Optional.of(savedBook));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Books.class)))
+                .thenReturn(savedBook);
+
+        bookService.updateBook("BOOK-123456", bookRequest);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Books.class));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals("Test Book", set.get("title"));
+        assertEquals("test book", set.get("titleFolded"));
+        assertFalse(set.containsKey("stockAvailable"));
+        assertEquals(new Document("revision", 1), update.getValue().getUpdateObject().get("$inc"));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetBookStamp_UsesCachedBook() {
+        Cache books = mock(Cache.class);
+        BookResponseDTO cached = new BookResponseDTO();
+        cached.setId("BOOK-123456");
+        cached.setRevision(2L);
+        cached.setLastModified(new Date(1000L));
+        when(cacheManager.getCache("books")).thenReturn(books);
+        when(books.get("BOOK-123456", BookResponseDTO.class)).thenReturn(cached);
+
+        BookStamp stamp = bookService.getBookStamp("BOOK-123456");
+
+        assertEquals("\"2-1000\"", stamp.eTag());
+        verifyNoInteractions(searchRepository, bookRepository);
+    }
+
+    @Test
+    void testGetBookStamp_MissReadsOnlyTheStamp() {
+        Books stored = Books.builder().id("BOOK-123456").revision(5L).lastModified(new Date(2000L)).build();
+        when(searchRepository.findStamp("BOOK-123456")).thenReturn(stored);
+
+        BookStamp stamp = bookService.getBookStamp("BOOK-123456");
+
+        assertEquals("\"5-2000\"", stamp.eTag());
+        assertEquals(2000L, stamp.lastModifiedMillis());
+        verify(bookRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testGetBookStamp_NotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookStamp("BOOK-999999"));
+        verify(missingBooks).markMissing("BOOK-999999");
+    }
+
+    @Test
+    void testSearch_FewExactMatchesAppendFuzzyMatches() {
+        Set<String> summary = BookFieldSet.parseListing(null);
+        Books exact = Books.builder().id("BOOK-123456").title("Hary Poter Parody").build();
+        Books fuzzy = Books.builder().id("BOOK-223456").title("Harry Potter").build();
+        ReflectionTestUtils.setField(bookService, "fuzzyMinResults", 5);
+        ReflectionTestUtils.setField(bookService, "fuzzyMaxResults", 50);
+        when(fuzzyIndex.isReady()).thenReturn(true);
+        when(searchRepository.searchKeyword("hary poter", summary)).thenReturn(Arrays.asList(exact));
+        when(fuzzyIndex.search(eq("hary poter"), eq(51), any())).thenReturn(Arrays.asList("BOOK-123456", "BOOK-223456"));
+        when(searchRepository.findByIds(Collections.singletonList("BOOK-223456"), summary)).thenReturn(Arrays.asList(fuzzy));
+
+        Page<BookResponseDTO> result = bookService.search("hary poter", 0, 10, summary);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals("BOOK-123456", result.getContent().get(0).getId());
+        assertEquals("BOOK-223456", result.getContent().get(1).getId());
+    }
+
+    @Test
+    void testSearch_EnoughExactMatchesSkipFuzzyIndex() {
+        ReflectionTestUtils.setField(bookService, "fuzzyMinResults", 1);
+        when(fuzzyIndex.isReady()).thenReturn(true);
+        when(searchRepository.searchKeyword("test", BookFieldSet.parseListing(null))).thenReturn(Arrays.asList(savedBook));
+
+        bookService.search("test", 0, 10, BookFieldSet.parseListing(null));
+
+        verify(fuzzyIndex, never()).search(anyString(), anyInt(), any());
+    }
+}
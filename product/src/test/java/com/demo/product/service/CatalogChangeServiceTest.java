@@ -0,0 +1,151 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.CatalogChangesDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.CatalogChange;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.repository.CatalogChangeRepository;
+import com.demo.product.service.impl.CatalogChangeServiceImpl;
+import com.mongodb.client.ClientSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeServiceTest {
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    @InjectMocks
+    private CatalogChangeServiceImpl changeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(changeService, "settleMs", 2000L);
+    }
+
+    private CatalogChange change(long version, long ageMs) {
+        return CatalogChange.builder().version(version).bookId("BOOK-" + version).type(ChangeType.UPDATED)
+                .changedAt(new Date(System.currentTimeMillis() - ageMs)).build();
+    }
+
+    @Test
+    void testRecordAllUsesOneBlockOfVersions() {
+        when(changeRepository.allocateVersions(2)).thenReturn(12L);
+
+        changeService.recordAll(ChangeType.CREATED, Arrays.asList(
+                Books.builder().id("BOOK-1").build(), Books.builder().id("BOOK-2").build()));
+
+        ArgumentCaptor<List<CatalogChange>> saved = ArgumentCaptor.forClass(List.class);
+        verify(changeRepository).insertAll(saved.capture());
+        assertEquals(11L, saved.getValue().get(0).getVersion());
+        assertEquals(12L, saved.getValue().get(1).getVersion());
+    }
+
+    @Test
+    void testVersionIsAllocatedOutsideTheTransaction() {
+        MongoDbFactory dbFactory = mock(MongoDbFactory.class);
+        when(dbFactory.getSession(any())).thenReturn(mock(ClientSession.class, RETURNS_DEEP_STUBS));
+        MongoTransactionManager transactionManager = new MongoTransactionManager(dbFactory);
+        ReflectionTestUtils.setField(changeService, "transactionManager", transactionManager);
+        when(changeRepository.allocateVersions(1)).thenAnswer(inv -> {
+            assertNull(TransactionSynchronizationManager.getResource(dbFactory));
+            return 7L;
+        });
+
+        changeService.inTransaction(() -> {
+            assertNotNull(TransactionSynchronizationManager.getResource(dbFactory));
+            changeService.record(ChangeType.UPDATED, "BOOK-1", Books.builder().id("BOOK-1").build());
+            return null;
+        });
+
+        ArgumentCaptor<List<CatalogChange>> saved = ArgumentCaptor.forClass(List.class);
+        verify(changeRepository).insertAll(saved.capture());
+        assertEquals(7L, saved.getValue().get(0).getVersion());
+    }
+
+    @Test
+    void testRecentGapHoldsBackLaterChanges() {
+        when(changeRepository.findAfter(10, 100)).thenReturn(Arrays.asList(change(11, 100), change(13, 100)));
+
+        CatalogChangesDTO result = changeService.changesSince(10, 100);
+
+        assertEquals(1, result.getChanges().size());
+        assertEquals(11, result.getNextSince());
+        assertTrue(result.isHasMore());
+    }
+
+    @Test
+    void testSettledGapIsSkipped() {
+        when(changeRepository.findAfter(10, 100)).thenReturn(Arrays.asList(change(11, 10000), change(13, 10000)));
+
+        CatalogChangesDTO result = changeService.changesSince(10, 100);
+
+        assertEquals(2, result.getChanges().size());
+        assertEquals(13, result.getNextSince());
+        assertFalse(result.isHasMore());
+    }
+
+    @Test
+    void testExpiredVersionRequiresResync() {
+        when(changeRepository.findAfter(10, 100)).thenReturn(Arrays.asList(change(50, 10000)));
+        when(changeRepository.oldestVersion()).thenReturn(50L);
+        when(changeRepository.latestVersion()).thenReturn(80L);
+
+        CatalogChangesDTO result = changeService.changesSince(10, 100);
+
+        assertTrue(result.isResyncRequired());
+        assertEquals(80L, result.getLatestVersion());
+    }
+
+    @Test
+    void testLongPollCompletesWhenChangeArrives() {
+        when(changeRepository.findAfter(5, 10)).thenReturn(Collections.emptyList(), Arrays.asList(change(6, 10000)));
+        when(changeRepository.latestVersion()).thenReturn(6L);
+
+        CompletableFuture<CatalogChangesDTO> pending = changeService.awaitChanges(5, 10, 20000);
+        assertFalse(pending.isDone());
+
+        changeService.wakeWaiters();
+
+        assertTrue(pending.isDone());
+        assertEquals(6, pending.join().getNextSince());
+    }
+
+    @Test
+    void testLongPollTimesOutEmpty() {
+        when(changeRepository.findAfter(5, 10)).thenReturn(Collections.emptyList());
+        when(changeRepository.latestVersion()).thenReturn(5L);
+
+        CompletableFuture<CatalogChangesDTO> pending = changeService.awaitChanges(5, 10, 1);
+        sleep(5);
+        changeService.wakeWaiters();
+
+        assertTrue(pending.join().getChanges().isEmpty());
+        assertEquals(5, pending.join().getNextSince());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
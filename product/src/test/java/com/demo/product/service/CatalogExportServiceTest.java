@@ -0,0 +1,58 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookListFilterDTO;
+import com.demo.product.entity.Books;
+import com.demo.product.repository.BookSearchRepository;
+import com.demo.product.service.impl.CatalogExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogExportServiceTest {
+
+    @Mock
+    private BookSearchRepository searchRepository;
+
+    @Mock
+    private CloseableIterator<Books> cursor;
+
+    @InjectMocks
+    private CatalogExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void testExport_WritesOneJsonLinePerBookAndClosesCursor() throws Exception {
+        BookListFilterDTO filter = new BookListFilterDTO();
+        Set<String> fields = new LinkedHashSet<>(Arrays.asList("id", "title"));
+        when(searchRepository.streamBooks(filter, "BOOK-100000", fields)).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(Books.builder().id("BOOK-100001").title("One").build(),
+                Books.builder().id("BOOK-100002").title("Two").build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.exportBooks(filter, fields, "BOOK-100000", out);
+
+        assertEquals(2, exported);
+        assertEquals("{\"id\":\"BOOK-100001\",\"title\":\"One\"}\n{\"id\":\"BOOK-100002\",\"title\":\"Two\"}\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+        verify(cursor).close();
+    }
+}
@@ -0,0 +1,148 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.ImportFormat;
+import com.demo.product.DTO.ImportReportDTO;
+import com.demo.product.cache.BookCacheInvalidator;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.event.BookChangedEvent;
+import com.demo.product.service.impl.CatalogImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BookIdAllocator idAllocator;
+
+    @Mock
+    private BookCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CatalogChangeService changeFeed;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CatalogImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Books.class)).thenReturn(bulkOperations);
+    }
+
+    private InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNdjsonImport_ReportsPerRowErrorsAndInvalidatesOnce() throws Exception {
+        when(idAllocator.nextId()).thenReturn("BOOK-1000001", "BOOK-1000002");
+        String body = "{\"title\":\"A\",\"author\":\"X\",\"publisher\":\"P\",\"price\":10}\n"
+                + "{\"id\":\"BOOK-123456\",\"title\":\"B\",\"author\":\"Y\",\"publisher\":\"P\",\"price\":12}\n"
+                + "\n"
+                + "{\"title\":\"C\",\"publisher\":\"P\",\"price\":5}\n"
+                + "{not json\n"
+                + "{\"title\":\"D\",\"author\":\"Z\",\"publisher\":\"P\",\"price\":7}\n";
+
+        ImportReportDTO report = importService.importBooks(input(body), ImportFormat.NDJSON);
+
+        assertEquals(5, report.getProcessed());
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getUpserted());
+        assertEquals(2, report.getFailed());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertEquals(5, report.getErrors().get(1).getLine());
+
+        verify(bulkOperations, times(2)).insert(any(Books.class));
+        verify(bulkOperations).replaceOne(any(Query.class), any(Books.class), any(FindAndReplaceOptions.class));
+        verify(changeFeed, times(2)).recordAll(eq(ChangeType.CREATED), argThat(books -> books.size() == 1));
+        verify(changeFeed).recordAll(eq(ChangeType.UPDATED), argThat(books -> books.size() == 1));
+        verify(bulkOperations, times(2)).execute();
+        verify(eventPublisher, times(3)).publishEvent(any(BookChangedEvent.class));
+        verify(cacheInvalidator, times(1)).invalidatePages();
+        verify(cacheInvalidator, times(1)).clearBooks();
+    }
+
+    @Test
+    void testCsvImport_ParsesHeaderAndListColumns() throws Exception {
+        when(idAllocator.nextId()).thenReturn("BOOK-1000001");
+        String body = "title,author,coAuthors,publisher,price,unknownColumn\n"
+                + "Good Omens,Terry Pratchett,Neil Gaiman;Someone Else,Gollancz,9.5,x\n";
+
+        ImportReportDTO report = importService.importBooks(input(body), ImportFormat.CSV);
+
+        assertEquals(1, report.getInserted());
+        assertEquals(0, report.getFailed());
+        verify(bulkOperations).insert(argThat((Books book) -> book.getCoAuthors().size() == 2
+                && "good omens".equals(book.getTitleFolded())));
+        verify(cacheInvalidator, never()).clearBooks();
+    }
+
+    @Test
+    void testImport_RejectsNewIdsInsideTheGeneratedRange() throws Exception {
+        when(idAllocator.isGenerated(anyString())).thenAnswer(call -> call.<String>getArgument(0).length() == 12);
+        when(mongoTemplate.find(any(Query.class), eq(Books.class)))
+                .thenReturn(Collections.singletonList(Books.builder().id("BOOK-1000002").build()));
+        String body = "{\"id\":\"BOOK-1000002\",\"title\":\"A\",\"author\":\"X\",\"publisher\":\"P\",\"price\":10}\n"
+                + "{\"id\":\"BOOK-1000050\",\"title\":\"B\",\"author\":\"Y\",\"publisher\":\"P\",\"price\":12}\n";
+
+        ImportReportDTO report = importService.importBooks(input(body), ImportFormat.NDJSON);
+
+        assertEquals(1, report.getUpserted());
+        assertEquals(1, report.getFailed());
+        assertEquals("BOOK-1000050", report.getErrors().get(0).getBookId());
+        verify(bulkOperations).replaceOne(argThat(q -> q.getQueryObject().get("id").equals("BOOK-1000002")),
+                any(Books.class), any(FindAndReplaceOptions.class));
+        verify(bulkOperations, times(1)).replaceOne(any(Query.class), any(Books.class), any(FindAndReplaceOptions.class));
+    }
+
+    @Test
+    void testImport_InvalidatesWhenAWriteBreaksOffMidway() {
+        when(bulkOperations.execute()).thenReturn(null).thenThrow(new DataAccessResourceFailureException("timeout"));
+        String body = "{\"id\":\"BOOK-123456\",\"title\":\"A\",\"author\":\"X\",\"publisher\":\"P\",\"price\":10}\n"
+                + "{\"id\":\"BOOK-123457\",\"title\":\"B\",\"author\":\"Y\",\"publisher\":\"P\",\"price\":12}\n"
+                + "{\"id\":\"BOOK-123458\",\"title\":\"C\",\"author\":\"Z\",\"publisher\":\"P\",\"price\":7}\n";
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> importService.importBooks(input(body), ImportFormat.NDJSON));
+
+        verify(cacheInvalidator).invalidatePages();
+        verify(cacheInvalidator).clearMisses();
+        verify(cacheInvalidator).clearBooks();
+    }
+}
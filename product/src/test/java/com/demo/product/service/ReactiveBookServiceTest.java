@@ -0,0 +1,125 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.BookResponseDTO;
+import com.demo.product.cache.CacheEnvelope;
+import com.demo.product.entity.Books;
+import com.demo.product.exception.ResourceNotFoundException;
+import com.demo.product.repository.ReactiveBookSearchRepository;
+import com.demo.product.service.impl.ReactiveBookServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBookServiceTest {
+
+    @Mock
+    private ReactiveBookSearchRepository searchRepository;
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> cacheTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, Object> cacheValues;
+
+    @InjectMocks
+    private ReactiveBookServiceImpl reactiveBookService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reactiveBookService, "booksTtlMs", 600000L);
+        ReflectionTestUtils.setField(reactiveBookService, "missesTtlMs", 60000L);
+        // Listing paths never touch the cache.
+        lenient().when(cacheTemplate.opsForValue()).thenReturn(cacheValues);
+    }
+
+    private static BookResponseDTO dto(String id, String title) {
+        BookResponseDTO dto = new BookResponseDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        return dto;
+    }
+
+    private void cached(Object book, Object missing) {
+        when(cacheValues.multiGet(Arrays.asList("books::BOOK-1", "bookMisses::BOOK-1")))
+                .thenReturn(Mono.just(Arrays.asList(book, missing)));
+    }
+
+    @Test
+    void testGetBook_CacheHitSkipsMongo() {
+        cached(new CacheEnvelope(dto("BOOK-1", "Dune"), 5, Long.MAX_VALUE), null);
+
+        BookResponseDTO book = reactiveBookService.getBook("BOOK-1").block();
+
+        assertEquals("Dune", book.getTitle());
+        verifyNoInteractions(searchRepository);
+    }
+
+    @Test
+    void testGetBook_MissLoadsFromMongoAndFillsSharedEntry() {
+        cached(null, null);
+        when(searchRepository.findBook("BOOK-1")).thenReturn(Mono.just(Books.builder().id("BOOK-1").title("Dune").build()));
+        when(cacheValues.set(eq("books::BOOK-1"), any(), eq(Duration.ofMillis(600000)))).thenReturn(Mono.just(true));
+
+        BookResponseDTO book = reactiveBookService.getBook("BOOK-1").block();
+
+        assertEquals("Dune", book.getTitle());
+        ArgumentCaptor<Object> stored = ArgumentCaptor.forClass(Object.class);
+        verify(cacheValues).set(eq("books::BOOK-1"), stored.capture(), any(Duration.class));
+        assertEquals("Dune", ((BookResponseDTO) ((CacheEnvelope) stored.getValue()).getValue()).getTitle());
+    }
+
+    @Test
+    void testGetBook_NotFoundMarkerAndUnknownId() {
+        cached(null, Boolean.TRUE);
+
+        assertThrows(ResourceNotFoundException.class, () -> reactiveBookService.getBook("BOOK-1").block());
+        verifyNoInteractions(searchRepository);
+
+        cached(null, null);
+        when(searchRepository.findBook("BOOK-1")).thenReturn(Mono.empty());
+        when(cacheValues.set(eq("bookMisses::BOOK-1"), eq(Boolean.TRUE), any(Duration.class))).thenReturn(Mono.just(true));
+
+        assertThrows(ResourceNotFoundException.class, () -> reactiveBookService.getBook("BOOK-1").block());
+        verify(cacheValues).set(eq("bookMisses::BOOK-1"), eq(Boolean.TRUE), any(Duration.class));
+    }
+
+    @Test
+    void testGetBook_RedisDownFallsBackToMongo() {
+        when(cacheValues.multiGet(anyList())).thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+        when(searchRepository.findBook("BOOK-1")).thenReturn(Mono.just(Books.builder().id("BOOK-1").title("Dune").build()));
+        when(cacheValues.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+
+        assertEquals("Dune", reactiveBookService.getBook("BOOK-1").block().getTitle());
+    }
+
+    @Test
+    void testSearch_AppliesOffsetAndLimitToTheStream() {
+        when(searchRepository.searchKeyword("dune", Collections.emptySet())).thenReturn(Flux.range(1, 100)
+                .map(i -> Books.builder().id("BOOK-" + i).build()));
+
+        List<String> ids = reactiveBookService.search(" dune ", 10, 3, Collections.emptySet())
+                .map(BookResponseDTO::getId).collectList().block();
+
+        assertEquals(Arrays.asList("BOOK-11", "BOOK-12", "BOOK-13"), ids);
+    }
+}
@@ -0,0 +1,89 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.SearchAnalyticsDTO;
+import com.demo.product.DTO.BookFieldSet;
+import com.demo.product.cache.HotKeyTracker;
+import com.demo.product.service.impl.SearchAnalyticsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchAnalyticsServiceTest {
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private HotKeyTracker hotKeys = new HotKeyTracker();
+
+    @InjectMocks
+    private SearchAnalyticsServiceImpl searchAnalytics;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchAnalytics, "capacity", 50);
+        ReflectionTestUtils.invokeMethod(searchAnalytics, "init");
+        ReflectionTestUtils.setField(hotKeys, "maxKeys", 50);
+        ReflectionTestUtils.invokeMethod(hotKeys, "init");
+    }
+
+    // The controller counts every request; only cache misses reach recordExecution.
+    private void search(String keyword, int page, long results, Long executedNanos) {
+        hotKeys.recordSearch(keyword, page, 10, BookFieldSet.parseListing(null));
+        searchAnalytics.record(keyword, results);
+        if (executedNanos != null) {
+            searchAnalytics.recordExecution(keyword, executedNanos);
+        }
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void testReport_TracksTopZeroResultAndLatencyByClass() {
+        search(" Harry Potter ", 0, 12, ms(5));
+        for (int i = 1; i < 20; i++) {
+            search(" Harry Potter ", i % 2, 12, i == 1 ? ms(5) : null);
+        }
+        search("tolkien", 0, 3, ms(40));
+        search("hary poter", 0, 0, ms(8));
+        searchAnalytics.record("   ", 0);
+
+        SearchAnalyticsDTO report = searchAnalytics.getReport(10);
+
+        assertEquals(22, report.getSearches());
+        assertEquals(1, report.getZeroResultSearches());
+        assertEquals("harry potter", report.getTopQueries().get(0).getQuery());
+        assertEquals(20, report.getTopQueries().get(0).getValue());
+        assertEquals("hary poter", report.getZeroResultQueries().get(0).getQuery());
+        // Cached repeats of a popular query cost nothing, so it does not outrank the slow one.
+        assertEquals("tolkien", report.getCostliestQueries().get(0).getQuery());
+        assertEquals(3, report.getLatencyByClass().stream()
+                .filter(l -> "phrase".equals(l.getQueryClass())).findFirst().get().getCount());
+        assertEquals(1, report.getLatencyByClass().stream()
+                .filter(l -> "word".equals(l.getQueryClass())).findFirst().get().getCount());
+    }
+
+    @Test
+    void testPrecacheCandidates_AreTheQueriesWithMostTimeSpent() {
+        searchAnalytics.recordExecution("tolkien", ms(40));
+        searchAnalytics.recordExecution("pratchett", ms(2));
+        searchAnalytics.recordExecution("pratchett", ms(2));
+
+        assertEquals(Arrays.asList("tolkien", "pratchett"), searchAnalytics.precacheCandidates(2));
+        assertEquals(Collections.singletonList("tolkien"), searchAnalytics.precacheCandidates(1));
+    }
+}
@@ -0,0 +1,230 @@
+package com.demo.product.service;
+
+import com.demo.product.DTO.StockItemDTO;
+import com.demo.product.DTO.StockReservationDTO;
+import com.demo.product.DTO.StockReservationRequestDTO;
+import com.demo.product.cache.BookCacheInvalidator;
+import com.demo.product.entity.Books;
+import com.demo.product.entity.ChangeType;
+import com.demo.product.entity.ReservationStatus;
+import com.demo.product.entity.StockItem;
+import com.demo.product.entity.StockReservation;
+import com.demo.product.exception.StockConflictException;
+import com.demo.product.repository.BookServiceRepository;
+import com.demo.product.repository.StockRepository;
+import com.demo.product.service.impl.StockReservationServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private BookServiceRepository bookRepository;
+
+    @Mock
+    private BookCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CatalogChangeService changeFeed;
+
+    @InjectMocks
+    private StockReservationServiceImpl reservationService;
+
+    private StockReservationRequestDTO request(String id, StockItemDTO... items) {
+        StockReservationRequestDTO request = new StockReservationRequestDTO();
+        request.setReservationId(id);
+        request.setItems(Arrays.asList(items));
+        return request;
+    }
+
+    private Books book(String id, int stock) {
+        return Books.builder().id(id).stockAvailable(stock).build();
+    }
+
+    @Test
+    void testReserve_DecrementsEveryItemAndMergesDuplicates() {
+        when(stockRepository.touchPending("order-1")).thenReturn(true);
+        when(stockRepository.decrementIfAvailable("BOOK-1", 3, "order-1")).thenReturn(book("BOOK-1", 7));
+        when(stockRepository.decrementIfAvailable("BOOK-2", 1, "order-1")).thenReturn(book("BOOK-2", 0));
+        when(stockRepository.transition("order-1", ReservationStatus.PENDING, ReservationStatus.RESERVED))
+                .thenAnswer(inv -> StockReservation.builder().id("order-1").status(ReservationStatus.RESERVED)
+                        .items(Arrays.asList(new StockItem("BOOK-1", 3), new StockItem("BOOK-2", 1))).build());
+
+        StockReservationDTO result = reservationService.reserve(request("order-1",
+                new StockItemDTO("BOOK-2", 1), new StockItemDTO("BOOK-1", 1), new StockItemDTO("BOOK-1", 2)));
+
+        assertEquals("RESERVED", result.getStatus());
+        verify(cacheInvalidator).evictBooks(new HashSet<>(Arrays.asList("BOOK-1", "BOOK-2")));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+        verify(changeFeed).recordAll(eq(ChangeType.UPDATED), argThat(books -> books.size() == 2));
+    }
+
+    @Test
+    void testReserve_ShortItemGivesBackEarlierItems() {
+        when(stockRepository.touchPending("order-2")).thenReturn(true);
+        when(stockRepository.decrementIfAvailable("BOOK-1", 1, "order-2")).thenReturn(book("BOOK-1", 4));
+        when(stockRepository.decrementIfAvailable("BOOK-2", 5, "order-2")).thenReturn(null);
+        when(bookRepository.existsById("BOOK-2")).thenReturn(true);
+        when(stockRepository.increment("BOOK-1", 1, "order-2")).thenReturn(book("BOOK-1", 5));
+
+        StockConflictException ex = assertThrows(StockConflictException.class, () -> reservationService.reserve(
+                request("order-2", new StockItemDTO("BOOK-1", 1), new StockItemDTO("BOOK-2", 5))));
+
+        assertEquals("Insufficient stock for book BOOK-2", ex.getMessage());
+        verify(stockRepository).markFailed("order-2", "Insufficient stock for book BOOK-2");
+        verify(stockRepository).increment("BOOK-1", 1, "order-2");
+        verify(stockRepository).markStockReturned("order-2");
+        verify(stockRepository, never()).transition(anyString(), any(), any());
+    }
+
+    @Test
+    void testReserve_FailedDecrementGivesBackEveryTaggedItem() {
+        when(stockRepository.touchPending("order-7")).thenReturn(true);
+        when(stockRepository.decrementIfAvailable("BOOK-1", 1, "order-7")).thenReturn(book("BOOK-1", 4));
+        when(stockRepository.decrementIfAvailable("BOOK-2", 2, "order-7")).thenThrow(new DataAccessResourceFailureException("timeout"));
+        when(stockRepository.increment("BOOK-1", 1, "order-7")).thenReturn(book("BOOK-1", 5));
+        when(stockRepository.increment("BOOK-2", 2, "order-7")).thenReturn(book("BOOK-2", 8));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> reservationService.reserve(
+                request("order-7", new StockItemDTO("BOOK-1", 1), new StockItemDTO("BOOK-2", 2))));
+
+        // The timed-out decrement may have landed; its tag decides whether stock comes back.
+        verify(stockRepository).increment("BOOK-2", 2, "order-7");
+        verify(stockRepository).markFailed(eq("order-7"), anyString());
+        verify(stockRepository).markStockReturned("order-7");
+        verify(stockRepository, never()).transition(anyString(), any(), any());
+    }
+
+    @Test
+    void testReserve_FailedBySweepMidwayGivesBackAndConflicts() {
+        when(stockRepository.touchPending("order-9")).thenReturn(true);
+        when(stockRepository.decrementIfAvailable("BOOK-1", 1, "order-9")).thenReturn(book("BOOK-1", 4));
+        when(stockRepository.transition("order-9", ReservationStatus.PENDING, ReservationStatus.RESERVED)).thenReturn(null);
+        when(stockRepository.increment("BOOK-1", 1, "order-9")).thenReturn(book("BOOK-1", 5));
+
+        assertThrows(StockConflictException.class,
+                () -> reservationService.reserve(request("order-9", new StockItemDTO("BOOK-1", 1))));
+
+        verify(stockRepository).increment("BOOK-1", 1, "order-9");
+        verify(stockRepository).markStockReturned("order-9");
+    }
+
+    @Test
+    void testReserve_StopsOnceTheReservationIsNoLongerPending() {
+        when(stockRepository.touchPending("order-10")).thenReturn(true, false);
+        when(stockRepository.decrementIfAvailable("BOOK-1", 1, "order-10")).thenReturn(book("BOOK-1", 4));
+
+        assertThrows(StockConflictException.class, () -> reservationService.reserve(
+                request("order-10", new StockItemDTO("BOOK-1", 1), new StockItemDTO("BOOK-2", 1))));
+
+        verify(stockRepository, never()).decrementIfAvailable(eq("BOOK-2"), anyInt(), anyString());
+        verify(stockRepository).increment("BOOK-1", 1, "order-10");
+        verify(stockRepository, never()).transition(anyString(), any(), any());
+    }
+
+    @Test
+    void testReleaseExpired_UnwindsAbandonedAndUnfinishedReservations() {
+        StockReservation abandoned = StockReservation.builder().id("order-8").status(ReservationStatus.PENDING)
+                .items(Arrays.asList(new StockItem("BOOK-1", 1), new StockItem("BOOK-2", 2))).build();
+        StockReservation unfinished = StockReservation.builder().id("order-11").status(ReservationStatus.FAILED)
+                .items(Collections.singletonList(new StockItem("BOOK-3", 1))).build();
+        when(stockRepository.findExpired(any(), anyInt())).thenReturn(Collections.emptyList());
+        when(stockRepository.findAbandoned(any(), anyInt())).thenReturn(Arrays.asList(abandoned, unfinished));
+        when(stockRepository.markFailed(eq("order-8"), anyString())).thenReturn(true);
+        when(stockRepository.increment("BOOK-1", 1, "order-8")).thenReturn(book("BOOK-1", 5));
+
+        assertEquals(2, reservationService.releaseExpired());
+
+        // Only tagged books match, so BOOK-2's untaken stock stays put.
+        verify(stockRepository).increment("BOOK-2", 2, "order-8");
+        verify(stockRepository).increment("BOOK-3", 1, "order-11");
+        verify(stockRepository, never()).markFailed(eq("order-11"), anyString());
+        verify(stockRepository).markStockReturned("order-8");
+        verify(stockRepository).markStockReturned("order-11");
+        verify(cacheInvalidator).evictBooks(Collections.singleton("BOOK-1"));
+    }
+
+    @Test
+    void testReserve_RetryReturnsOriginalReservation() {
+        doThrow(new DuplicateKeyException("dup")).when(stockRepository).insertReservation(any());
+        when(stockRepository.findReservation("order-3")).thenReturn(StockReservation.builder().id("order-3")
+                .status(ReservationStatus.RESERVED).items(Arrays.asList(new StockItem("BOOK-1", 2))).build());
+
+        StockReservationDTO result = reservationService.reserve(request("order-3", new StockItemDTO("BOOK-1", 2)));
+
+        assertEquals("RESERVED", result.getStatus());
+        verify(stockRepository, never()).decrementIfAvailable(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void testReserve_RetryWithDifferentItemsIsRejected() {
+        doThrow(new DuplicateKeyException("dup")).when(stockRepository).insertReservation(any());
+        when(stockRepository.findReservation("order-3")).thenReturn(StockReservation.builder().id("order-3")
+                .status(ReservationStatus.RESERVED).items(Arrays.asList(new StockItem("BOOK-1", 2))).build());
+
+        assertThrows(StockConflictException.class,
+                () -> reservationService.reserve(request("order-3", new StockItemDTO("BOOK-1", 5))));
+    }
+
+    @Test
+    void testReserve_RejectsNonPositiveQuantity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reservationService.reserve(request("order-4", new StockItemDTO("BOOK-1", 0))));
+        verifyNoInteractions(stockRepository);
+    }
+
+    @Test
+    void testRelease_ReturnsStockOnceOnly() {
+        StockReservation released = StockReservation.builder().id("order-5").status(ReservationStatus.RELEASED)
+                .items(Arrays.asList(new StockItem("BOOK-1", 2))).build();
+        when(stockRepository.transition("order-5", ReservationStatus.RESERVED, ReservationStatus.RELEASED))
+                .thenReturn(released, (StockReservation) null);
+        when(stockRepository.increment("BOOK-1", 2, "order-5")).thenReturn(book("BOOK-1", 9));
+        when(stockRepository.findReservation("order-5")).thenReturn(released);
+
+        reservationService.release("order-5");
+        StockReservationDTO again = reservationService.release("order-5");
+
+        assertEquals("RELEASED", again.getStatus());
+        verify(stockRepository, times(1)).increment("BOOK-1", 2, "order-5");
+        verify(stockRepository, times(1)).markStockReturned("order-5");
+    }
+
+    @Test
+    void testCommit_ClearsTheStockTags() {
+        when(stockRepository.transition("order-12", ReservationStatus.RESERVED, ReservationStatus.COMMITTED))
+                .thenReturn(StockReservation.builder().id("order-12").status(ReservationStatus.COMMITTED)
+                        .items(Arrays.asList(new StockItem("BOOK-1", 1), new StockItem("BOOK-2", 1))).build());
+
+        assertEquals("COMMITTED", reservationService.commit("order-12").getStatus());
+        verify(stockRepository).settle("order-12", Arrays.asList("BOOK-1", "BOOK-2"));
+        verify(stockRepository, never()).increment(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void testCommit_ReleasedReservationConflicts() {
+        when(stockRepository.findReservation("order-6")).thenReturn(StockReservation.builder().id("order-6")
+                .status(ReservationStatus.RELEASED).items(Collections.emptyList()).build());
+
+        assertThrows(StockConflictException.class, () -> reservationService.commit("order-6"));
+    }
+}
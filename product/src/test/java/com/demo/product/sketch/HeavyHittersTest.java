@@ -0,0 +1,44 @@
+package com.demo.product.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void testFindsHottestKeysInSkewedStream() {
+        HeavyHitters hitters = new HeavyHitters(10, 4, 1024);
+
+        for (int round = 0; round < 100; round++) {
+            for (int hot = 0; hot < 5; hot++) {
+                hitters.record("hot-" + hot);
+            }
+            for (int cold = 0; cold < 50; cold++) {
+                hitters.record("cold-" + round + "-" + cold);
+            }
+        }
+
+        List<String> top = hitters.top(5).stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        assertEquals(5, top.size());
+        assertTrue(top.stream().allMatch(key -> key.startsWith("hot-")), top.toString());
+        assertTrue(hitters.top(100).size() < 20);
+    }
+
+    @Test
+    void testSketchNeverUndercountsAndDecays() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key-" + (i % 100), 1);
+        }
+
+        assertTrue(sketch.estimate("key-7") >= 10);
+        long before = sketch.estimate("key-7");
+        sketch.halve();
+        assertEquals(before / 2, sketch.estimate("key-7"));
+    }
+}